@@ -1,15 +1,122 @@
+import ModelMinesweeper.BoardConfig;
 import ModelMinesweeper.Grid;
 import Solver.LocalBruteForceSolver.LocalBruteForceSolver;
 import Solver.NaiveSolver.NaiveSolver;
+import Solver.BatchSimulator;
 import Solver.Coordinates;
+import Solver.GameTrace;
+import Solver.NoGuessGenerator;
+import Solver.SessionManager;
 import Solver.SolverMain;
+import Solver.TraceRecorder;
+import Solver.TraceReplayer;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.lang.reflect.Array;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Scanner;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        // record <trace file> <games per solver> [board] [solver modes...]
+        if (args.length > 2 && args[0].equals("record")) {
+            int games = Integer.parseInt(args[2]);
+            BoardConfig board = args.length > 3 ? BoardConfig.parse(args[3]) : BoardConfig.EXPERT;
+            int[] modes = args.length > 4 ? new int[args.length - 4] : new int[]{1};
+            for (int i = 4; i < args.length; i++)
+                modes[i - 4] = Integer.parseInt(args[i]);
+
+            try (TraceRecorder recorder = new TraceRecorder(Path.of(args[1]))) {
+                BatchSimulator simulator = new BatchSimulator(board, games,
+                        Runtime.getRuntime().availableProcessors());
+                simulator.useTraceRecorder(recorder);
+                for (BatchSimulator.Result result: simulator.run(modes))
+                    System.out.println(result);
+                System.out.println("recorded " + recorder.getGames() + " games to " + args[1]);
+            }
+            return;
+        }
+
+        // serve [loopback port], commands are read from stdin without a port
+        if (args.length > 0 && args[0].equals("serve")) {
+            SessionManager manager = new SessionManager(Runtime.getRuntime().availableProcessors(), 10000);
+            if (args.length > 1) manager.listen(Integer.parseInt(args[1]));
+            else manager.serve(new InputStreamReader(System.in), new OutputStreamWriter(System.out));
+            manager.shutdown();
+            return;
+        }
+
+        // replay <trace file> [solver modes...]
+        if (args.length > 1 && args[0].equals("replay")) {
+            int[] modes = args.length > 2 ? new int[args.length - 2] : new int[]{1};
+            for (int i = 2; i < args.length; i++)
+                modes[i - 2] = Integer.parseInt(args[i]);
+
+            TraceReplayer replayer = new TraceReplayer(Path.of(args[1]));
+            for (int mode: modes) {
+                int games = 0, wins = 0, diverged = 0;
+                long steps = 0, nanos = 0;
+                for (GameTrace trace: replayer) {
+                    TraceReplayer.Replay replay = TraceReplayer.replay(trace,
+                            game -> SolverMain.createSolver(mode, game),
+                            trace.longSideLength() * trace.shortSideLength());
+                    games++;
+                    steps += replay.steps();
+                    nanos += replay.nanos();
+                    if (replay.outcome() == GameTrace.WON) wins++;
+                    if (replay.firstDivergence() != -1) diverged++;
+                }
+                System.out.printf("%-16s games=%d win=%.2f%% diverged=%d steps/game=%.1f us/game=%.1f%n",
+                        SolverMain.modeName(mode), games, games == 0 ? 0 : 100.0 * wins / games, diverged,
+                        games == 0 ? 0 : (double) steps / games, games == 0 ? 0 : nanos / 1e3 / games);
+            }
+            return;
+        }
+
+        // noguess <games per solver> [board] [solver modes...], boards are solved from the center cell
+        if (args.length > 1 && args[0].equals("noguess")) {
+            int games = Integer.parseInt(args[1]);
+            BoardConfig board = args.length > 2 ? BoardConfig.parse(args[2]) : BoardConfig.EXPERT;
+            int[] modes = args.length > 3 ? new int[args.length - 3] : new int[]{0, 1, 2};
+            for (int i = 3; i < args.length; i++)
+                modes[i - 3] = Integer.parseInt(args[i]);
+            Coordinates firstClick = new Coordinates(board.longSide() / 2, board.shortSide() / 2);
+            int threads = Runtime.getRuntime().availableProcessors();
+
+            long start = System.nanoTime();
+            long[][] boards = NoGuessGenerator.generate(board, firstClick, games, threads, 0);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("generated %d boards in %.1fms, boards/s=%.1f%n", games, elapsed / 1e6,
+                    games / (elapsed / 1e9));
+
+            BatchSimulator simulator = new BatchSimulator(board, games, threads);
+            simulator.useNoGuessBoards(firstClick, boards);
+            for (BatchSimulator.Result result: simulator.run(modes))
+                System.out.println(result);
+            return;
+        }
+
+        // batch <games per solver> [board] [solver modes...], the first click opens a zero region
+        // stats takes the same arguments and also prints the solver metrics of every mode
+        if (args.length > 0 && (args[0].equals("batch") || args[0].equals("stats"))) {
+            int games = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+            BoardConfig board = args.length > 2 ? BoardConfig.parse(args[2]) : BoardConfig.EXPERT;
+            int[] modes = args.length > 3 ? new int[args.length - 3] : new int[]{0, 1, 2};
+            for (int i = 3; i < args.length; i++)
+                modes[i - 3] = Integer.parseInt(args[i]);
+
+            BatchSimulator simulator = new BatchSimulator(board, games, Runtime.getRuntime().availableProcessors());
+            simulator.useSafeFirstClick(true);
+            simulator.useOpeningCell(SolverMain.openingCell(board.longSide(), board.shortSide(), true));
+            simulator.useMetrics(args[0].equals("stats"));
+            for (BatchSimulator.Result result: simulator.run(modes))
+                System.out.println(result);
+            return;
+        }
+
         SolverMain solver = new SolverMain();
         solver.run();
 //        Grid grid = new Grid();
@@ -0,0 +1,419 @@
+package ModelMinesweeper;
+
+import Solver.Coordinates;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// represents the whole grid where the game will be played, without one object per cell
+// mines, open and flagged state are kept in packed bitsets and the number of adjacent mines in a byte array,
+// a cell at (i, j) of Grid is stored at index i * shortSide + j
+public class BitboardGrid implements GridEngine {
+    private final int longSide; //CoordinateI
+    private final int shortSide; //CoordinateJ
+    private final int numMines;
+    private final int totalNumCells;
+    private final long[] mines; //bit set if cell is a mine
+    private final long[] open; //bit set if cell is open
+    private final long[] flagged; //bit set if cell is flagged
+    private final byte[] adjacentBombs; //number of adjacent mines, -1 for mines
+    private final int[] openStack; //work list used when opening zero regions, and cell order when placing mines
+    private SplittableRandom random; //places the mines
+    private boolean hitMine; //true if a mine has been opened since the last genGrid
+    private int numOpenCells; //number of non mine cells that have been opened
+    private final long[] dirty; //bit set if cell was opened or flagged since the last export
+    private final int[] dirtyCells; //the cells whose dirty bit is set
+    private int numDirty;
+    private int[][] exportedMatrix; //matrix written by the last export, null if the next export must write every cell
+    private boolean safeFirstClick; //true if genGrid leaves the mines to be placed by the first opened cell
+    private boolean protectNeighbours; //true if the neighbours of the first opened cell are never mines either
+    private boolean minesPlaced; //false while the mines of a safe first click field are not placed yet
+
+    public BitboardGrid() {
+        this(Grid.LONG_SIDE, Grid.SHORT_SIDE, Grid.NUM_MINES);
+    }
+
+    //REQUIRES: longSide and shortSide larger than 0, 0 <= numMines <= longSide * shortSide
+    //EFFECTS: creates a grid of the given dimensions with numMines randomly placed mines
+    public BitboardGrid(int longSide, int shortSide, int numMines) {
+        this(longSide, shortSide, numMines, new SplittableRandom());
+    }
+
+    //REQUIRES: longSide and shortSide larger than 0, 0 <= numMines <= longSide * shortSide
+    //EFFECTS: creates a grid of the given dimensions with numMines mines placed from the given seed
+    public BitboardGrid(int longSide, int shortSide, int numMines, long seed) {
+        this(longSide, shortSide, numMines, new SplittableRandom(seed));
+    }
+
+    private BitboardGrid(int longSide, int shortSide, int numMines, SplittableRandom random) {
+        Grid.checkDimensions(longSide, shortSide, numMines);
+        this.longSide = longSide;
+        this.shortSide = shortSide;
+        this.numMines = numMines;
+        this.totalNumCells = longSide * shortSide;
+        this.random = random;
+
+        int words = (totalNumCells + 63) >>> 6;
+        mines = new long[words];
+        open = new long[words];
+        flagged = new long[words];
+        dirty = new long[words];
+        dirtyCells = new int[totalNumCells];
+        adjacentBombs = new byte[totalNumCells];
+        openStack = new int[totalNumCells];
+        genGrid();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: clears the field, places numMines mines at random and sets the adjacent mine counts
+    //         with a safe first click the mines are only placed by the first opened cell, see useSafeFirstClick
+    @Override
+    public void genGrid() {
+        clear(mines);
+        clear(open);
+        clear(flagged);
+        hitMine = false;
+        numOpenCells = 0;
+        clearDirty();
+        exportedMatrix = null;
+
+        minesPlaced = false;
+        if (safeFirstClick) {
+            Arrays.fill(adjacentBombs, (byte) 0);
+        } else {
+            placeMines(-1);
+        }
+    }
+
+    @Override
+    public void useSafeFirstClick(boolean safeFirstClick, boolean protectNeighbours) {
+        this.safeFirstClick = safeFirstClick;
+        this.protectNeighbours = protectNeighbours;
+    }
+
+    //REQUIRES: mines is empty
+    //MODIFIES: this
+    //EFFECTS: places numMines mines with a partial Fisher-Yates pass over the cell indices, leaving out the cell at
+    //         firstCell and its neighbours as in Grid, -1 to use every cell
+    //         the adjacent mine counts are computed from the mines, only their neighbours are visited
+    private void placeMines(int firstCell) {
+        int safeDistance; //cells within this distance of firstCell get no mine, -1 if every cell can get one
+        if (firstCell == -1 || numMines == totalNumCells) {
+            safeDistance = -1;
+        } else if (protectNeighbours && totalNumCells - numMines >= numSafeCells(firstCell)) {
+            safeDistance = 1;
+        } else {
+            safeDistance = 0;
+        }
+
+        int numPlaceable = 0;
+        for (int index = 0; index < totalNumCells; index++) {
+            if (safeDistance == -1 || Math.abs(index / shortSide - firstCell / shortSide) > safeDistance
+                    || Math.abs(index % shortSide - firstCell % shortSide) > safeDistance) {
+                openStack[numPlaceable++] = index;
+            }
+        }
+        for (int k = 0; k < numMines; k++) {
+            int swapIndex = k + random.nextInt(numPlaceable - k);
+            int index = openStack[swapIndex];
+            openStack[swapIndex] = openStack[k];
+            openStack[k] = index;
+            set(mines, index);
+        }
+
+        Arrays.fill(adjacentBombs, (byte) 0);
+        for (int k = 0; k < numMines; k++) {
+            int index = openStack[k];
+            int i = index / shortSide;
+            int j = index % shortSide;
+            adjacentBombs[index] = -1;
+            for (int p = Math.max(i - 1, 0); p <= Math.min(i + 1, longSide - 1); p++) {
+                for (int q = Math.max(j - 1, 0); q <= Math.min(j + 1, shortSide - 1); q++) {
+                    int neighbour = p * shortSide + q;
+                    if (!get(mines, neighbour)) {
+                        adjacentBombs[neighbour]++;
+                    }
+                }
+            }
+        }
+        minesPlaced = true;
+    }
+
+    //EFFECTS: returns the number of cells in the 3x3 block around the cell at index
+    private int numSafeCells(int index) {
+        int i = index / shortSide;
+        int j = index % shortSide;
+        return (Math.min(i + 1, longSide - 1) - Math.max(i - 1, 0) + 1)
+                * (Math.min(j + 1, shortSide - 1) - Math.max(j - 1, 0) + 1);
+    }
+
+    @Override
+    public void genGrid(long seed) {
+        random = new SplittableRandom(seed);
+        genGrid();
+    }
+
+    @Override
+    public void genGrid(long[] mines) {
+        Grid.checkMines(mines, totalNumCells, numMines);
+        clear(this.mines);
+        clear(open);
+        clear(flagged);
+        hitMine = false;
+        numOpenCells = 0;
+        clearDirty();
+        exportedMatrix = null;
+        minesPlaced = true;
+
+        System.arraycopy(mines, 0, this.mines, 0, this.mines.length);
+        setAllNonMineCells();
+    }
+
+    //MODIFIES: this
+    //EFFECTS: set the number of adjacent mines of all non mine cells, mines are set to -1
+    private void setAllNonMineCells() {
+        for (int i = 0; i < longSide; i++) {
+            for (int j = 0; j < shortSide; j++) {
+                int index = i * shortSide + j;
+                if (get(mines, index)) {
+                    adjacentBombs[index] = -1;
+                    continue;
+                }
+
+                int answer = 0;
+                for (int p = Math.max(i - 1, 0); p <= Math.min(i + 1, longSide - 1); p++) {
+                    for (int q = Math.max(j - 1, 0); q <= Math.min(j + 1, shortSide - 1); q++) {
+                        if (get(mines, p * shortSide + q)) {
+                            answer++;
+                        }
+                    }
+                }
+                adjacentBombs[index] = (byte) answer;
+            }
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: opens the referenced cell and, if it has no adjacent mines, the whole zero region around it
+    //         returns true if cell is a mine or flagged and false if not
+    @Override
+    public boolean openCell(int coordinateI, int coordinateJ) {
+        int index = coordinateJ * shortSide + coordinateI;
+        openRegion(index, null);
+        return get(flagged, index) || get(mines, index);
+    }
+
+    @Override
+    public ArrayList<Coordinates> openRegion(int coordinateI, int coordinateJ) {
+        ArrayList<Coordinates> opened = new ArrayList<>();
+        openRegion(coordinateJ * shortSide + coordinateI, opened);
+        return opened;
+    }
+
+    //MODIFIES: this
+    //EFFECTS: opens the cell at index and its zero region, adding the opened cells to opened if it is not null
+    private void openRegion(int index, ArrayList<Coordinates> opened) {
+        if (get(flagged, index)) {
+            return;
+        }
+        if (!minesPlaced) {
+            placeMines(index);
+        }
+        if (get(mines, index)) {
+            hitMine = true;
+            return;
+        }
+
+        if (!get(open, index)) {
+            set(open, index);
+            numOpenCells++;
+            markDirty(index);
+            if (opened != null) {
+                opened.add(new Coordinates(index / shortSide, index % shortSide));
+            }
+        }
+        if (adjacentBombs[index] != 0) {
+            return;
+        }
+
+        int stackSize = 0;
+        openStack[stackSize++] = index;
+        while (stackSize > 0) {
+            int current = openStack[--stackSize];
+            int i = current / shortSide;
+            int j = current - i * shortSide;
+
+            for (int p = Math.max(i - 1, 0); p <= Math.min(i + 1, longSide - 1); p++) {
+                for (int q = Math.max(j - 1, 0); q <= Math.min(j + 1, shortSide - 1); q++) {
+                    int neighbour = p * shortSide + q;
+                    if (get(open, neighbour) || get(flagged, neighbour)) {
+                        continue;
+                    }
+                    set(open, neighbour);
+                    numOpenCells++;
+                    markDirty(neighbour);
+                    if (opened != null) {
+                        opened.add(new Coordinates(p, q));
+                    }
+                    if (adjacentBombs[neighbour] == 0) {
+                        openStack[stackSize++] = neighbour;
+                    }
+                }
+            }
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: change the state of isFlagged of the referenced cell
+    @Override
+    public void flagCell(int coordinateI, int coordinateJ) {
+        int index = coordinateI * shortSide + coordinateJ;
+        flagged[index >>> 6] ^= 1L << index;
+        markDirty(index);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: adds the cell to the cells the next export writes
+    private void markDirty(int index) {
+        if (!get(dirty, index)) {
+            set(dirty, index);
+            dirtyCells[numDirty++] = index;
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: empties dirtyCells, only touches the words of the cells in it
+    private void clearDirty() {
+        for (int k = 0; k < numDirty; k++) {
+            dirty[dirtyCells[k] >>> 6] = 0;
+        }
+        numDirty = 0;
+    }
+
+    @Override
+    public boolean isGameLost() {
+        return hitMine;
+    }
+
+    @Override
+    public boolean isGameWon() {
+        return !hitMine && numOpenCells == totalNumCells - numMines;
+    }
+
+    @Override
+    public int getLongSide() {
+        return longSide;
+    }
+
+    @Override
+    public int getShortSide() {
+        return shortSide;
+    }
+
+    @Override
+    public int getNumMines() {
+        return numMines;
+    }
+
+    @Override
+    public boolean isFlagged(int coordinateI, int coordinateJ) {
+        return get(flagged, coordinateI * shortSide + coordinateJ);
+    }
+
+    @Override
+    public boolean isMine(int coordinateI, int coordinateJ) {
+        return get(mines, coordinateI * shortSide + coordinateJ);
+    }
+
+    @Override
+    public int getNumber(int coordinateI, int coordinateJ) {
+        return adjacentBombs[coordinateI * shortSide + coordinateJ];
+    }
+
+    //EFFECTS: returns true if cell is open
+    public boolean getIsOpen(int coordinateI, int coordinateJ) {
+        return get(open, coordinateI * shortSide + coordinateJ);
+    }
+
+    @Override
+    public int[][] parseGridIntoSolverMatrix() {
+        int[][] returnArray = new int[longSide][shortSide];
+
+        for (int i = 0; i < longSide; i++) {
+            int[] aux = returnArray[i];
+            for (int j = 0; j < shortSide; j++) {
+                aux[j] = solverValue(i * shortSide + j);
+            }
+        }
+
+        return returnArray;
+    }
+
+    //MODIFIES: matrix, this
+    //EFFECTS: see GridEngine, the cost is linear in the number of cells changed since the previous export
+    @Override
+    public int exportSolverMatrix(int[][] matrix) {
+        int written;
+        if (matrix != exportedMatrix) {
+            for (int i = 0; i < longSide; i++) {
+                int[] aux = matrix[i];
+                for (int j = 0; j < shortSide; j++) {
+                    aux[j] = solverValue(i * shortSide + j);
+                }
+            }
+            written = totalNumCells;
+        } else {
+            for (int k = 0; k < numDirty; k++) {
+                int index = dirtyCells[k];
+                matrix[index / shortSide][index % shortSide] = solverValue(index);
+            }
+            written = numDirty;
+        }
+
+        clearDirty();
+        exportedMatrix = matrix;
+        return written;
+    }
+
+    //EFFECTS: returns the value of the cell at index as seen by the solvers, number of adjacent mines if open,
+    //         -2 if flagged and -1 if closed
+    private int solverValue(int index) {
+        if (get(open, index)) return adjacentBombs[index];
+        else if (get(flagged, index)) return -2;
+        else return -1;
+    }
+
+    @Override
+    public void drawGrid() {
+        StringBuilder line = new StringBuilder();
+        System.out.println(Grid.columnHeader(longSide, shortSide) + "\n");
+
+        for (int i = 0; i < longSide; i++) {
+            line.setLength(0);
+            line.append(Grid.rowLabel(i, longSide));
+            for (int j = 0; j < shortSide; j++) {
+                int index = i * shortSide + j;
+                if (get(open, index)) line.append(adjacentBombs[index]);
+                else if (get(flagged, index)) line.append('F');
+                else line.append('#');
+                line.append(' ');
+            }
+            System.out.println(line + "\n");
+        }
+    }
+
+    private static boolean get(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static void clear(long[] bits) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = 0;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ModelMinesweeper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class BitboardGridTests {
+
+    @Test
+    public void sameFieldAsGrid() {
+        for (long seed = 0; seed < 20; seed++) {
+            Grid grid = new Grid(30, 16, 99, seed);
+            BitboardGrid bitboard = new BitboardGrid(30, 16, 99, seed);
+            for (int i = 0; i < 30; i++) {
+                for (int j = 0; j < 16; j++) {
+                    assertEquals(grid.isMine(i, j), bitboard.isMine(i, j));
+                    assertEquals(grid.getNumber(i, j), bitboard.getNumber(i, j));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void playsLikeGrid() {
+        for (long seed = 0; seed < 50; seed++) {
+            Grid grid = new Grid(16, 16, 40, seed);
+            BitboardGrid bitboard = new BitboardGrid(16, 16, 40, seed);
+            SplittableRandom random = new SplittableRandom(seed);
+
+            // random moves until one of them opens a mine
+            while (!grid.isGameLost()) {
+                int i = random.nextInt(16);
+                int j = random.nextInt(16);
+                if (random.nextInt(4) == 0) {
+                    if (grid.getIsOpen(i, j)) continue;
+                    grid.flagCell(i, j);
+                    bitboard.flagCell(i, j);
+                } else {
+                    assertEquals(grid.openCell(j, i), bitboard.openCell(j, i));
+                }
+                assertSameState(grid, bitboard);
+            }
+            assertTrue(bitboard.isGameLost());
+        }
+    }
+
+    @Test
+    public void winsLikeGrid() {
+        Grid grid = new Grid(9, 9, 10, 3);
+        BitboardGrid bitboard = new BitboardGrid(9, 9, 10, 3);
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                if (grid.isMine(i, j)) {
+                    grid.flagCell(i, j);
+                    bitboard.flagCell(i, j);
+                } else {
+                    assertEquals(grid.openRegion(j, i), bitboard.openRegion(j, i));
+                }
+                assertSameState(grid, bitboard);
+            }
+        }
+        assertTrue(grid.isGameWon());
+        assertTrue(bitboard.isGameWon());
+    }
+
+    @Test
+    public void losesLikeGrid() {
+        Grid grid = new Grid(9, 9, 10, 5);
+        BitboardGrid bitboard = new BitboardGrid(9, 9, 10, 5);
+        int mine = 0;
+        while (!grid.isMine(mine / 9, mine % 9)) {
+            mine++;
+        }
+
+        // a flagged mine does not open, the game is lost once the flag is removed
+        grid.flagCell(mine / 9, mine % 9);
+        bitboard.flagCell(mine / 9, mine % 9);
+        assertEquals(grid.openCell(mine % 9, mine / 9), bitboard.openCell(mine % 9, mine / 9));
+        assertSameState(grid, bitboard);
+        assertFalse(bitboard.isGameLost());
+
+        grid.flagCell(mine / 9, mine % 9);
+        bitboard.flagCell(mine / 9, mine % 9);
+        assertTrue(grid.openCell(mine % 9, mine / 9));
+        assertTrue(bitboard.openCell(mine % 9, mine / 9));
+        assertSameState(grid, bitboard);
+        assertTrue(bitboard.isGameLost());
+        assertFalse(bitboard.isGameWon());
+    }
+
+    //EFFECTS: fails unless both engines show the same board to the solvers and the same outcome
+    private static void assertSameState(Grid grid, BitboardGrid bitboard) {
+        assertArrayEquals(grid.parseGridIntoSolverMatrix(), bitboard.parseGridIntoSolverMatrix());
+        assertEquals(grid.isGameLost(), bitboard.isGameLost());
+        assertEquals(grid.isGameWon(), bitboard.isGameWon());
+    }
+}
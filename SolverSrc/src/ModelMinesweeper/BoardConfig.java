@@ -0,0 +1,37 @@
+package ModelMinesweeper;
+
+// represents the dimensions and the number of mines of a board
+public record BoardConfig(int longSide, int shortSide, int numMines) {
+    public static final BoardConfig BEGINNER = new BoardConfig(9, 9, 10);
+    public static final BoardConfig INTERMEDIATE = new BoardConfig(16, 16, 40);
+    public static final BoardConfig EXPERT = new BoardConfig(Grid.LONG_SIDE, Grid.SHORT_SIDE, Grid.NUM_MINES);
+
+    public BoardConfig {
+        Grid.checkDimensions(longSide, shortSide, numMines);
+    }
+
+    //EFFECTS: returns the number of cells of the board
+    public int totalNumCells() {
+        return longSide * shortSide;
+    }
+
+    //EFFECTS: parses beginner, intermediate, expert or <longSide>x<shortSide>x<numMines>,
+    //         throws RuntimeException if the text is neither
+    public static BoardConfig parse(String text) {
+        switch (text.toLowerCase()) {
+            case "beginner":
+                return BEGINNER;
+            case "intermediate":
+                return INTERMEDIATE;
+            case "expert":
+                return EXPERT;
+            default:
+                String[] parts = text.toLowerCase().split("x", -1);
+                if (parts.length != 3) {
+                    throw new RuntimeException("Board must be a preset or <longSide>x<shortSide>x<numMines>");
+                }
+                return new BoardConfig(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                        Integer.parseInt(parts[2]));
+        }
+    }
+}
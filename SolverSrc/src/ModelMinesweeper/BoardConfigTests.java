@@ -0,0 +1,32 @@
+package ModelMinesweeper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.Assert.*;
+
+public class BoardConfigTests {
+
+    @Test
+    public void parsePresets() {
+        assertEquals(BoardConfig.parse("beginner"), BoardConfig.BEGINNER);
+        assertEquals(BoardConfig.parse("Intermediate"), BoardConfig.INTERMEDIATE);
+        assertEquals(BoardConfig.parse("EXPERT"), BoardConfig.EXPERT);
+        assertEquals(BoardConfig.EXPERT, new BoardConfig(30, 16, 99));
+    }
+
+    @Test
+    public void parseDimensions() {
+        assertEquals(BoardConfig.parse("50x20x150"), new BoardConfig(50, 20, 150));
+        assertEquals(BoardConfig.parse("9X9X10"), BoardConfig.BEGINNER);
+        assertEquals(BoardConfig.parse("1x1x0").totalNumCells(), 1);
+        assertEquals(BoardConfig.parse("4x4x16").numMines(), 16);
+    }
+
+    @Test
+    public void parseRejectsMalformed() {
+        String[] malformed = {"", "novice", "9x9", "9x9x10x", "x9x9x10", "9x9x10x5", "9xx10", "ax9x10", " 9x9x10",
+                "9.5x9x10", "0x9x0", "9x-1x0", "9x9x-1", "9x9x82"};
+        for (String text: malformed)
+            assertThrows(text, RuntimeException.class, () -> BoardConfig.parse(text));
+    }
+}
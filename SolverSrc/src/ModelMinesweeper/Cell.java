@@ -18,6 +18,15 @@ public class Cell {
         adjacentBombs = 0;
     }
 
+    //MODIFIES: this
+    //EFFECTS: makes this cell closed, not flagged and not a mine, as a new cell
+    public void reset() {
+        isOpen = false;
+        isMine = false;
+        isFlagged = false;
+        adjacentBombs = 0;
+    }
+
     //EFFECTS: returns adjacentBombs in case it is open
     //                 F if cell is closed and isFlagged
     //                 # if cell is closed
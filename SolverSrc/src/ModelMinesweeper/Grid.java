@@ -5,82 +5,211 @@ package ModelMinesweeper;
 import Solver.Coordinates;
 
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.function.Function;
 
 // represents the whole grid where the game will be played
 // stores references to all cells that are part of the game
-public class Grid {
-    public static final int LONG_SIDE = 30; //CoordinateI
-    public static final int SHORT_SIDE = 16; //CoordinateJ
-    public static final int NUM_MINES = 99;
+public class Grid implements GridEngine {
+    public static final int LONG_SIDE = 30; //default CoordinateI
+    public static final int SHORT_SIDE = 16; //default CoordinateJ
+    public static final int NUM_MINES = 99; //default number of mines
     public static final int TOTAL_NUM_CELLS = SHORT_SIDE * LONG_SIDE;
 
+    private final int longSide; //CoordinateI
+    private final int shortSide; //CoordinateJ
+    private final int numMines;
+    private final int totalNumCells;
+
     public Cell[][] grid; //represents the field in the current state of the game
+    private int numOpenCells; //number of non mine cells that have been opened
+    private boolean hitMine; //true if a mine has been opened since the last genGrid
+    private final int[] workList; //cells of a zero region whose neighbours still have to be opened
+    private final int[] cellOrder; //cell indices, the first numMines are the mines after placeMines
+    private SplittableRandom random; //places the mines
+    private final int[] dirtyCells; //cells opened or flagged since the last export, each listed once
+    private final boolean[] isDirty; //true if the cell is in dirtyCells
+    private int numDirty;
+    private int[][] exportedMatrix; //matrix written by the last export, null if the next export must write every cell
+    private boolean safeFirstClick; //true if genGrid leaves the mines to be placed by the first opened cell
+    private boolean protectNeighbours; //true if the neighbours of the first opened cell are never mines either
+    private boolean minesPlaced; //false while the mines of a safe first click field are not placed yet
 
     public Grid() {
-        grid = new Cell[LONG_SIDE][SHORT_SIDE];
+        this(LONG_SIDE, SHORT_SIDE, NUM_MINES);
+    }
+
+    //REQUIRES: longSide and shortSide larger than 0, 0 <= numMines <= longSide * shortSide
+    //EFFECTS: creates a grid of the given dimensions with numMines randomly placed mines
+    public Grid(int longSide, int shortSide, int numMines) {
+        this(longSide, shortSide, numMines, new SplittableRandom());
+    }
+
+    //REQUIRES: longSide and shortSide larger than 0, 0 <= numMines <= longSide * shortSide
+    //EFFECTS: creates a grid of the given dimensions with numMines mines placed from the given seed,
+    //         grids made with the same seed and dimensions are identical
+    public Grid(int longSide, int shortSide, int numMines, long seed) {
+        this(longSide, shortSide, numMines, new SplittableRandom(seed));
+    }
+
+    private Grid(int longSide, int shortSide, int numMines, SplittableRandom random) {
+        checkDimensions(longSide, shortSide, numMines);
+        this.longSide = longSide;
+        this.shortSide = shortSide;
+        this.numMines = numMines;
+        this.totalNumCells = longSide * shortSide;
+
+        this.random = random;
+
+        grid = new Cell[longSide][shortSide];
+        for (int i = 0; i < longSide; i++) {
+            for (int j = 0; j < shortSide; j++) {
+                grid[i][j] = new Cell();
+            }
+        }
+        workList = new int[totalNumCells];
+        cellOrder = new int[totalNumCells];
+        dirtyCells = new int[totalNumCells];
+        isDirty = new boolean[totalNumCells];
         genGrid();
     }
 
     //MODIFIES: this
     //EFFECTS: returns a grid with randomly placed mines and
     //         all cells that are not mines set (correct values for adjacent bombs) to play the game
+    //         with a safe first click the mines are only placed by the first opened cell, see useSafeFirstClick
     public void genGrid() {
-        ArrayList<Cell> toBeRandomized = new ArrayList<>();
-        Cell referenceCell;
+        for (int i = 0; i < longSide; i++) {
+            for (int j = 0; j < shortSide; j++) {
+                grid[i][j].reset();
+            }
+        }
+        numOpenCells = 0;
+        hitMine = false;
+        clearDirty();
+        exportedMatrix = null;
+
+        minesPlaced = false;
+        if (!safeFirstClick) {
+            placeMines(-1);
+        }
+    }
 
-        for (int i = 0; i < NUM_MINES; i++) {
-            referenceCell = new Cell();
-            referenceCell.makeMine();
+    //MODIFIES: this
+    //EFFECTS: same as genGrid, but the mines are placed from the given seed, so the same seed always gives the same
+    //         grid, later calls to genGrid continue from the seeded generator
+    public void genGrid(long seed) {
+        random = new SplittableRandom(seed);
+        genGrid();
+    }
 
-            toBeRandomized.add(referenceCell);
+    //MODIFIES: this
+    //EFFECTS: same as genGrid, but the mines are the cells whose bit is set in mines
+    public void genGrid(long[] mines) {
+        checkMines(mines, totalNumCells, numMines);
+        for (int i = 0; i < longSide; i++) {
+            for (int j = 0; j < shortSide; j++) {
+                grid[i][j].reset();
+            }
         }
+        numOpenCells = 0;
+        hitMine = false;
+        clearDirty();
+        exportedMatrix = null;
+        minesPlaced = true;
+
+        for (int cell = 0; cell < totalNumCells; cell++) {
+            if ((mines[cell >>> 6] & 1L << cell) != 0) {
+                grid[cell / shortSide][cell % shortSide].makeMine();
+            }
+        }
+        setAllNonMineCells();
+    }
 
-        for (int i = 0; i < TOTAL_NUM_CELLS - NUM_MINES; i++) {
-            referenceCell = new Cell();
-
-            toBeRandomized.add(referenceCell);
+    //EFFECTS: throws RuntimeException if mines is not a bitset of totalNumCells cells with exactly numMines bits set
+    static void checkMines(long[] mines, int totalNumCells, int numMines) {
+        if (mines.length != (totalNumCells + 63) >>> 6) {
+            throw new RuntimeException("Mine bitset does not match the size of the grid");
+        }
+        int count = 0;
+        for (long word : mines) {
+            count += Long.bitCount(word);
         }
+        if (count != numMines || (totalNumCells % 64 != 0 && mines[mines.length - 1] >>> (totalNumCells % 64) != 0)) {
+            throw new RuntimeException("Mine bitset must have exactly " + numMines + " cells of the grid set");
+        }
+    }
 
-        ArrayList<Cell> randomizedField;
-        randomizedField = shuffle(toBeRandomized);
+    //MODIFIES: this
+    //EFFECTS: see GridEngine, the neighbours of the first opened cell are only kept free when the other cells can
+    //         hold every mine, otherwise only the cell itself is
+    public void useSafeFirstClick(boolean safeFirstClick, boolean protectNeighbours) {
+        this.safeFirstClick = safeFirstClick;
+        this.protectNeighbours = protectNeighbours;
+    }
 
-        for (int i = 0; i < LONG_SIDE; i++) {
-            for (int j = 0; j < SHORT_SIDE; j++) {
-                grid[i][j] = randomizedField.get(j + (SHORT_SIDE * i));
-            }
+    //REQUIRES: every cell of grid closed and not a mine
+    //MODIFIES: this
+    //EFFECTS: makes numMines distinct random cells mines with a partial Fisher-Yates pass over the cell indices, only
+    //         numMines random numbers are drawn, and adds each mine to the adjacent mines of its neighbours
+    //         the cell at index firstCell, and its neighbours if protectNeighbours, are left out, firstCell is -1 to
+    //         use every cell
+    private void placeMines(int firstCell) {
+        int safeDistance; //cells within this distance of firstCell get no mine, -1 if every cell can get one
+        if (firstCell == -1 || numMines == totalNumCells) {
+            safeDistance = -1;
+        } else if (protectNeighbours && totalNumCells - numMines >= numSafeCells(firstCell)) {
+            safeDistance = 1;
+        } else {
+            safeDistance = 0;
         }
 
-        setAllNonMineCells();
-    }
+        int numPlaceable = 0;
+        for (int k = 0; k < totalNumCells; k++) {
+            if (safeDistance == -1 || Math.abs(k / shortSide - firstCell / shortSide) > safeDistance
+                    || Math.abs(k % shortSide - firstCell % shortSide) > safeDistance) {
+                cellOrder[numPlaceable++] = k;
+            }
+        }
 
-    //REQUIRES: input array must be of size TOTAL_NUM_CELLS
-    //MODIFIES: input list
-    //EFFECTS: shuffles the inputted list
-    public ArrayList<Cell> shuffle(ArrayList<Cell> toBeRandomized) {
-        Cell helperCell;
-        Random rand = new Random();
-        int swapIndex;
+        for (int k = 0; k < numMines; k++) {
+            int swapIndex = k + random.nextInt(numPlaceable - k);
+            int cell = cellOrder[swapIndex];
+            cellOrder[swapIndex] = cellOrder[k];
+            cellOrder[k] = cell;
 
-        for (int i = 0; i < 175; i++) {
-            for (int j = 0; j < TOTAL_NUM_CELLS; j++) {
-                swapIndex = rand.nextInt(TOTAL_NUM_CELLS);
+            grid[cell / shortSide][cell % shortSide].makeMine();
+        }
 
-                helperCell = toBeRandomized.get(swapIndex);
-                toBeRandomized.set(swapIndex, toBeRandomized.get(j));
-                toBeRandomized.set(j,helperCell);
+        for (int k = 0; k < numMines; k++) {
+            int mineI = cellOrder[k] / shortSide;
+            int mineJ = cellOrder[k] % shortSide;
+            for (int i = Math.max(mineI - 1, 0); i <= Math.min(mineI + 1, longSide - 1); i++) {
+                for (int j = Math.max(mineJ - 1, 0); j <= Math.min(mineJ + 1, shortSide - 1); j++) {
+                    Cell cell = grid[i][j];
+                    if (!cell.getIsMine()) {
+                        cell.setAdjacentBombs(cell.getAdjacentBombs() + 1);
+                    }
+                }
             }
         }
+        minesPlaced = true;
+    }
 
-        return toBeRandomized;
+    //EFFECTS: returns the number of cells in the 3x3 block around the cell at index, the cells of the block kept
+    //         free of mines by a safe first click with protectNeighbours
+    private int numSafeCells(int index) {
+        int i = index / shortSide;
+        int j = index % shortSide;
+        return (Math.min(i + 1, longSide - 1) - Math.max(i - 1, 0) + 1)
+                * (Math.min(j + 1, shortSide - 1) - Math.max(j - 1, 0) + 1);
     }
 
     //MODIFIES: this
     //EFFECTS: set the value of adjacentMines of all nonMineCells to the correct value
     public void setAllNonMineCells() {
-        for (int i = 0; i < LONG_SIDE; i++) {
-            for (int j = 0; j < SHORT_SIDE; j++) {
+        for (int i = 0; i < longSide; i++) {
+            for (int j = 0; j < shortSide; j++) {
                 if (!grid[i][j].getIsMine()) {
                     grid[i][j].setAdjacentBombs(findAdjacentMines(i, j));
                 }
@@ -98,13 +227,13 @@ public class Grid {
 
         if (i == 0) {
             minI = i;
-        } else if (i == LONG_SIDE - 1) {
+        } else if (i == longSide - 1) {
             maxI = i;
         }
 
         if (j == 0) {
             minJ = j;
-        } else if (j == SHORT_SIDE - 1) {
+        } else if (j == shortSide - 1) {
             maxJ = j;
         }
 
@@ -123,26 +252,36 @@ public class Grid {
     //REQUIRES: grid must have cells in it
     //EFFECTS: print a representation of the grid with a coordinate system on its edges
     public void drawGrid() {
-        String line;
-        System.out.println("    a b c d e f g h i j k l m n o p\n");
-
-        for (int i = 0; i < 9; i++) {
-            line = "";
-            line += (i + 1) + "-  ";
-            for (int j = 0; j < SHORT_SIDE; j++) {
-                line += grid[i][j].draw() + " ";
+        StringBuilder line = new StringBuilder();
+        System.out.println(columnHeader(longSide, shortSide) + "\n");
+
+        for (int i = 0; i < longSide; i++) {
+            line.setLength(0);
+            line.append(rowLabel(i, longSide));
+            for (int j = 0; j < shortSide; j++) {
+                line.append(grid[i][j].draw()).append(' ');
             }
             System.out.println(line + "\n");
         }
+    }
 
-        for (int i = 9; i < LONG_SIDE; i++) {
-            line = "";
-            line += (i + 1) + "- ";
-            for (int j = 0; j < SHORT_SIDE; j++) {
-                line += grid[i][j].draw() + " ";
+    //EFFECTS: returns the line of column names (a, b, ..., z, aa, ab, ...) printed above the grid
+    static String columnHeader(int longSide, int shortSide) {
+        StringBuilder header = new StringBuilder(" ".repeat(rowLabel(0, longSide).length()));
+        for (int j = 0; j < shortSide; j++) {
+            StringBuilder name = new StringBuilder();
+            for (int k = j + 1; k > 0; k = (k - 1) / 26) {
+                name.insert(0, (char) ('a' + (k - 1) % 26));
             }
-            System.out.println(line + "\n");
+            header.append(name).append(' ');
         }
+        return header.toString().stripTrailing();
+    }
+
+    //EFFECTS: returns the row number label printed on the left of row i, padded so all rows are aligned
+    static String rowLabel(int i, int longSide) {
+        String label = (i + 1) + "-";
+        return label + " ".repeat(Integer.toString(longSide).length() + 2 - label.length());
     }
 
     //MODIFIES: this
@@ -155,60 +294,129 @@ public class Grid {
             return true;
         }
 
-        boolean returnValue;
-        returnValue = grid[coordinateJ][coordinateI].openCell();
+        openRegion(coordinateI, coordinateJ, null);
 
-        openAdjacent(coordinateI, coordinateJ);
+        return grid[coordinateJ][coordinateI].getIsMine();
+    }
 
-        return returnValue;
+    //MODIFIES: this
+    //EFFECTS: same as openCell, but returns the coordinates (long side, short side) of every cell that was opened,
+    //         empty if the cell is flagged, a mine or already open with adjacent mines
+    public ArrayList<Coordinates> openRegion(int coordinateI, int coordinateJ) {
+        ArrayList<Coordinates> opened = new ArrayList<>();
+        openRegion(coordinateI, coordinateJ, opened);
+        return opened;
     }
 
     //MODIFIES: this
-    //EFFECTS: open all adjacent cells if the inputted one has 0 adjacent bombs, else do nothing
-    //         repeats process for all adjacent bombs
-    public void openAdjacent(int coordinateI, int coordinateJ) {
-
-        if (grid[coordinateJ][coordinateI].getAdjacentBombs() == 0) {
-            int minI = coordinateJ - 1;
-            int maxI = coordinateJ + 1;
-            int minJ = coordinateI - 1;
-            int maxJ = coordinateI + 1;
-
-            if (coordinateJ == 0) {
-                minI = coordinateJ;
-            } else if (coordinateJ == LONG_SIDE - 1) {
-                maxI = coordinateJ;
-            }
+    //EFFECTS: opens the referenced cell and its zero region, adding the opened cells to opened if it is not null
+    private void openRegion(int coordinateI, int coordinateJ, ArrayList<Coordinates> opened) {
+        Cell cell = grid[coordinateJ][coordinateI];
+        if (cell.isFlagged()) {
+            return;
+        }
+        if (!minesPlaced) {
+            placeMines(coordinateJ * shortSide + coordinateI);
+        }
 
-            if (coordinateI == 0) {
-                minJ = coordinateI;
-            } else if (coordinateI == SHORT_SIDE - 1) {
-                maxJ = coordinateI;
+        boolean wasOpen = cell.getIsOpen();
+        if (cell.openCell()) {
+            hitMine = true;
+            return;
+        }
+        if (!wasOpen) {
+            numOpenCells++;
+            markDirty(coordinateJ, coordinateI);
+            if (opened != null) {
+                opened.add(new Coordinates(coordinateJ, coordinateI));
             }
-
-            openAdjacentHelper(coordinateI, coordinateJ, minI,maxI,minJ,maxJ);
         }
+
+        openAdjacent(coordinateI, coordinateJ, opened);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: open all adjacent cells if the inputted one has 0 adjacent bombs, else do nothing
+    //         repeats process for all adjacent cells with 0 adjacent bombs
+    //         returns the coordinates (long side, short side) of every cell that was opened
+    public ArrayList<Coordinates> openAdjacent(int coordinateI, int coordinateJ) {
+        ArrayList<Coordinates> opened = new ArrayList<>();
+        openAdjacent(coordinateI, coordinateJ, opened);
+        return opened;
     }
 
     //MODIFIES: this
-    //EFFECTS: opens all adjacent cells and calls this function for all adjacent ones that are 0
-    public void openAdjacentHelper(int coordinateI, int coordinateJ, int minI, int maxI, int minJ, int maxJ) {
-        boolean stubVar;
-
-        for (int i = minI; i <= maxI; i++) {
-            for (int j = minJ; j <= maxJ; j++) {
-                if ((!(i == coordinateJ && j == coordinateI)) && !grid[i][j].getIsOpen()) {
-                    stubVar = grid[i][j].openCell();
-                    openAdjacent(j, i);
+    //EFFECTS: opens the zero region around the inputted cell using workList instead of recursion, every cell is
+    //         pushed at most once so the cost is linear in the size of the region
+    private void openAdjacent(int coordinateI, int coordinateJ, ArrayList<Coordinates> opened) {
+        if (grid[coordinateJ][coordinateI].getAdjacentBombs() != 0) {
+            return;
+        }
+
+        int size = 0;
+        workList[size++] = coordinateJ * shortSide + coordinateI;
+        while (size > 0) {
+            int current = workList[--size];
+            int currentI = current / shortSide;
+            int currentJ = current - currentI * shortSide;
+            int maxI = Math.min(currentI + 1, longSide - 1);
+            int maxJ = Math.min(currentJ + 1, shortSide - 1);
+
+            for (int i = Math.max(currentI - 1, 0); i <= maxI; i++) {
+                for (int j = Math.max(currentJ - 1, 0); j <= maxJ; j++) {
+                    Cell cell = grid[i][j];
+                    if (cell.getIsOpen() || cell.isFlagged()) {
+                        continue;
+                    }
+
+                    cell.openCell();
+                    numOpenCells++;
+                    markDirty(i, j);
+                    if (opened != null) {
+                        opened.add(new Coordinates(i, j));
+                    }
+                    if (cell.getAdjacentBombs() == 0) {
+                        workList[size++] = i * shortSide + j;
+                    }
                 }
             }
         }
     }
 
+    //EFFECTS: returns true if a mine has been opened
+    public boolean isGameLost() {
+        return hitMine;
+    }
+
+    //EFFECTS: returns true if all cells that are not mines have been opened
+    public boolean isGameWon() {
+        return !hitMine && numOpenCells == totalNumCells - numMines;
+    }
+
     //MODIFIES: referenced cell
     //EFFECTS: change the state of isFlagged of the referenced cell
     public void flagCell(int coordinateI, int coordinateJ) {
         grid[coordinateI][coordinateJ].changeMarking();
+        markDirty(coordinateI, coordinateJ);
+    }
+
+    //MODIFIES: this
+    //EFFECTS: adds the cell to the cells the next export writes
+    private void markDirty(int coordinateI, int coordinateJ) {
+        int index = coordinateI * shortSide + coordinateJ;
+        if (!isDirty[index]) {
+            isDirty[index] = true;
+            dirtyCells[numDirty++] = index;
+        }
+    }
+
+    //MODIFIES: this
+    //EFFECTS: empties dirtyCells, only touches the cells in it
+    private void clearDirty() {
+        for (int k = 0; k < numDirty; k++) {
+            isDirty[dirtyCells[k]] = false;
+        }
+        numDirty = 0;
     }
 
 
@@ -219,13 +427,39 @@ public class Grid {
         return grid[coordinateI][coordinateJ].isFlagged();
     }
 
+    //EFFECTS: throws RuntimeException if the dimensions cannot make a grid
+    static void checkDimensions(int longSide, int shortSide, int numMines) {
+        if (longSide < 1 || shortSide < 1) {
+            throw new RuntimeException("Side must be larger than 0");
+        }
+        if (numMines < 0 || (long) longSide * shortSide < numMines) {
+            throw new RuntimeException("Number of mines must be between 0 and the number of cells");
+        }
+    }
+
+    //EFFECTS: returns the length of the long side of the grid
+    public int getLongSide() {
+        return longSide;
+    }
+
+    //EFFECTS: returns the length of the short side of the grid
+    public int getShortSide() {
+        return shortSide;
+    }
+
+    //EFFECTS: returns the number of mines in the grid
+    public int getNumMines() {
+        return numMines;
+    }
+
     private void checkCoordinatesRange(int coordinateI, int coordinateJ) {
-        if (coordinateI >= LONG_SIDE || coordinateJ >= SHORT_SIDE || coordinateI < 0 || coordinateJ < 0) {
+        if (coordinateI >= longSide || coordinateJ >= shortSide || coordinateI < 0 || coordinateJ < 0) {
             throw new RuntimeException();
         }
     }
 
     //EFFECTS: return true if cell is a mine
+    @Override
     public boolean isMine(int coordinateI, int coordinateJ) throws RuntimeException {
         checkCoordinatesRange(coordinateI, coordinateJ);
 
@@ -240,6 +474,7 @@ public class Grid {
     //EFFECTS: sets the cell to be open
     public void setOpen(int coordinateI, int coordinateJ) {
         grid[coordinateI][coordinateJ].openCell();
+        markDirty(coordinateI, coordinateJ);
     }
 
     //EFFECTS: returns true if cell is open
@@ -248,27 +483,62 @@ public class Grid {
     }
 
 //    public void setAllClosed() {
-//        for (int i = 0; i < LONG_SIDE; i++) {
-//            for (int j = 0; j < SHORT_SIDE; j++) {
+//        for (int i = 0; i < longSide; i++) {
+//            for (int j = 0; j < shortSide; j++) {
 //                grid[i][j].setClosed();
 //            }
 //        }
 //    }
 
     public int[][] parseGridIntoSolverMatrix() {
-        int[][] returnArray = new int[LONG_SIDE][];
-
-        for (int i = 0; i < LONG_SIDE; i++) {
-            int[] aux = new int[SHORT_SIDE];
-            for (int j = 0; j < SHORT_SIDE; j++) {
-                Cell currentCell = grid[i][j];
-                if (currentCell.getIsOpen()) aux[j] = currentCell.getAdjacentBombs();
-                else if (currentCell.isFlagged()) aux[j] = -2;
-                else aux[j] = -1;
+        int[][] returnArray = new int[longSide][];
+
+        for (int i = 0; i < longSide; i++) {
+            int[] aux = new int[shortSide];
+            for (int j = 0; j < shortSide; j++) {
+                aux[j] = solverValue(grid[i][j]);
             }
             returnArray[i] = aux;
         }
 
         return returnArray;
     }
-}
\ No newline at end of file
+
+    //REQUIRES: matrix is longSide by shortSide
+    //MODIFIES: matrix, this
+    //EFFECTS: writes the board as seen by the solvers into matrix, only the cells opened or flagged since the previous
+    //         export if matrix is the matrix of that export, every cell otherwise
+    //         cells changed through the public grid field directly are not tracked
+    //         returns the number of cells written
+    @Override
+    public int exportSolverMatrix(int[][] matrix) {
+        int written;
+        if (matrix != exportedMatrix) {
+            for (int i = 0; i < longSide; i++) {
+                for (int j = 0; j < shortSide; j++) {
+                    matrix[i][j] = solverValue(grid[i][j]);
+                }
+            }
+            written = totalNumCells;
+        } else {
+            for (int k = 0; k < numDirty; k++) {
+                int i = dirtyCells[k] / shortSide;
+                int j = dirtyCells[k] % shortSide;
+                matrix[i][j] = solverValue(grid[i][j]);
+            }
+            written = numDirty;
+        }
+
+        clearDirty();
+        exportedMatrix = matrix;
+        return written;
+    }
+
+    //EFFECTS: returns the value of cell as seen by the solvers, number of adjacent mines if open,
+    //         -2 if flagged and -1 if closed
+    private static int solverValue(Cell cell) {
+        if (cell.getIsOpen()) return cell.getAdjacentBombs();
+        else if (cell.isFlagged()) return -2;
+        else return -1;
+    }
+}
@@ -0,0 +1,85 @@
+package ModelMinesweeper;
+
+import Solver.Coordinates;
+
+import java.util.ArrayList;
+
+// represents a minesweeper game engine that can be played through SimpleMinesweeper
+// coordinates follow the conventions of Grid: openCell takes (short side, long side) while every other
+// method takes (long side, short side)
+public interface GridEngine {
+
+    //MODIFIES: this
+    //EFFECTS: generates a new field with randomly placed mines and all cells closed
+    public void genGrid();
+
+    //MODIFIES: this
+    //EFFECTS: same as genGrid, but the mines are placed from the given seed, so the same seed always gives the same
+    //         field
+    public void genGrid(long seed);
+
+    //REQUIRES: mines has exactly getNumMines() bits set, cell (i, j) of the long and short side is bit i * shortSide + j
+    //MODIFIES: this
+    //EFFECTS: generates a new field with the mines on the given cells and all cells closed, used to replay a
+    //         recorded board
+    public void genGrid(long[] mines);
+
+    //MODIFIES: this
+    //EFFECTS: makes the next calls to genGrid() and genGrid(long seed) leave the field without mines until the first
+    //         openCell or openRegion, which places them anywhere but on the opened cell, and its neighbours if
+    //         protectNeighbours, so that cell opens a zero region
+    //         until then isMine is false and getNumber is 0 for every cell, genGrid(long[]) is not affected
+    public void useSafeFirstClick(boolean safeFirstClick, boolean protectNeighbours);
+
+    //MODIFIES: this
+    //EFFECTS: opens the referenced cell and the zero region around it
+    //         returns true if cell is a mine or flagged, false otherwise
+    public boolean openCell(int coordinateI, int coordinateJ);
+
+    //MODIFIES: this
+    //EFFECTS: same as openCell, but returns the coordinates (long side, short side) of every cell that was opened
+    public ArrayList<Coordinates> openRegion(int coordinateI, int coordinateJ);
+
+    //MODIFIES: this
+    //EFFECTS: change the state of isFlagged of the referenced cell
+    public void flagCell(int coordinateI, int coordinateJ);
+
+    //EFFECTS: returns true if cell is flagged
+    public boolean isFlagged(int coordinateI, int coordinateJ);
+
+    //EFFECTS: returns true if cell is a mine
+    public boolean isMine(int coordinateI, int coordinateJ);
+
+    //EFFECTS: returns the number that is in the cell being passed on
+    public int getNumber(int coordinateI, int coordinateJ);
+
+    //EFFECTS: returns true if a mine has been opened
+    public boolean isGameLost();
+
+    //EFFECTS: returns true if all cells that are not mines have been opened
+    public boolean isGameWon();
+
+    //EFFECTS: returns the length of the long side of the grid
+    public int getLongSide();
+
+    //EFFECTS: returns the length of the short side of the grid
+    public int getShortSide();
+
+    //EFFECTS: returns the number of mines in the grid
+    public int getNumMines();
+
+    //EFFECTS: returns the board as seen by the solvers, number of adjacent mines for open cells,
+    //         -2 for flagged cells and -1 for closed cells
+    public int[][] parseGridIntoSolverMatrix();
+
+    //REQUIRES: matrix is getLongSide() by getShortSide()
+    //MODIFIES: matrix
+    //EFFECTS: writes the board as seen by the solvers into matrix, same values as parseGridIntoSolverMatrix
+    //         if matrix is the one given to the previous call since the last genGrid, only the cells opened or
+    //         flagged since then are written, otherwise every cell is
+    //         returns the number of cells written
+    public int exportSolverMatrix(int[][] matrix);
+
+    //EFFECTS: print a representation of the grid with a coordinate system on its edges
+    public void drawGrid();
+}
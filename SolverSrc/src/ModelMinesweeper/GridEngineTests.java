@@ -0,0 +1,124 @@
+package ModelMinesweeper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class GridEngineTests {
+
+    @Test
+    public void exportSolverMatrixIncremental() {
+        exportSolverMatrixIncremental(new Grid(16, 16, 40, 1));
+        exportSolverMatrixIncremental(new BitboardGrid(16, 16, 40, 1));
+    }
+
+    //EFFECTS: plays random opens, regions, flags, unflags and new fields on engine, exporting into the same matrix
+    //         after every move, the matrix must match a full parse and the count the cells whose value changed
+    private static void exportSolverMatrixIncremental(GridEngine engine) {
+        int longSide = engine.getLongSide();
+        int shortSide = engine.getShortSide();
+        SplittableRandom random = new SplittableRandom(7);
+        int[][] matrix = new int[longSide][shortSide];
+        assertEquals(engine.exportSolverMatrix(matrix), longSide * shortSide);
+        int[][] previous = engine.parseGridIntoSolverMatrix();
+
+        for (int step = 0; step < 400; step++) {
+            int i = random.nextInt(longSide);
+            int j = random.nextInt(shortSide);
+            int move = random.nextInt(20);
+            boolean newField = false;
+
+            if (move == 0) {
+                engine.genGrid(random.nextLong());
+                newField = true;
+            } else if (move < 8) {
+                if (previous[i][j] != -1 && previous[i][j] != -2) continue;
+                engine.flagCell(i, j); // flags a closed cell or unflags a flagged one
+            } else if (move < 14) {
+                engine.openCell(j, i);
+            } else {
+                engine.openRegion(j, i);
+            }
+
+            int written = engine.exportSolverMatrix(matrix);
+            int[][] expected = engine.parseGridIntoSolverMatrix();
+            assertArrayEquals(expected, matrix);
+            assertEquals(written, newField ? longSide * shortSide : numChanged(previous, expected));
+            previous = expected;
+        }
+    }
+
+    @Test
+    public void seededFields() {
+        for (BoardConfig board: new BoardConfig[]{BoardConfig.BEGINNER, BoardConfig.EXPERT, new BoardConfig(3, 3, 9)}) {
+            GridEngine grid = new Grid(board.longSide(), board.shortSide(), board.numMines());
+            GridEngine bitboard = new BitboardGrid(board.longSide(), board.shortSide(), board.numMines());
+            for (long seed = 0; seed < 10; seed++) {
+                grid.genGrid(seed);
+                long[] mines = mines(grid);
+                assertEquals(board.numMines(), numMines(mines));
+
+                bitboard.genGrid(seed);
+                assertArrayEquals(mines, mines(bitboard));
+                grid.genGrid(seed + 1);
+                grid.genGrid(seed);
+                assertArrayEquals(mines, mines(grid));
+            }
+        }
+    }
+
+    @Test
+    public void differentSeedsDiffer() {
+        GridEngine grid = new Grid(30, 16, 99);
+        GridEngine bitboard = new BitboardGrid(30, 16, 99);
+        HashSet<List<Long>> fields = new HashSet<>();
+        for (long seed = 0; seed < 50; seed++) {
+            grid.genGrid(seed);
+            bitboard.genGrid(seed);
+            long[] mines = mines(grid);
+            assertArrayEquals(mines, mines(bitboard));
+            assertEquals(99, numMines(mines));
+            assertTrue(fields.add(Arrays.stream(mines).boxed().toList()));
+        }
+    }
+
+    //EFFECTS: returns the mines of engine as a bitset, cell (i, j) is bit i * shortSide + j
+    private static long[] mines(GridEngine engine) {
+        int shortSide = engine.getShortSide();
+        long[] mines = new long[(engine.getLongSide() * shortSide + 63) >>> 6];
+        for (int i = 0; i < engine.getLongSide(); i++) {
+            for (int j = 0; j < shortSide; j++) {
+                if (engine.isMine(i, j)) {
+                    mines[(i * shortSide + j) >>> 6] |= 1L << (i * shortSide + j);
+                }
+            }
+        }
+        return mines;
+    }
+
+    private static int numMines(long[] mines) {
+        int count = 0;
+        for (long word : mines) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    //EFFECTS: returns the number of cells with a different value in before and after
+    private static int numChanged(int[][] before, int[][] after) {
+        int changed = 0;
+        for (int i = 0; i < before.length; i++) {
+            for (int j = 0; j < before[i].length; j++) {
+                if (before[i][j] != after[i][j]) {
+                    changed++;
+                }
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,157 @@
+package ModelMinesweeper;
+
+import Solver.Coordinates;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class GridTests {
+
+    @Test
+    public void openRegionMatchesRescan() {
+        for (long seed = 0; seed < 20; seed++) {
+            Grid grid = new Grid(30, 16, 99, seed);
+            SplittableRandom random = new SplittableRandom(seed);
+
+            for (int move = 0; move < 30 && !grid.isGameLost(); move++) {
+                int i = random.nextInt(30);
+                int j = random.nextInt(16);
+                boolean[][] before = openCells(grid);
+                ArrayList<Coordinates> opened = grid.openRegion(j, i);
+                assertEquals(newlyOpen(before, grid), new HashSet<>(opened));
+                assertEquals(new HashSet<>(opened).size(), opened.size());
+            }
+        }
+    }
+
+    @Test
+    public void openRegionEdgesAndCorners() {
+        // the only mine is at (2, 2), the region of the corner goes around it but (2, 3) on the edge only touches
+        // numbers, so it stays closed
+        Grid grid = new Grid(5, 4, 1);
+        grid.genGrid(new long[]{1L << (2 * 4 + 2)});
+
+        ArrayList<Coordinates> opened = grid.openRegion(0, 0);
+        assertEquals(18, opened.size());
+        assertEquals(18, new HashSet<>(opened).size());
+        assertTrue(opened.contains(new Coordinates(0, 3)));
+        assertTrue(opened.contains(new Coordinates(4, 0)));
+        assertTrue(opened.contains(new Coordinates(4, 3)));
+        assertFalse(opened.contains(new Coordinates(2, 2)));
+        assertFalse(grid.getIsOpen(2, 3));
+        assertFalse(grid.isGameWon());
+
+        // opening an open cell opens nothing new, the edge cell opens alone
+        assertTrue(grid.openRegion(3, 4).isEmpty());
+        assertTrue(grid.openRegion(1, 1).isEmpty());
+        opened = grid.openRegion(3, 2);
+        assertEquals(1, opened.size());
+        assertEquals(new Coordinates(2, 3), opened.get(0));
+        assertTrue(grid.isGameWon());
+    }
+
+    @Test
+    public void openRegionStopsAtNumbers() {
+        // column 1 is a wall of mines, the region of column 3 ends at the numbers of column 2 and column 0 is only
+        // numbers, so it opens one cell at a time
+        Grid grid = new Grid(3, 4, 3);
+        grid.genGrid(new long[]{1L << 1 | 1L << 5 | 1L << 9});
+
+        ArrayList<Coordinates> opened = grid.openRegion(3, 2);
+        assertEquals(6, opened.size());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(opened.contains(new Coordinates(i, 2)));
+            assertTrue(opened.contains(new Coordinates(i, 3)));
+            assertFalse(grid.getIsOpen(i, 0));
+        }
+
+        opened = grid.openRegion(0, 0);
+        assertEquals(1, opened.size());
+        assertEquals(new Coordinates(0, 0), opened.get(0));
+        assertFalse(grid.getIsOpen(1, 0));
+
+        assertTrue(grid.openRegion(1, 1).isEmpty());
+        assertTrue(grid.isGameLost());
+    }
+
+    @Test
+    public void openRegionLargeBoard() {
+        // ten isolated mines away from the edges, so one click opens every other cell, a recursive flood fill would
+        // overflow the stack here
+        int side = 1000;
+        long[] mines = new long[(side * side + 63) >>> 6];
+        for (int k = 0; k < 10; k++) {
+            int index = (k * 100 + 50) * side + 500;
+            mines[index >>> 6] |= 1L << index;
+        }
+        Grid grid = new Grid(side, side, 10);
+        grid.genGrid(mines);
+
+        ArrayList<Coordinates> opened = grid.openRegion(0, 0);
+        assertEquals(side * side - 10, opened.size());
+        assertTrue(grid.isGameWon());
+        int open = 0;
+        for (int i = 0; i < side; i++) {
+            for (int j = 0; j < side; j++) {
+                if (grid.getIsOpen(i, j)) {
+                    open++;
+                }
+            }
+        }
+        assertEquals(open, opened.size());
+    }
+
+    @Test
+    public void columnHeader() {
+        assertEquals(Grid.columnHeader(9, 3), "   a b c");
+        assertEquals(Grid.columnHeader(10, 1), "    a");
+        assertEquals(Grid.columnHeader(100, 2), "     a b");
+
+        String[] names = Grid.columnHeader(9, 28).trim().split(" ");
+        assertEquals(names.length, 28);
+        assertEquals(names[25], "z");
+        assertEquals(names[26], "aa");
+        assertEquals(names[27], "ab");
+        names = Grid.columnHeader(9, 703).trim().split(" ");
+        assertEquals(names[701], "zz");
+        assertEquals(names[702], "aaa");
+    }
+
+    @Test
+    public void rowLabel() {
+        assertEquals(Grid.rowLabel(0, 9), "1- ");
+        assertEquals(Grid.rowLabel(8, 9), "9- ");
+        assertEquals(Grid.rowLabel(0, 10), "1-  ");
+        assertEquals(Grid.rowLabel(9, 10), "10- ");
+        assertEquals(Grid.rowLabel(99, 100), "100- ");
+        assertEquals(Grid.rowLabel(0, 100).length(), Grid.rowLabel(99, 100).length());
+    }
+
+    //EFFECTS: returns which cells of grid are open
+    private static boolean[][] openCells(Grid grid) {
+        boolean[][] open = new boolean[grid.getLongSide()][grid.getShortSide()];
+        for (int i = 0; i < grid.getLongSide(); i++) {
+            for (int j = 0; j < grid.getShortSide(); j++) {
+                open[i][j] = grid.getIsOpen(i, j);
+            }
+        }
+        return open;
+    }
+
+    //EFFECTS: returns the coordinates of the cells of grid that are open and were not in before
+    private static HashSet<Coordinates> newlyOpen(boolean[][] before, Grid grid) {
+        HashSet<Coordinates> cells = new HashSet<>();
+        for (int i = 0; i < grid.getLongSide(); i++) {
+            for (int j = 0; j < grid.getShortSide(); j++) {
+                if (grid.getIsOpen(i, j) && !before[i][j]) {
+                    cells.add(new Coordinates(i, j));
+                }
+            }
+        }
+        return cells;
+    }
+}
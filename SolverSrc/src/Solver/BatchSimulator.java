@@ -0,0 +1,366 @@
+package Solver;
+
+import ModelMinesweeper.BitboardGrid;
+import ModelMinesweeper.BoardConfig;
+import Solver.LocalBruteForceSolver.DeductionCache;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Headless batch mode for the solvers
+ *
+ * Plays a number of games per solver across a pool of threads without rendering the board and reports win rate,
+ * throughput, steps per game and step latency. Every thread owns its own game and solver.
+ * A game whose solver throws counts as an error, the first exception of each mode is kept in its Result with the
+ * game that threw it, and the game is recorded with the GameTrace.ERROR outcome.
+ */
+public class BatchSimulator {
+    protected BoardConfig board;
+    protected int gamesPerMode;
+    protected int threads;
+    protected int maxStepsPerGame;
+    protected boolean seeded;
+    protected long seed;
+    protected DeductionCache deductionCache;
+    protected ForkJoinPool searchPool;
+    protected int splitDepth;
+    protected TraceRecorder traceRecorder;
+    protected Coordinates noGuessFirstClick;
+    protected long[][] noGuessBoards;
+    protected boolean safeFirstClick;
+    protected boolean protectNeighbours;
+    protected Coordinates openingCell;
+    protected long guessTimeBudgetNanos;
+    protected int guessMaxCandidates;
+    protected boolean guessSelection;
+    protected boolean recordMetrics;
+
+    /**
+     * @param board The dimensions and number of mines of the boards played
+     * @param gamesPerMode The number of games played by each solver, must be non-zero positive number
+     * @param threads The number of threads used to play games, must be non-zero positive number
+     */
+    public BatchSimulator(BoardConfig board, int gamesPerMode, int threads) {
+        if (gamesPerMode < 1) throw new RuntimeException("Must play at least one game");
+        if (threads < 1) throw new RuntimeException("Must use at least one thread");
+
+        this.board = board;
+        this.gamesPerMode = gamesPerMode;
+        this.threads = threads;
+        this.maxStepsPerGame = board.totalNumCells();
+    }
+
+    /**
+     * Makes the boards reproducible, the n-th game of every mode is played on the board of seed + n
+     *
+     * @param seed The seed of the first game
+     */
+    public void useSeed(long seed) {
+        this.seeded = true;
+        this.seed = seed;
+    }
+
+    /**
+     * Makes the local brute force solvers of every thread share the given cache
+     *
+     * @param deductionCache The cache, null to always search
+     */
+    public void useDeductionCache(DeductionCache deductionCache) {
+        this.deductionCache = deductionCache;
+    }
+
+    /**
+     * Makes the local brute force solvers of every thread search large components in parallel on pool, see
+     * SolverMain.useParallelSearch. The moves are the same as with sequential searches
+     *
+     * @param pool The pool shared by the searches of every thread, null to search sequentially
+     * @param splitDepth The number of variables assigned before splitting a search into tasks
+     */
+    public void useParallelSearch(ForkJoinPool pool, int splitDepth) {
+        this.searchPool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    /**
+     * Records every game played by every thread to the trace file of traceRecorder
+     *
+     * @param traceRecorder The recorder, null to not record
+     */
+    public void useTraceRecorder(TraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    /**
+     * Makes the mines of every random board be placed by the first opened cell, so no game is lost on its first step,
+     * see GridEngine.useSafeFirstClick
+     *
+     * @param protectNeighbours True to keep the neighbours of the first opened cell free too, so it opens a zero region
+     */
+    public void useSafeFirstClick(boolean protectNeighbours) {
+        this.safeFirstClick = true;
+        this.protectNeighbours = protectNeighbours;
+    }
+
+    /**
+     * Makes every solver open the given cell first, see SolverAdapter.setOpeningCell
+     *
+     * @param openingCell The cell, null to keep the opening cell of each solver
+     */
+    public void useOpeningCell(Coordinates openingCell) {
+        this.openingCell = openingCell;
+    }
+
+    /**
+     * Makes the solvers of every thread record their steps into SolverMetrics of their own, the totals of the threads
+     * are added into Result.metrics
+     *
+     * @param recordMetrics True to record
+     */
+    public void useMetrics(boolean recordMetrics) {
+        this.recordMetrics = recordMetrics;
+    }
+
+    /**
+     * Makes the solvers of every thread pick their guesses with a GuessSelector of their own, scoring every candidate
+     */
+    public void useGuessSelector() {
+        useGuessSelector(0, 0);
+    }
+
+    /**
+     * Makes the solvers of every thread pick their guesses with a GuessSelector of their own
+     * A time budget makes the guesses depend on the load of the machine, so it is not used when the games must repeat:
+     * with a seed, on given no-guess boards or when recording traces, only the candidate budget is kept
+     *
+     * @param timeBudgetNanos The time a guess can take, 0 for no limit, see GuessSelector
+     * @param maxCandidates The number of candidates a guess scores, 0 for no limit
+     */
+    public void useGuessSelector(long timeBudgetNanos, int maxCandidates) {
+        this.guessSelection = true;
+        this.guessTimeBudgetNanos = timeBudgetNanos;
+        this.guessMaxCandidates = maxCandidates;
+    }
+
+    /**
+     * Plays the n-th game of every mode on boards[n], which the solvers start from firstClick opened. The boards are
+     * made before the games, usually by NoGuessGenerator.generate, so making them is not part of the measured time
+     *
+     * @param firstClick The cell opened first, null to play random boards
+     * @param boards The mines of every game as in SimpleMinesweeper.reset, at least gamesPerMode of them
+     */
+    public void useNoGuessBoards(Coordinates firstClick, long[][] boards) {
+        if (firstClick != null && (boards == null || boards.length < gamesPerMode))
+            throw new RuntimeException("Need a board for every game of a mode");
+        this.noGuessFirstClick = firstClick;
+        this.noGuessBoards = firstClick == null ? null : boards;
+    }
+
+    /**
+     * Plays gamesPerMode games with every given solver mode
+     *
+     * @param modes The solver modes, as in SolverMain.chooseMode
+     * @return The results for each mode, in the same order as modes
+     */
+    public ArrayList<Result> run(int[] modes) {
+        ArrayList<Result> results = new ArrayList<>();
+        for (int mode: modes)
+            results.add(run(mode));
+        return results;
+    }
+
+    /**
+     * Plays gamesPerMode games with a single solver mode, splitting the games across all threads
+     *
+     * @param mode The solver mode, as in SolverMain.chooseMode
+     * @return The merged results of all threads
+     */
+    public Result run(int mode) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ArrayList<Future<Result>> futures = new ArrayList<>();
+        int gamesPerThread = gamesPerMode / threads;
+        int remainder = gamesPerMode % threads;
+
+        long start = System.nanoTime();
+        int firstGame = 0;
+        for (int i = 0; i < threads; i++) {
+            int games = gamesPerThread + (i < remainder ? 1 : 0);
+            int first = firstGame;
+            if (games > 0)
+                futures.add(executor.submit(() -> playGames(mode, first, games)));
+            firstGame += games;
+        }
+
+        Result result = new Result(mode);
+        try {
+            for (Future<Result> future: futures)
+                result.merge(future.get());
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdown();
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+
+        return result;
+    }
+
+    /**
+     * Plays the given number of games on the calling thread
+     *
+     * @param mode The solver mode
+     * @param firstGame The index of the first game among all games of the mode, used to seed its board
+     * @param games The number of games to play
+     * @return The results of the games, without elapsed time
+     */
+    protected Result playGames(int mode, int firstGame, int games) {
+        BitboardGrid grid = new BitboardGrid(board.longSide(), board.shortSide(), board.numMines());
+        grid.useSafeFirstClick(safeFirstClick, protectNeighbours);
+        SimpleMinesweeper game = new SimpleMinesweeper(grid, false);
+        SolverMain main = new SolverMain(game);
+        main.useDeductionCache(deductionCache);
+        main.useParallelSearch(searchPool, splitDepth);
+        main.useTraceRecorder(traceRecorder);
+        main.useOpeningCell(openingCell);
+        SolverMetrics metrics = recordMetrics ? new SolverMetrics() : null;
+        main.useMetrics(metrics);
+        if (guessSelection)
+            main.useGuessSelector(new GuessSelector(board.longSide(), board.shortSide(), board.numMines(),
+                    reproducible() ? 0 : guessTimeBudgetNanos, guessMaxCandidates));
+        Result result = new Result(mode);
+
+        for (int g = 0; g < games; g++) {
+            if (noGuessBoards != null) game.reset(noGuessBoards[firstGame + g]);
+            else if (seeded) game.reset(seed + firstGame + g);
+            else if (g > 0 || safeFirstClick) game.reset();
+            main.chooseMode(mode);
+            if (noGuessBoards != null) main.openFirstCell(noGuessFirstClick);
+
+            int steps = 0;
+            boolean failed = false;
+            try {
+                while (!game.isGameLost() && !game.isGameWon() && steps < maxStepsPerGame) {
+                    long start = System.nanoTime();
+                    main.step();
+                    result.latencies.record(System.nanoTime() - start);
+                    steps++;
+                }
+            } catch (RuntimeException e) {
+                failed = true;
+                result.addError(firstGame + g, seeded && noGuessBoards == null ? seed + firstGame + g : null, e);
+                main.finishRecording(GameTrace.ERROR);
+            }
+
+            result.games++;
+            result.steps += steps;
+            if (failed) result.errors++;
+            else if (game.isGameWon()) result.wins++;
+            else if (game.isGameLost()) result.losses++;
+        }
+        main.finishRecording();
+        if (metrics != null) result.metrics = metrics.snapshot();
+
+        return result;
+    }
+
+    /**
+     * @return True if the games must play the same way every run, seeded, on given boards or recorded to be replayed
+     */
+    protected boolean reproducible() {
+        return seeded || noGuessBoards != null || traceRecorder != null;
+    }
+
+    /**
+     * Aggregated results of the games played by a single solver mode
+     */
+    public static class Result {
+        public final int mode;
+        public int games;
+        public int wins;
+        public int losses;
+        public int errors;
+        public long steps;
+        public long elapsedNanos;
+        public final LatencyRecorder latencies;
+        /**
+         * The totals of the solver metrics of every thread, null if they were not recorded
+         */
+        public SolverMetrics.Snapshot metrics;
+        /**
+         * The exception of the failed game with the lowest index, null if no game failed
+         */
+        public RuntimeException firstError;
+        /**
+         * The index among all games of the mode of the game that threw firstError, -1 if none did
+         */
+        public int firstErrorGame = -1;
+        /**
+         * The seed of the board of that game, null if the boards were not seeded
+         */
+        public Long firstErrorSeed;
+
+        public Result(int mode) {
+            this.mode = mode;
+            this.latencies = new LatencyRecorder();
+        }
+
+        public void merge(Result other) {
+            games += other.games;
+            wins += other.wins;
+            losses += other.losses;
+            errors += other.errors;
+            steps += other.steps;
+            latencies.merge(other.latencies);
+            if (other.metrics != null) metrics = metrics == null ? other.metrics : metrics.plus(other.metrics);
+            if (other.firstError != null)
+                addError(other.firstErrorGame, other.firstErrorSeed, other.firstError);
+        }
+
+        /**
+         * Counts a failed game, keeps its exception if it is the first failed game so far
+         *
+         * @param game The index of the game among all games of the mode
+         * @param seed The seed of its board, null if it is not seeded
+         * @param error The exception thrown by the solver
+         */
+        public void addError(int game, Long seed, RuntimeException error) {
+            if (firstError != null && firstErrorGame <= game) return;
+            firstError = error;
+            firstErrorGame = game;
+            firstErrorSeed = seed;
+        }
+
+        public double winRate() {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        public double gamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : games / (elapsedNanos / 1e9);
+        }
+
+        public double stepsPerGame() {
+            return games == 0 ? 0 : (double) steps / games;
+        }
+
+        @Override
+        public String toString() {
+            String summary = String.format("%-16s games=%d win=%.2f%% stalled=%d errors=%d games/s=%.1f steps/game=%.1f " +
+                            "p50=%.1fus p99=%.1fus", SolverMain.modeName(mode), games, winRate() * 100,
+                    games - wins - losses - errors, errors, gamesPerSecond(), stepsPerGame(),
+                    latencies.percentile(0.50) / 1e3, latencies.percentile(0.99) / 1e3);
+            if (metrics != null) summary += String.format("%n  %s", metrics);
+            if (firstError == null) return summary;
+
+            StringWriter trace = new StringWriter();
+            firstError.printStackTrace(new PrintWriter(trace));
+            return summary + String.format("%n  first error in game %d%s: %s", firstErrorGame,
+                    firstErrorSeed == null ? "" : " (seed " + firstErrorSeed + ")", trace);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package Solver;
+
+import ModelMinesweeper.BoardConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class BatchSimulatorTests {
+
+    @Test
+    public void totalsAddUp() {
+        BatchSimulator simulator = new BatchSimulator(BoardConfig.BEGINNER, 25, 3);
+        simulator.useSeed(11);
+
+        for (BatchSimulator.Result result: simulator.run(new int[]{0, 1, 2})) {
+            assertEquals(result.games, 25);
+            assertEquals(result.wins + result.losses + result.errors, result.games);
+            assertEquals(result.latencies.count(), result.steps);
+            assertTrue(result.steps >= result.games);
+            assertTrue(result.elapsedNanos > 0);
+        }
+    }
+
+    @Test
+    public void metricsOfEveryThread() {
+        BatchSimulator simulator = new BatchSimulator(BoardConfig.BEGINNER, 10, 3);
+        simulator.useSeed(2);
+        assertNull(simulator.run(1).metrics);
+
+        simulator.useMetrics(true);
+        BatchSimulator.Result result = simulator.run(1);
+        assertEquals(result.metrics.steps(), result.steps);
+        assertTrue(result.metrics.searches() > 0);
+        assertTrue(result.metrics.openedCells() >= result.steps);
+        assertTrue(result.toString().contains(result.metrics.toString()));
+    }
+
+    @Test
+    public void seededRunsRepeat() {
+        // the same seed plays the same boards however the games are split across threads
+        BatchSimulator single = new BatchSimulator(BoardConfig.BEGINNER, 20, 1);
+        single.useSeed(5);
+        BatchSimulator.Result first = single.run(2);
+
+        BatchSimulator split = new BatchSimulator(BoardConfig.BEGINNER, 20, 4);
+        split.useSeed(5);
+        BatchSimulator.Result second = split.run(2);
+
+        assertEquals(first.wins, second.wins);
+        assertEquals(first.losses, second.losses);
+        assertEquals(first.steps, second.steps);
+    }
+
+    @Test
+    public void seededGuessesRepeat() {
+        // the time budget is dropped for seeded runs, the guesses only depend on the candidate budget
+        BatchSimulator single = new BatchSimulator(BoardConfig.INTERMEDIATE, 12, 1);
+        single.useSeed(9);
+        single.useGuessSelector(1, 64);
+        BatchSimulator.Result first = single.run(2);
+
+        BatchSimulator split = new BatchSimulator(BoardConfig.INTERMEDIATE, 12, 3);
+        split.useSeed(9);
+        split.useGuessSelector(1, 64);
+        BatchSimulator.Result second = split.run(2);
+
+        assertEquals(first.wins, second.wins);
+        assertEquals(first.losses, second.losses);
+        assertEquals(first.steps, second.steps);
+    }
+
+    @Test
+    public void parallelSearchPlaysTheSameGames() {
+        BatchSimulator sequential = new BatchSimulator(BoardConfig.EXPERT, 6, 2);
+        sequential.useSeed(4);
+        BatchSimulator.Result first = sequential.run(3);
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            BatchSimulator parallel = new BatchSimulator(BoardConfig.EXPERT, 6, 2);
+            parallel.useSeed(4);
+            parallel.useParallelSearch(pool, 2);
+            BatchSimulator.Result second = parallel.run(3);
+
+            assertEquals(first.wins, second.wins);
+            assertEquals(first.losses, second.losses);
+            assertEquals(first.steps, second.steps);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void noGuessBoardsForEveryGame() {
+        Coordinates firstClick = new Coordinates(4, 4);
+        long[][] boards = NoGuessGenerator.generate(BoardConfig.BEGINNER, firstClick, 4, 1, 3);
+
+        BatchSimulator simulator = new BatchSimulator(BoardConfig.BEGINNER, 5, 2);
+        assertThrows(RuntimeException.class, () -> simulator.useNoGuessBoards(firstClick, boards));
+
+        BatchSimulator exact = new BatchSimulator(BoardConfig.BEGINNER, 4, 2);
+        exact.useNoGuessBoards(firstClick, boards);
+        BatchSimulator.Result result = exact.run(2);
+        assertEquals(result.games, 4);
+        assertEquals(result.wins + result.losses + result.errors, result.games);
+    }
+
+    @Test
+    public void keepsFirstError() {
+        BatchSimulator.Result first = new BatchSimulator.Result(1);
+        first.addError(7, 107L, new IllegalStateException("later"));
+        BatchSimulator.Result second = new BatchSimulator.Result(1);
+        second.addError(3, 103L, new IllegalStateException("earlier"));
+        second.addError(5, 105L, new IllegalStateException("between"));
+
+        first.merge(second);
+        assertEquals(first.firstErrorGame, 3);
+        assertEquals(first.firstErrorSeed, Long.valueOf(103));
+        assertEquals(first.firstError.getMessage(), "earlier");
+        assertTrue(first.toString().contains("first error in game 3 (seed 103)"));
+        assertTrue(first.toString().contains("IllegalStateException: earlier"));
+        assertFalse(new BatchSimulator.Result(1).toString().contains("first error"));
+    }
+}
@@ -0,0 +1,20 @@
+package Solver;
+
+/**
+ * The cells of the board that changed since the solver last saw it
+ *
+ * @param coordinates The coordinates of the changed cells
+ * @param values The new values of the changed cells, same encoding as the board matrix (0-8 number, -2 flag,
+ *               -1 closed), values[i] belongs to coordinates[i]
+ */
+public record BoardChanges(Coordinates[] coordinates, int[] values) {
+
+    public BoardChanges {
+        if (coordinates.length != values.length)
+            throw new RuntimeException("Every changed coordinate must have a value");
+    }
+
+    public int size() {
+        return coordinates.length;
+    }
+}
@@ -0,0 +1,85 @@
+package Solver;
+
+import java.util.NoSuchElementException;
+
+/**
+ * First in first out queue of cell ids (x * shortSideLength + y) used for the cells the solvers found but did not
+ * return yet
+ *
+ * A bitset marks the queued cells, so contains is O(1) and adding a queued cell again does nothing. A cell id is in
+ * the queue at most once, so the queue never holds more than numCells ids.
+ */
+public class CellQueue {
+    protected final int[] cells;
+    protected final long[] queued;
+    protected int head;
+    protected int tail;
+
+    /**
+     * @param numCells The number of cells of the board, ids must be between 0 and numCells - 1
+     */
+    public CellQueue(int numCells) {
+        this.cells = new int[numCells];
+        this.queued = new long[(numCells + 63) >>> 6];
+    }
+
+    /**
+     * Adds id at the end of the queue
+     *
+     * @return False if id was already in the queue
+     */
+    public boolean add(int id) {
+        if (contains(id)) return false;
+        if (tail == cells.length) {
+            System.arraycopy(cells, head, cells, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+        queued[id >>> 6] |= 1L << id;
+        cells[tail++] = id;
+        return true;
+    }
+
+    /**
+     * Removes the first id of the queue
+     *
+     * @return The id removed
+     */
+    public int poll() {
+        if (head == tail) throw new NoSuchElementException("Queue is empty");
+        int id = cells[head++];
+        queued[id >>> 6] &= ~(1L << id);
+        if (head == tail) {
+            head = 0;
+            tail = 0;
+        }
+        return id;
+    }
+
+    public boolean contains(int id) {
+        return (queued[id >>> 6] & 1L << id) != 0;
+    }
+
+    /**
+     * @return The id at the given position from the first one, 0 <= index < size()
+     */
+    public int get(int index) {
+        if (index >= size()) throw new IndexOutOfBoundsException(index);
+        return cells[head + index];
+    }
+
+    public int size() {
+        return tail - head;
+    }
+
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    public void clear() {
+        for (int i = head; i < tail; i++)
+            queued[cells[i] >>> 6] = 0;
+        head = 0;
+        tail = 0;
+    }
+}
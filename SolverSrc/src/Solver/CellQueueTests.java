@@ -0,0 +1,65 @@
+package Solver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.Assert.*;
+
+public class CellQueueTests {
+
+    @Test
+    public void addIgnoresDuplicates() {
+        CellQueue queue = new CellQueue(100);
+
+        assertTrue(queue.add(3));
+        assertTrue(queue.add(70));
+        assertFalse(queue.add(3));
+        assertEquals(queue.size(), 2);
+        assertTrue(queue.contains(70));
+        assertFalse(queue.contains(6));
+    }
+
+    @Test
+    public void pollInOrder() {
+        CellQueue queue = new CellQueue(10);
+        queue.add(4);
+        queue.add(1);
+        queue.add(9);
+
+        assertEquals(queue.poll(), 4);
+        assertFalse(queue.contains(4));
+        assertEquals(queue.get(0), 1);
+        assertTrue(queue.add(4));
+        assertEquals(queue.poll(), 1);
+        assertEquals(queue.poll(), 9);
+        assertEquals(queue.poll(), 4);
+        assertTrue(queue.isEmpty());
+        assertThrows(RuntimeException.class, queue::poll);
+    }
+
+    @Test
+    public void refillsPolledCells() {
+        // every cell is queued again after being polled while others wait, the queue must not run out of room
+        CellQueue queue = new CellQueue(4);
+        for (int id = 0; id < 4; id++)
+            queue.add(id);
+        for (int round = 0; round < 20; round++) {
+            int id = queue.poll();
+            assertEquals(id, round % 4);
+            assertTrue(queue.add(id));
+            assertEquals(queue.size(), 4);
+        }
+    }
+
+    @Test
+    public void clear() {
+        CellQueue queue = new CellQueue(130);
+        queue.add(2);
+        queue.add(129);
+        queue.clear();
+
+        assertTrue(queue.isEmpty());
+        assertFalse(queue.contains(2));
+        assertFalse(queue.contains(129));
+        assertTrue(queue.add(129));
+    }
+}
@@ -0,0 +1,79 @@
+package Solver;
+
+import java.util.Arrays;
+
+/**
+ * Set of cell ids (x * shortSideLength + y) used as the frontier of the solvers
+ *
+ * The ids are kept in a dense array and every cell knows its position in it, so add, remove and contains are O(1).
+ * Removing swaps the last id into the freed position, so the order only depends on the calls made and iterating from
+ * the end while removing the current id visits every id once.
+ */
+public class Frontier {
+    protected final int[] cells;
+    protected final int[] position;
+    protected int size;
+
+    /**
+     * @param numCells The number of cells of the board, ids must be between 0 and numCells - 1
+     */
+    public Frontier(int numCells) {
+        this.cells = new int[numCells];
+        this.position = new int[numCells];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Adds id at the end of the frontier
+     *
+     * @return False if id was already in the frontier
+     */
+    public boolean add(int id) {
+        if (position[id] != -1) return false;
+        position[id] = size;
+        cells[size++] = id;
+        return true;
+    }
+
+    /**
+     * Removes id, the last id of the frontier takes its position
+     *
+     * @return False if id was not in the frontier
+     */
+    public boolean remove(int id) {
+        int index = position[id];
+        if (index == -1) return false;
+
+        int last = cells[--size];
+        cells[index] = last;
+        position[last] = index;
+        position[id] = -1;
+        return true;
+    }
+
+    public boolean contains(int id) {
+        return position[id] != -1;
+    }
+
+    /**
+     * @return The id at the given position, 0 <= index < size()
+     */
+    public int get(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException(index);
+        return cells[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++)
+            position[cells[i]] = -1;
+        size = 0;
+    }
+}
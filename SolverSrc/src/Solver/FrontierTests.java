@@ -0,0 +1,69 @@
+package Solver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.Assert.*;
+
+public class FrontierTests {
+
+    @Test
+    public void addIgnoresDuplicates() {
+        Frontier frontier = new Frontier(10);
+
+        assertTrue(frontier.add(3));
+        assertTrue(frontier.add(7));
+        assertFalse(frontier.add(3));
+        assertEquals(frontier.size(), 2);
+        assertEquals(frontier.get(0), 3);
+        assertEquals(frontier.get(1), 7);
+    }
+
+    @Test
+    public void removeSwapsLast() {
+        Frontier frontier = new Frontier(10);
+        frontier.add(1);
+        frontier.add(4);
+        frontier.add(9);
+
+        assertTrue(frontier.remove(1));
+        assertFalse(frontier.remove(1));
+        assertFalse(frontier.contains(1));
+        assertEquals(frontier.size(), 2);
+        assertEquals(frontier.get(0), 9);
+        assertEquals(frontier.get(1), 4);
+
+        assertTrue(frontier.add(1));
+        assertEquals(frontier.get(2), 1);
+    }
+
+    @Test
+    public void removeWhileIteratingFromEnd() {
+        Frontier frontier = new Frontier(10);
+        for (int id = 0; id < 10; id++)
+            frontier.add(id);
+
+        int visited = 0;
+        for (int i = frontier.size() - 1; i >= 0; i--) {
+            int id = frontier.get(i);
+            visited++;
+            if (id % 2 == 0) frontier.remove(id);
+        }
+
+        assertEquals(visited, 10);
+        assertEquals(frontier.size(), 5);
+        for (int id = 0; id < 10; id++)
+            assertEquals(frontier.contains(id), id % 2 == 1);
+    }
+
+    @Test
+    public void clear() {
+        Frontier frontier = new Frontier(4);
+        frontier.add(2);
+        frontier.add(0);
+        frontier.clear();
+
+        assertTrue(frontier.isEmpty());
+        assertFalse(frontier.contains(2));
+        assertTrue(frontier.add(2));
+    }
+}
@@ -0,0 +1,91 @@
+package Solver;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A recorded game: the board and every cell opened and flagged by each step
+ *
+ * Cells are stored by id x * shortSideLength + y. In a trace file every game is one record, all numbers big endian:
+ * <pre>
+ * int    MAGIC
+ * int    length of the rest of the record in bytes
+ * short  longSideLength, shortSideLength, numMines
+ * byte   outcome, UNFINISHED, WON, LOST or ERROR
+ * byte[] mine bitmap, bit id of byte id / 8 set for mines, (longSideLength * shortSideLength + 7) / 8 bytes
+ * int    number of steps
+ * then for every step:
+ *   int    time of the step in nanoseconds, saturated at Integer.MAX_VALUE
+ *   short  number of opened cells, short number of flagged cells
+ *   short  id of every opened cell and then of every flagged cell
+ * </pre>
+ *
+ * @param mines The mines as a bitset, bit id of word id / 64, the encoding of GridEngine.genGrid(long[])
+ * @param stepNanos The time of each step
+ * @param opened The ids of the cells chosen to be opened by each step
+ * @param flagged The ids of the cells flagged by each step
+ */
+public record GameTrace(int longSideLength, int shortSideLength, int numMines, int outcome, long[] mines,
+                        int[] stepNanos, int[][] opened, int[][] flagged) {
+    public static final int MAGIC = 0x4D535452;
+    public static final int UNFINISHED = 0;
+    public static final int WON = 1;
+    public static final int LOST = 2;
+    /**
+     * The solver threw an exception during the game, the steps are the ones before it
+     */
+    public static final int ERROR = 3;
+    /**
+     * Cell ids, side lengths and the number of mines are stored as unsigned shorts, so a board can have at most this
+     * many cells, and so at most this long sides and this many mines
+     */
+    public static final int MAX_CELLS = 0xFFFF;
+
+    public int numSteps() {
+        return stepNanos.length;
+    }
+
+    /**
+     * @return The number of bytes of the mine bitmap of a board of numCells cells
+     */
+    public static int bitmapBytes(int numCells) {
+        return (numCells + 7) >>> 3;
+    }
+
+    /**
+     * Reads the record at the position of buffer and moves the position past it
+     *
+     * @throws RuntimeException if the buffer does not hold a trace record at its position
+     */
+    public static GameTrace read(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC) throw new RuntimeException("Not a game trace record");
+        int length = buffer.getInt();
+        int end = buffer.position() + length;
+
+        int longSide = buffer.getShort() & 0xFFFF;
+        int shortSide = buffer.getShort() & 0xFFFF;
+        int numMines = buffer.getShort() & 0xFFFF;
+        int outcome = buffer.get();
+
+        int numCells = longSide * shortSide;
+        long[] mines = new long[(numCells + 63) >>> 6];
+        for (int b = 0; b < bitmapBytes(numCells); b++)
+            mines[b >>> 3] |= (buffer.get() & 0xFFL) << ((b & 7) << 3);
+
+        int numSteps = buffer.getInt();
+        int[] stepNanos = new int[numSteps];
+        int[][] opened = new int[numSteps][];
+        int[][] flagged = new int[numSteps][];
+        for (int s = 0; s < numSteps; s++) {
+            stepNanos[s] = buffer.getInt();
+            opened[s] = new int[buffer.getShort() & 0xFFFF];
+            flagged[s] = new int[buffer.getShort() & 0xFFFF];
+            for (int i = 0; i < opened[s].length; i++)
+                opened[s][i] = buffer.getShort() & 0xFFFF;
+            for (int i = 0; i < flagged[s].length; i++)
+                flagged[s][i] = buffer.getShort() & 0xFFFF;
+        }
+
+        if (buffer.position() != end) throw new RuntimeException("Game trace record has the wrong length");
+        return new GameTrace(longSide, shortSide, numMines, outcome, mines, stepNanos, opened, flagged);
+    }
+}
@@ -0,0 +1,300 @@
+package Solver;
+
+import java.util.Arrays;
+
+/**
+ * Picks the cell to open when a solver has no certain move
+ *
+ * Every closed cell is a candidate. A candidate is ranked by the chance it is safe, the information its number gives and
+ * the chance it opens a zero region: score = (1 - p) * (1 + informationWeight * H + zeroWeight * z), where p is its mine
+ * probability, H the entropy in bits of the number it shows when safe and z the chance that number is 0. H and z treat
+ * the closed neighbours of the cell as independent cells with their own mine probability.
+ *
+ * Mine probabilities come from the solver through addEstimate, usually the bomb frequencies of its searches. Closed
+ * cells next to a number without an estimate get the highest missing mines over closed cells of their numbers, the
+ * other closed cells share the mines not expected on the frontier. Candidates with an estimate are scored first, and
+ * scoring stops once the candidate budget or the time budget of the step is spent, keeping the best cell found so far.
+ * The candidate budget always scores the same cells, the time budget depends on the load of the machine, so with it the
+ * same board can get a different guess and seeded games or replayed traces do not repeat.
+ *
+ * Cells are ids x * shortSideLength + y, same as NeighbourTable. Not thread safe, a selector can be shared by the
+ * solvers of one thread.
+ */
+public class GuessSelector {
+    /**
+     * Score added per bit of entropy of the number a candidate shows, relative to the chance it is safe
+     */
+    public static final double DEFAULT_INFORMATION_WEIGHT = 0.02;
+    /**
+     * Score added by a candidate that is certain to be a zero, relative to the chance it is safe
+     */
+    public static final double DEFAULT_ZERO_WEIGHT = 0.05;
+    public static final long DEFAULT_TIME_BUDGET_NANOS = 1_000_000;
+    /**
+     * Candidates scored between two reads of the clock
+     */
+    private static final int CLOCK_INTERVAL = 16;
+
+    protected final int longSideLength;
+    protected final int shortSideLength;
+    protected final int numMines;
+    protected final long timeBudgetNanos;
+    protected final int maxCandidates;
+    protected final NeighbourTable neighbourTable;
+    protected double informationWeight;
+    protected double zeroWeight;
+
+    /**
+     * Value of every cell as in the solver boards, number of adjacent mines if open, -2 for mines and -1 for closed
+     */
+    protected final int[] value;
+    /**
+     * Mine probability of every closed cell, NaN for cells without an estimate
+     */
+    protected final double[] probability;
+    protected final int[] estimated;
+    protected int numEstimated;
+    protected final boolean[] isEstimated;
+    protected final int[] candidates;
+    /**
+     * Chance of showing each number, reused by scoreOf
+     */
+    protected final double[] distribution;
+    protected int numScored;
+
+    /**
+     * @param longSideLength The size of the long side of the board, must be non-zero positive number
+     * @param shortSideLength The size of the short side of the board, must be non-zero positive number
+     * @param numMines The total number of mines in the board
+     * @param timeBudgetNanos The time select can take, 0 or less to score every candidate
+     */
+    public GuessSelector(int longSideLength, int shortSideLength, int numMines, long timeBudgetNanos) {
+        this(longSideLength, shortSideLength, numMines, timeBudgetNanos, 0);
+    }
+
+    /**
+     * @param longSideLength The size of the long side of the board, must be non-zero positive number
+     * @param shortSideLength The size of the short side of the board, must be non-zero positive number
+     * @param numMines The total number of mines in the board
+     * @param timeBudgetNanos The time select can take, 0 or less for no time limit, makes guesses not reproducible
+     * @param maxCandidates The number of candidates select scores, 0 or less for no limit
+     */
+    public GuessSelector(int longSideLength, int shortSideLength, int numMines, long timeBudgetNanos,
+                         int maxCandidates) {
+        if (shortSideLength < 1 || longSideLength < 1) throw new RuntimeException("Side must be larger than 0");
+        if (numMines < 0 || numMines > longSideLength * shortSideLength)
+            throw new RuntimeException("Number of mines must be between 0 and the number of cells");
+
+        this.longSideLength = longSideLength;
+        this.shortSideLength = shortSideLength;
+        this.numMines = numMines;
+        this.timeBudgetNanos = timeBudgetNanos;
+        this.maxCandidates = maxCandidates;
+        this.neighbourTable = NeighbourTable.of(longSideLength, shortSideLength);
+        this.informationWeight = DEFAULT_INFORMATION_WEIGHT;
+        this.zeroWeight = DEFAULT_ZERO_WEIGHT;
+
+        int numCells = longSideLength * shortSideLength;
+        this.value = new int[numCells];
+        this.probability = new double[numCells];
+        this.estimated = new int[numCells];
+        this.isEstimated = new boolean[numCells];
+        this.candidates = new int[numCells];
+        this.distribution = new double[9];
+        Arrays.fill(value, -1);
+        Arrays.fill(probability, Double.NaN);
+    }
+
+    /**
+     * Sets how much the information and the chance of a zero count against the chance of being safe, 0 for both picks
+     * the safest cell
+     */
+    public void setWeights(double informationWeight, double zeroWeight) {
+        this.informationWeight = informationWeight;
+        this.zeroWeight = zeroWeight;
+    }
+
+    /**
+     * Forgets every estimate, called by the solver before the searches of a step
+     */
+    public void clearEstimates() {
+        for (int i = 0; i < numEstimated; i++) {
+            probability[estimated[i]] = Double.NaN;
+            isEstimated[estimated[i]] = false;
+        }
+        numEstimated = 0;
+    }
+
+    /**
+     * Adds an estimate of the mine probability of a closed cell, a cell estimated by several searches keeps the
+     * highest one
+     *
+     * @param probability The mine probability, between 0 and 1
+     */
+    public void addEstimate(int id, double probability) {
+        if (!isEstimated[id]) {
+            isEstimated[id] = true;
+            estimated[numEstimated++] = id;
+            this.probability[id] = probability;
+        } else if (probability > this.probability[id]) {
+            this.probability[id] = probability;
+        }
+    }
+
+    /**
+     * Adds the estimate given by a search, see addEstimate
+     *
+     * @param bombFrequency The number of solutions where the cell is a bomb
+     * @param solutions The number of solutions of the search, must be non-zero positive number
+     */
+    public void addEstimate(int id, long bombFrequency, long solutions) {
+        addEstimate(id, (double) bombFrequency / solutions);
+    }
+
+    /**
+     * Sets the value of a cell before select, every cell must be set before each select
+     *
+     * @param value Number of adjacent mines if open, -2 for mines and -1 for closed
+     */
+    public void setValue(int id, int value) {
+        this.value[id] = value;
+    }
+
+    public void setValue(int x, int y, int value) {
+        setValue(neighbourTable.getId(x, y), value);
+    }
+
+    /**
+     * Ranks the closed cells as described in the class comment
+     *
+     * @return The id of the best cell, -1 if no cell is closed
+     */
+    public int select() {
+        long start = System.nanoTime();
+        int numCells = value.length;
+        int[] cellStart = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+
+        // estimated cells go first so they are scored even if the budget runs out
+        int numCandidates = 0;
+        for (int i = 0; i < numEstimated; i++)
+            if (value[estimated[i]] == -1) candidates[numCandidates++] = estimated[i];
+        int numFrontier = numCandidates;
+        for (int id = 0; id < numCells; id++)
+            if (value[id] == -1 && !isEstimated[id]) candidates[numCandidates++] = id;
+        if (numCandidates == 0) return -1;
+
+        int numFlags = 0;
+        for (int id = 0; id < numCells; id++)
+            if (value[id] == -2) numFlags++;
+
+        // fill the closed cells next to a number, then spread the mines left over the rest
+        double expectedFrontierMines = 0;
+        for (int i = 0; i < numFrontier; i++)
+            expectedFrontierMines += probability[candidates[i]];
+        int numInterior = 0;
+        for (int i = numFrontier; i < numCandidates; i++) {
+            int id = candidates[i];
+            double local = localEstimate(id, cellStart, neighbours);
+            if (Double.isNaN(local)) {
+                probability[id] = Double.NaN;
+                numInterior++;
+            } else {
+                probability[id] = local;
+                expectedFrontierMines += local;
+            }
+        }
+        double interior = numInterior == 0 ? 0 :
+                Math.min(1, Math.max(0, (numMines - numFlags - expectedFrontierMines) / numInterior));
+
+        int best = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        numScored = 0;
+        int numToScore = maxCandidates > 0 ? Math.min(maxCandidates, numCandidates) : numCandidates;
+        for (int i = 0; i < numToScore; i++) {
+            if (i > 0 && i % CLOCK_INTERVAL == 0 && timeBudgetNanos > 0 &&
+                    System.nanoTime() - start > timeBudgetNanos) break;
+
+            int id = candidates[i];
+            double score = scoreOf(id, interior, cellStart, neighbours);
+            numScored++;
+            if (score > bestScore) {
+                bestScore = score;
+                best = id;
+            }
+        }
+
+        // the cells without an estimate were only given one for this select
+        for (int i = numFrontier; i < numCandidates; i++)
+            probability[candidates[i]] = Double.NaN;
+        return best;
+    }
+
+    /**
+     * @return The highest missing mines over closed neighbours of the numbers next to id, NaN if it has none
+     */
+    protected double localEstimate(int id, int[] cellStart, int[] neighbours) {
+        double estimate = Double.NaN;
+        for (int n = cellStart[id]; n < cellStart[id + 1]; n++) {
+            int number = neighbours[n];
+            if (value[number] < 0) continue;
+
+            int numClosed = 0;
+            int missing = value[number];
+            for (int k = cellStart[number]; k < cellStart[number + 1]; k++) {
+                if (value[neighbours[k]] == -1) numClosed++;
+                else if (value[neighbours[k]] == -2) missing--;
+            }
+            double local = Math.min(1, Math.max(0, (double) missing / numClosed));
+            if (Double.isNaN(estimate) || local > estimate) estimate = local;
+        }
+        return estimate;
+    }
+
+    /**
+     * Scores a closed cell, interior is the mine probability of closed cells without any estimate
+     */
+    protected double scoreOf(int id, double interior, int[] cellStart, int[] neighbours) {
+        double mine = Double.isNaN(probability[id]) ? interior : probability[id];
+
+        // distribution of the number shown, adding the closed neighbours one at a time
+        Arrays.fill(distribution, 0);
+        distribution[0] = 1;
+        int knownMines = 0;
+        int maxCount = 0;
+        for (int n = cellStart[id]; n < cellStart[id + 1]; n++) {
+            int neighbour = neighbours[n];
+            if (value[neighbour] == -2) {
+                knownMines++;
+            } else if (value[neighbour] == -1) {
+                double p = Double.isNaN(probability[neighbour]) ? interior : probability[neighbour];
+                maxCount++;
+                for (int c = maxCount; c > 0; c--)
+                    distribution[c] = distribution[c] * (1 - p) + distribution[c - 1] * p;
+                distribution[0] *= 1 - p;
+            }
+        }
+
+        double entropy = 0;
+        for (int c = 0; c <= maxCount; c++)
+            if (distribution[c] > 0) entropy -= distribution[c] * Math.log(distribution[c]);
+        entropy /= Math.log(2);
+        double zero = knownMines == 0 ? distribution[0] : 0;
+
+        return (1 - mine) * (1 + informationWeight * entropy + zeroWeight * zero);
+    }
+
+    /**
+     * @return The highest estimate added for id since clearEstimates, NaN if there is none
+     */
+    public double getEstimate(int id) {
+        return probability[id];
+    }
+
+    /**
+     * @return The number of candidates scored by the last select, less than the closed cells if it ran out of budget
+     */
+    public int getNumScored() {
+        return numScored;
+    }
+}
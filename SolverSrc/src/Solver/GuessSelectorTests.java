@@ -0,0 +1,96 @@
+package Solver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.Assert.*;
+
+public class GuessSelectorTests {
+    GuessSelector selector;
+
+    @Test
+    public void prefersSafestCell() {
+        selector = new GuessSelector(2, 2, 1, 0);
+        selector.setWeights(0, 0);
+        selector.addEstimate(0, 0.4);
+        selector.addEstimate(1, 0.3);
+        selector.addEstimate(2, 1, 5);
+        selector.addEstimate(3, 0.1);
+        assertEquals(selector.select(), 3);
+
+        // a cell estimated by several searches keeps the highest estimate
+        selector.addEstimate(3, 0.5);
+        assertEquals(selector.select(), 2);
+        assertEquals(selector.getEstimate(3), 0.5, 0);
+
+        selector.clearEstimates();
+        assertTrue(Double.isNaN(selector.getEstimate(3)));
+    }
+
+    @Test
+    public void prefersZero() {
+        // flag, closed, 1, closed, 0: the cell next to the flag can not be a zero
+        selector = new GuessSelector(5, 1, 1, 0);
+        int[] values = {-2, -1, 1, -1, 0};
+        for (int id = 0; id < values.length; id++)
+            selector.setValue(id, values[id]);
+        selector.addEstimate(1, 0.3);
+        selector.addEstimate(3, 0.3);
+
+        selector.setWeights(0, 0);
+        assertEquals(selector.select(), 1);
+        selector.setWeights(0, 1);
+        assertEquals(selector.select(), 3);
+    }
+
+    @Test
+    public void estimatesCellsWithoutSearch() {
+        // the 1 at (0, 0) has three closed neighbours, the other cells share the mine left
+        selector = new GuessSelector(5, 2, 2, 0);
+        selector.setWeights(0, 0);
+        selector.setValue(0, 0, 1);
+        int guess = selector.select();
+        assertTrue(guess >= 4);
+    }
+
+    @Test
+    public void stopsAtTimeBudget() {
+        selector = new GuessSelector(30, 16, 99, 1);
+        int guess = selector.select();
+        assertTrue(guess >= 0 && guess < 480);
+        assertTrue(selector.getNumScored() > 0);
+        assertTrue(selector.getNumScored() < 480);
+
+        selector = new GuessSelector(30, 16, 99, 0);
+        selector.select();
+        assertEquals(selector.getNumScored(), 480);
+    }
+
+    @Test
+    public void stopsAtCandidateBudget() {
+        // the same candidates are scored however long they take, so the guess is the same every time
+        selector = new GuessSelector(30, 16, 99, 0, 100);
+        selector.addEstimate(300, 0.9);
+        selector.addEstimate(301, 0.05);
+        int guess = selector.select();
+        assertEquals(selector.getNumScored(), 100);
+        for (int i = 0; i < 10; i++) {
+            selector.clearEstimates();
+            selector.addEstimate(300, 0.9);
+            selector.addEstimate(301, 0.05);
+            assertEquals(selector.select(), guess);
+            assertEquals(selector.getNumScored(), 100);
+        }
+
+        selector = new GuessSelector(2, 2, 1, 0, 100);
+        selector.select();
+        assertEquals(selector.getNumScored(), 4);
+    }
+
+    @Test
+    public void noClosedCell() {
+        selector = new GuessSelector(2, 1, 0, 0);
+        selector.setValue(0, 0);
+        selector.setValue(1, 0);
+        assertEquals(selector.select(), -1);
+    }
+}
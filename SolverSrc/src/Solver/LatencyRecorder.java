@@ -0,0 +1,76 @@
+package Solver;
+
+import java.util.Arrays;
+
+/**
+ * Records latency samples in nanoseconds and answers percentile queries over them
+ *
+ * Not thread safe, each thread should record into its own instance and merge them afterwards
+ */
+public class LatencyRecorder {
+    protected long[] samples;
+    protected int size;
+    protected boolean sorted;
+
+    public LatencyRecorder() {
+        samples = new long[1024];
+        size = 0;
+        sorted = true;
+    }
+
+    /**
+     * Adds a sample
+     *
+     * @param nanos The latency of the sample in nanoseconds
+     */
+    public void record(long nanos) {
+        if (size == samples.length)
+            samples = Arrays.copyOf(samples, size * 2);
+        samples[size++] = nanos;
+        sorted = false;
+    }
+
+    /**
+     * Adds all samples of other to this recorder
+     *
+     * @param other The recorder to be merged into this one
+     */
+    public void merge(LatencyRecorder other) {
+        if (size + other.size > samples.length)
+            samples = Arrays.copyOf(samples, Math.max(samples.length * 2, size + other.size));
+        System.arraycopy(other.samples, 0, samples, size, other.size);
+        size += other.size;
+        sorted = false;
+    }
+
+    /**
+     * Drops every sample
+     */
+    public void clear() {
+        size = 0;
+        sorted = true;
+    }
+
+    /**
+     * @return The number of recorded samples
+     */
+    public int count() {
+        return size;
+    }
+
+    /**
+     * Gives the latency below which the given fraction of samples fall
+     *
+     * @param fraction The percentile as a fraction, must be in [0, 1]
+     * @return The latency in nanoseconds, 0 if there are no samples
+     */
+    public long percentile(double fraction) {
+        if (size == 0) return 0;
+        if (!sorted) {
+            Arrays.sort(samples, 0, size);
+            sorted = true;
+        }
+        int index = (int) Math.ceil(fraction * size) - 1;
+        return samples[Math.max(0, Math.min(size - 1, index))];
+    }
+}
@@ -0,0 +1,56 @@
+package Solver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyRecorderTests {
+
+    @Test
+    public void percentile() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        assertEquals(recorder.percentile(0.5), 0);
+
+        for (int i = 100; i >= 1; i--)
+            recorder.record(i);
+        assertEquals(recorder.count(), 100);
+        assertEquals(recorder.percentile(0), 1);
+        assertEquals(recorder.percentile(0.5), 50);
+        assertEquals(recorder.percentile(0.99), 99);
+        assertEquals(recorder.percentile(1), 100);
+
+        // samples recorded after a query are sorted in on the next one
+        recorder.record(0);
+        assertEquals(recorder.percentile(0), 0);
+    }
+
+    @Test
+    public void grows() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < 5000; i++)
+            recorder.record(i);
+        assertEquals(recorder.count(), 5000);
+        assertEquals(recorder.percentile(1), 4999);
+    }
+
+    @Test
+    public void merge() {
+        LatencyRecorder first = new LatencyRecorder();
+        LatencyRecorder second = new LatencyRecorder();
+        for (int i = 1; i <= 1000; i++)
+            first.record(2 * i);
+        for (int i = 1; i <= 1000; i++)
+            second.record(2 * i - 1);
+
+        first.merge(second);
+        assertEquals(first.count(), 2000);
+        assertEquals(second.count(), 1000);
+        assertEquals(first.percentile(0.5), 1000);
+        assertEquals(first.percentile(1), 2000);
+        assertEquals(second.percentile(1), 1999);
+
+        first.clear();
+        assertEquals(first.count(), 0);
+        assertEquals(first.percentile(0.5), 0);
+    }
+}
@@ -0,0 +1,356 @@
+package Solver.LinearAlgebraSolver;
+
+import Solver.LocalBruteForceSolver.LocalBruteForceSolver;
+import Solver.NeighbourTable;
+
+import java.util.Arrays;
+
+/**
+ * Linear algebra solver for minesweeper
+ *
+ * Every number of the frontier is an equation: the sum of its closed neighbours is its number minus its known bombs.
+ * The equations are row reduced and every reduced row is checked against the 0/1 bounds of its cells, a row whose
+ * right side is the largest (or smallest) sum it can reach fixes all of its cells. Cells found this way are fixed in
+ * every row and the reduction is repeated until nothing new is found. This takes polynomial time, only when it finds
+ * no safe cell the local brute force search of the parent class is run.
+ *
+ * Rows only hold coefficients -1, 0 and 1, as two bitsets over the frontier cells. Combining two rows that would give
+ * a coefficient of 2 is skipped, every row kept is still a valid equation, so the deductions stay sound and the brute
+ * force search covers what is lost.
+ *
+ * The matrix is sparse over the board: columns are the closed cells of the frontier only, numbered as they are met, and
+ * there is one row per number of the frontier. Rows and their bitsets are grown when a frontier needs more than any
+ * before it, so their size follows the largest frontier seen and never the whole board.
+ */
+public class LinearAlgebraSolver extends LocalBruteForceSolver {
+    protected NeighbourTable neighbourTable;
+
+    protected int numVariables;
+    protected int numRows;
+    protected int numWords;
+    /**
+     * Cell id of each variable, and variable of each cell id or -1
+     */
+    protected int[] variableCell;
+    protected int[] variableIndex;
+    /**
+     * Value found for each variable, -1 if not decided, 0 if safe and 1 if a bomb
+     */
+    protected int[] variableValue;
+    /**
+     * Coefficients 1 and -1 of each row over the variables, a row holds at least numWords words once built
+     */
+    protected long[][] positive;
+    protected long[][] negative;
+    protected int[] rightSide;
+
+    protected long eliminationCells;
+    protected long searchSteps;
+
+    /**
+     * @param searchWidth The search width of the brute force search used when elimination finds no safe cell
+     * @param longSideLength The size of the long side of the board, must be non-zero positive number
+     * @param shortSideLength The size of the short side of the board, must be non-zero positive number
+     */
+    public LinearAlgebraSolver(int searchWidth, int longSideLength, int shortSideLength) {
+        super(searchWidth, longSideLength, shortSideLength);
+        this.neighbourTable = NeighbourTable.of(longSideLength, shortSideLength);
+
+        this.variableIndex = new int[longSideLength * shortSideLength];
+        this.variableCell = new int[0];
+        this.variableValue = new int[0];
+        this.rightSide = new int[0];
+        this.positive = new long[0][];
+        this.negative = new long[0][];
+        Arrays.fill(variableIndex, -1);
+    }
+
+    /**
+     * Opens the pending certain cells first, then the safe cells found by elimination, and falls back to the brute
+     * force search of the parent class if there are none
+     *
+     * @return The id of the next cell to open
+     */
+    @Override
+    protected int search() {
+        if (!certainNumberCells.isEmpty())
+            return certainNumberCells.poll();
+
+        eliminate();
+        if (!certainNumberCells.isEmpty())
+            return certainNumberCells.poll();
+
+        searchSteps++;
+        return super.search();
+    }
+
+    /**
+     * Finds the cells decided by elimination, and runs the brute force search of the parent class over the whole
+     * frontier if there are none
+     */
+    @Override
+    protected void deduceAll() {
+        eliminate();
+        if (!certainNumberCells.isEmpty())
+            return;
+
+        searchSteps++;
+        super.deduceAll();
+    }
+
+    /**
+     * Builds the equations of the frontier and reduces them until no new cell is decided
+     * Adds the safe cells found to certainNumberCells and the bombs to toFlag, bombs are also marked as known in the
+     * graph right away so the brute force search can use them
+     */
+    protected void eliminate() {
+        buildRows();
+
+        int found;
+        do {
+            reduceRows();
+            found = applyBounds();
+        } while (found > 0 && numRows > 0);
+
+        for (int v = 0; v < numVariables; v++) {
+            int cell = variableCell[v];
+            if (variableValue[v] == 0) {
+                addCertainNumberCell(cell);
+                eliminationCells++;
+            } else if (variableValue[v] == 1) {
+                addToFlag(cell);
+                graph.setKnown(cell, true);
+                graph.setBomb(cell, true);
+                eliminationCells++;
+            }
+            variableIndex[cell] = -1;
+        }
+    }
+
+    /**
+     * Makes one row per number of the frontier over its closed neighbours, the variables are numbered in the order
+     * they are met
+     */
+    protected void buildRows() {
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+
+        numVariables = 0;
+        for (int i = 0; i < frontier.size(); i++) {
+            int cell = frontier.get(i);
+            for (int k = start[cell]; k < start[cell + 1]; k++) {
+                int neighbour = neighbours[k];
+                if (!graph.getKnown(neighbour) && variableIndex[neighbour] == -1) {
+                    if (numVariables == variableCell.length) {
+                        variableCell = Arrays.copyOf(variableCell, Math.max(64, numVariables * 2));
+                        variableValue = Arrays.copyOf(variableValue, variableCell.length);
+                    }
+                    variableIndex[neighbour] = numVariables;
+                    variableCell[numVariables] = neighbour;
+                    variableValue[numVariables] = -1;
+                    numVariables++;
+                }
+            }
+        }
+
+        numWords = (numVariables + 63) >>> 6;
+        if (positive.length < frontier.size()) {
+            int length = Math.max(frontier.size(), positive.length * 2);
+            positive = Arrays.copyOf(positive, length);
+            negative = Arrays.copyOf(negative, length);
+            rightSide = Arrays.copyOf(rightSide, length);
+        }
+
+        numRows = 0;
+        for (int i = 0; i < frontier.size(); i++) {
+            int cell = frontier.get(i);
+            if (graph.getBomb(cell) || graph.getValue(cell) < 0) continue;
+
+            if (positive[numRows] == null || positive[numRows].length < numWords) {
+                int length = positive[numRows] == null ? numWords : Math.max(numWords, positive[numRows].length * 2);
+                positive[numRows] = new long[length];
+                negative[numRows] = new long[length];
+            }
+            long[] row = positive[numRows];
+            Arrays.fill(row, 0, numWords, 0);
+            Arrays.fill(negative[numRows], 0, numWords, 0);
+            int knownBombs = 0;
+            boolean hasVariable = false;
+            for (int k = start[cell]; k < start[cell + 1]; k++) {
+                int neighbour = neighbours[k];
+                if (!graph.getKnown(neighbour)) {
+                    int v = variableIndex[neighbour];
+                    row[v >>> 6] |= 1L << v;
+                    hasVariable = true;
+                } else if (graph.getBomb(neighbour)) knownBombs++;
+            }
+            if (!hasVariable) continue;
+
+            rightSide[numRows] = graph.getValue(cell) - knownBombs;
+            numRows++;
+        }
+    }
+
+    /**
+     * Gauss-Jordan elimination over the rows, each column is pivoted on the first row left that has it
+     */
+    protected void reduceRows() {
+        int pivotRow = 0;
+        for (int v = 0; v < numVariables && pivotRow < numRows; v++) {
+            int word = v >>> 6;
+            long bit = 1L << v;
+
+            int row = pivotRow;
+            while (row < numRows && ((positive[row][word] | negative[row][word]) & bit) == 0) row++;
+            if (row == numRows) continue;
+
+            swapRows(row, pivotRow);
+            if ((negative[pivotRow][word] & bit) != 0) negateRow(pivotRow);
+
+            for (int other = 0; other < numRows; other++) {
+                if (other == pivotRow) continue;
+                if ((positive[other][word] & bit) != 0) subtractRow(other, pivotRow, false);
+                else if ((negative[other][word] & bit) != 0) subtractRow(other, pivotRow, true);
+            }
+            pivotRow++;
+        }
+    }
+
+    /**
+     * Replaces row target with target - source, or target + source if add, unless a coefficient would leave -1..1
+     */
+    protected void subtractRow(int target, int source, boolean add) {
+        long[] sourcePositive = add ? negative[source] : positive[source];
+        long[] sourceNegative = add ? positive[source] : negative[source];
+        long[] targetPositive = positive[target];
+        long[] targetNegative = negative[target];
+
+        for (int w = 0; w < numWords; w++)
+            if ((targetPositive[w] & sourceNegative[w]) != 0 || (targetNegative[w] & sourcePositive[w]) != 0)
+                return;
+
+        for (int w = 0; w < numWords; w++) {
+            long newPositive = (targetPositive[w] & ~sourcePositive[w]) | (sourceNegative[w] & ~targetNegative[w]);
+            long newNegative = (targetNegative[w] & ~sourceNegative[w]) | (sourcePositive[w] & ~targetPositive[w]);
+            targetPositive[w] = newPositive;
+            targetNegative[w] = newNegative;
+        }
+        rightSide[target] += add ? rightSide[source] : -rightSide[source];
+    }
+
+    /**
+     * Checks every row against the bounds of its cells, a row equal to the sum of its positive cells makes them all
+     * bombs and its negative cells all safe, a row equal to minus the number of its negative cells does the opposite
+     * The decided cells are removed from every row and empty rows are dropped
+     *
+     * @return The number of cells decided
+     */
+    protected int applyBounds() {
+        int found = 0;
+        for (int row = 0; row < numRows; row++) {
+            int numPositive = bitCount(positive[row]);
+            int numNegative = bitCount(negative[row]);
+            if (numPositive + numNegative == 0) continue;
+
+            if (rightSide[row] == numPositive) {
+                found += decide(positive[row], 1);
+                found += decide(negative[row], 0);
+            } else if (rightSide[row] == -numNegative) {
+                found += decide(positive[row], 0);
+                found += decide(negative[row], 1);
+            }
+        }
+
+        if (found > 0) {
+            for (int row = 0; row < numRows; row++)
+                substitute(row);
+            int kept = 0;
+            for (int row = 0; row < numRows; row++)
+                if (bitCount(positive[row]) + bitCount(negative[row]) > 0) {
+                    swapRows(row, kept);
+                    kept++;
+                }
+            numRows = kept;
+        }
+        return found;
+    }
+
+    /**
+     * Sets every variable of bits that is not decided yet to value
+     *
+     * @return The number of variables set
+     */
+    protected int decide(long[] bits, int value) {
+        int found = 0;
+        for (int w = 0; w < numWords; w++)
+            for (long word = bits[w]; word != 0; word &= word - 1) {
+                int v = (w << 6) + Long.numberOfTrailingZeros(word);
+                if (variableValue[v] == -1) {
+                    variableValue[v] = value;
+                    found++;
+                }
+            }
+        return found;
+    }
+
+    /**
+     * Removes the decided variables from row, moving their values to the right side
+     */
+    protected void substitute(int row) {
+        for (int w = 0; w < numWords; w++) {
+            for (long word = positive[row][w]; word != 0; word &= word - 1) {
+                int v = (w << 6) + Long.numberOfTrailingZeros(word);
+                if (variableValue[v] == -1) continue;
+                rightSide[row] -= variableValue[v];
+                positive[row][w] &= ~(1L << v);
+            }
+            for (long word = negative[row][w]; word != 0; word &= word - 1) {
+                int v = (w << 6) + Long.numberOfTrailingZeros(word);
+                if (variableValue[v] == -1) continue;
+                rightSide[row] += variableValue[v];
+                negative[row][w] &= ~(1L << v);
+            }
+        }
+    }
+
+    protected void negateRow(int row) {
+        long[] aux = positive[row];
+        positive[row] = negative[row];
+        negative[row] = aux;
+        rightSide[row] = -rightSide[row];
+    }
+
+    protected void swapRows(int a, int b) {
+        if (a == b) return;
+        long[] aux = positive[a];
+        positive[a] = positive[b];
+        positive[b] = aux;
+        aux = negative[a];
+        negative[a] = negative[b];
+        negative[b] = aux;
+        int right = rightSide[a];
+        rightSide[a] = rightSide[b];
+        rightSide[b] = right;
+    }
+
+    protected int bitCount(long[] bits) {
+        int count = 0;
+        for (int w = 0; w < numWords; w++)
+            count += Long.bitCount(bits[w]);
+        return count;
+    }
+
+    /**
+     * @return The number of cells decided by elimination so far
+     */
+    public long getEliminationCells() {
+        return eliminationCells;
+    }
+
+    /**
+     * @return The number of steps where elimination found no safe cell and the brute force search was run
+     */
+    public long getSearchSteps() {
+        return searchSteps;
+    }
+}
@@ -0,0 +1,93 @@
+package Solver.LinearAlgebraSolver;
+
+import Solver.Coordinates;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class LinearAlgebraSolverTests {
+    LinearAlgebraSolver solver;
+
+    @Test
+    public void eliminate() {
+        solver = new LinearAlgebraSolver(0, 4, 3);
+        int[][] board = {{-1, 1, 0}, {-1, 1, 0}, {-1, 2, 0}, {-1, 1, 0}};
+        solver.updateBoard(board);
+
+        ArrayList<Coordinates> toOpen = new ArrayList<>();
+        toOpen.add(solver.step());
+        toOpen.addAll(solver.getNextSteps());
+        assertEquals(toOpen.size(), 2);
+        assertTrue(toOpen.contains(new Coordinates(0, 0)));
+        assertTrue(toOpen.contains(new Coordinates(2, 0)));
+
+        ArrayList<Coordinates> flags = solver.getFlags();
+        assertEquals(flags.size(), 2);
+        assertTrue(flags.contains(new Coordinates(1, 0)));
+        assertTrue(flags.contains(new Coordinates(3, 0)));
+
+        assertEquals(solver.getEliminationCells(), 4);
+        assertEquals(solver.getSearchSteps(), 0);
+    }
+
+    @Test
+    public void eliminateWithKnownBombs() {
+        solver = new LinearAlgebraSolver(0, 4, 3);
+        int[][] board = {{-1, 1, 0}, {-1, 1, 0}, {-1, 2, 0}, {-1, 1, 0}};
+        solver.updateBoard(board);
+        solver.step();
+        solver.getNextSteps();
+        solver.getFlags();
+
+        int[][] nextBoard = {{1, 1, 0}, {-2, 1, 0}, {2, 2, 0}, {-2, 1, 0}};
+        solver.updateBoard(nextBoard);
+        solver.step();
+        assertEquals(solver.getSearchSteps(), 1);
+        assertTrue(solver.getFlags().isEmpty());
+    }
+
+    @Test
+    public void eliminateRowCombination() {
+        solver = new LinearAlgebraSolver(0, 3, 3);
+        int[][] board = {{-1, -1, -1}, {1, 1, -1}, {0, 0, 0}};
+        solver.updateBoard(board);
+
+        ArrayList<Coordinates> toOpen = new ArrayList<>();
+        toOpen.add(solver.step());
+        toOpen.addAll(solver.getNextSteps());
+        assertTrue(toOpen.contains(new Coordinates(0, 2)));
+        assertEquals(solver.getSearchSteps(), 0);
+    }
+
+    @Test
+    public void matrixFollowsFrontier() {
+        solver = new LinearAlgebraSolver(0, 200, 200);
+        int[][] board = new int[200][200];
+        for (int[] column: board)
+            Arrays.fill(column, -1);
+        board[0][0] = 1;
+        board[0][1] = 1;
+        board[1][0] = 1;
+        board[1][1] = 1;
+        solver.updateBoard(board);
+        solver.step();
+
+        assertTrue(solver.positive.length < 64);
+        for (long[] row: solver.positive)
+            assertTrue(row == null || row.length == 1);
+        assertTrue(solver.variableCell.length < 200 * 200);
+    }
+
+    @Test
+    public void fallBackToSearch() {
+        solver = new LinearAlgebraSolver(1, 3, 3);
+        Coordinates firstStep = solver.step();
+
+        assertEquals(firstStep, new Coordinates(0, 0));
+        assertEquals(solver.getSearchSteps(), 1);
+        assertEquals(solver.getEliminationCells(), 0);
+    }
+}
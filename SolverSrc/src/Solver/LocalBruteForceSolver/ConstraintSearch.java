@@ -0,0 +1,409 @@
+package Solver.LocalBruteForceSolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Backtracking search over the bomb assignments of a set of closed cells (variables) constrained by number cells
+ *
+ * Every constraint keeps how many bombs it still needs and how many of its variables are still unassigned, both updated
+ * incrementally, so a branch is cut as soon as a constraint has too many bombs or can no longer reach its count.
+ * The next variable to assign is taken from the open constraint with the fewest unassigned variables.
+ * The search owns all of its state, nothing is written to the graph nodes.
+ *
+ * searchParallel splits the search tree at its top levels into tasks on a ForkJoinPool, each task works on its own
+ * copy of the assignment state and the counts of the tasks are added up, so the results are the same as search().
+ */
+public class ConstraintSearch {
+    protected final int numVariables;
+    protected final int numConstraints;
+    protected final int[][] constraintVariables;
+    protected final int[][] variableConstraints;
+    protected final int[] constraintMines;
+    protected final boolean[] exact;
+
+    protected final int[] remainingMines;
+    protected final int[] remainingUnknowns;
+    protected final byte[] assignment;
+    protected int numAssigned;
+    protected int numBombs;
+
+    protected boolean countByMines;
+    protected boolean stopWhenUndecided;
+    protected boolean stopped;
+    protected long solutions;
+    protected long[] bombFrequency;
+    protected long[] solutionsByMines;
+    protected long[][] bombFrequencyByMines;
+    protected long nodesVisited;
+    protected long prunedBranches;
+
+    /**
+     * Creates a search where every constraint must be met exactly
+     *
+     * @param numVariables The number of closed cells being assigned
+     * @param constraintVariables For each constraint, the indices of its variables
+     * @param constraintMines For each constraint, the number of bombs it needs among its variables
+     */
+    public ConstraintSearch(int numVariables, int[][] constraintVariables, int[] constraintMines) {
+        this(numVariables, constraintVariables, constraintMines, allExact(constraintVariables.length));
+    }
+
+    /**
+     * @param numVariables The number of closed cells being assigned
+     * @param constraintVariables For each constraint, the indices of its variables
+     * @param constraintMines For each constraint, the number of bombs it needs among its variables
+     * @param exact For each constraint, true if it needs exactly constraintMines bombs, false if it only needs at most
+     *              that many, used for numbers that also have closed neighbours outside the search
+     */
+    public ConstraintSearch(int numVariables, int[][] constraintVariables, int[] constraintMines, boolean[] exact) {
+        if (constraintVariables.length != constraintMines.length || constraintMines.length != exact.length)
+            throw new RuntimeException("Every constraint must have variables, a number of mines and a kind");
+
+        this.numVariables = numVariables;
+        this.numConstraints = constraintVariables.length;
+        this.constraintVariables = constraintVariables;
+        this.constraintMines = constraintMines;
+        this.exact = exact;
+        this.variableConstraints = invert(numVariables, constraintVariables);
+
+        this.remainingMines = new int[numConstraints];
+        this.remainingUnknowns = new int[numConstraints];
+        this.assignment = new byte[numVariables];
+        this.bombFrequency = new long[numVariables];
+    }
+
+    /**
+     * Makes the next searches also count solutions and bomb frequencies separately for each total number of bombs,
+     * needed to weight solutions by the number of mines left on the board
+     */
+    public void setCountByMines(boolean countByMines) {
+        this.countByMines = countByMines;
+    }
+
+    /**
+     * Makes the next calls to search() stop as soon as every variable was a bomb in some solution and safe in another,
+     * for callers that only need the variables decided by every solution: those are the same as with a full search,
+     * while the counts are partial when the search stopped, see isStopped
+     */
+    public void setStopWhenUndecided(boolean stopWhenUndecided) {
+        this.stopWhenUndecided = stopWhenUndecided;
+    }
+
+    /**
+     * @return True if the last search stopped early because no variable could be decided
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Enumerates every valid assignment
+     *
+     * @return The number of valid assignments
+     */
+    public long search() {
+        resetState();
+        for (int c = 0; c < numConstraints; c++)
+            if (isViolated(c)) return 0;
+
+        return solve();
+    }
+
+    /**
+     * Enumerates every valid assignment in parallel, the results are the same as the ones of search()
+     *
+     * @param pool The pool running the tasks
+     * @param splitDepth The number of variables assigned before handing the subtrees to tasks, up to 2^splitDepth
+     *                   tasks are made
+     * @return The number of valid assignments
+     */
+    public long searchParallel(ForkJoinPool pool, int splitDepth) {
+        if (splitDepth < 0)
+            throw new RuntimeException("Split depth must not be negative");
+
+        resetState();
+        for (int c = 0; c < numConstraints; c++)
+            if (isViolated(c)) return 0;
+
+        pool.invoke(new SplitTask(this, splitDepth));
+        return solutions;
+    }
+
+    /**
+     * Copies the assignment state of other, the results start empty
+     */
+    protected ConstraintSearch(ConstraintSearch other) {
+        this.numVariables = other.numVariables;
+        this.numConstraints = other.numConstraints;
+        this.constraintVariables = other.constraintVariables;
+        this.variableConstraints = other.variableConstraints;
+        this.constraintMines = other.constraintMines;
+        this.exact = other.exact;
+
+        this.remainingMines = other.remainingMines.clone();
+        this.remainingUnknowns = other.remainingUnknowns.clone();
+        this.assignment = other.assignment.clone();
+        this.numAssigned = other.numAssigned;
+        this.numBombs = other.numBombs;
+
+        this.countByMines = other.countByMines;
+        this.bombFrequency = new long[numVariables];
+        if (countByMines) {
+            solutionsByMines = new long[numVariables + 1];
+            bombFrequencyByMines = new long[numVariables][numVariables + 1];
+        }
+    }
+
+    /**
+     * Adds the results of other, a search over the same constraints, to the results of this search
+     */
+    protected void mergeResults(ConstraintSearch other) {
+        solutions += other.solutions;
+        nodesVisited += other.nodesVisited;
+        prunedBranches += other.prunedBranches;
+        for (int v = 0; v < numVariables; v++)
+            bombFrequency[v] += other.bombFrequency[v];
+        if (countByMines)
+            for (int mines = 0; mines <= numVariables; mines++) {
+                solutionsByMines[mines] += other.solutionsByMines[mines];
+                for (int v = 0; v < numVariables; v++)
+                    bombFrequencyByMines[v][mines] += other.bombFrequencyByMines[v][mines];
+            }
+    }
+
+    /**
+     * Sets every variable as unassigned and clears the results of previous searches
+     */
+    protected void resetState() {
+        for (int c = 0; c < numConstraints; c++) {
+            remainingMines[c] = constraintMines[c];
+            remainingUnknowns[c] = constraintVariables[c].length;
+        }
+        for (int v = 0; v < numVariables; v++) {
+            assignment[v] = -1;
+            bombFrequency[v] = 0;
+        }
+        numAssigned = 0;
+        numBombs = 0;
+        stopped = false;
+        solutions = 0;
+        nodesVisited = 0;
+        prunedBranches = 0;
+        if (countByMines) {
+            solutionsByMines = new long[numVariables + 1];
+            bombFrequencyByMines = new long[numVariables][numVariables + 1];
+        }
+    }
+
+    /**
+     * Recursive search from the current partial assignment
+     *
+     * @return The number of valid completions of the current assignment
+     */
+    protected long solve() {
+        nodesVisited++;
+        if (numAssigned == numVariables) {
+            recordSolution();
+            return 1;
+        }
+
+        int variable = pickVariable();
+        long count = 0;
+        for (int value = 1; value >= 0 && !stopped; value--) {
+            if (assign(variable, value)) count += solve();
+            else prunedBranches++;
+            unassign(variable, value);
+        }
+        return count;
+    }
+
+    /**
+     * Picks an unassigned variable from the open constraint with the fewest unassigned variables, falls back to the
+     * first unassigned variable if no constraint has unassigned variables
+     *
+     * @return The index of the variable to assign next
+     */
+    protected int pickVariable() {
+        int bestConstraint = -1;
+        for (int c = 0; c < numConstraints; c++)
+            if (remainingUnknowns[c] > 0 &&
+                    (bestConstraint == -1 || remainingUnknowns[c] < remainingUnknowns[bestConstraint]))
+                bestConstraint = c;
+
+        if (bestConstraint != -1)
+            for (int variable: constraintVariables[bestConstraint])
+                if (assignment[variable] == -1) return variable;
+
+        for (int variable = 0; variable < numVariables; variable++)
+            if (assignment[variable] == -1) return variable;
+        throw new RuntimeException("No variable left to assign");
+    }
+
+    /**
+     * Assigns value to variable and updates the counters of its constraints
+     *
+     * @return False if some constraint of variable can no longer be met
+     */
+    protected boolean assign(int variable, int value) {
+        boolean valid = true;
+        assignment[variable] = (byte) value;
+        numAssigned++;
+        numBombs += value;
+        for (int c: variableConstraints[variable]) {
+            remainingUnknowns[c]--;
+            remainingMines[c] -= value;
+            if (isViolated(c)) valid = false;
+        }
+        return valid;
+    }
+
+    /**
+     * Reverts assign(variable, value)
+     */
+    protected void unassign(int variable, int value) {
+        assignment[variable] = -1;
+        numAssigned--;
+        numBombs -= value;
+        for (int c: variableConstraints[variable]) {
+            remainingUnknowns[c]++;
+            remainingMines[c] += value;
+        }
+    }
+
+    /**
+     * @return True if constraint c has more bombs than allowed, or too few unassigned variables to reach its count
+     */
+    protected boolean isViolated(int c) {
+        return remainingMines[c] < 0 || (exact[c] && remainingMines[c] > remainingUnknowns[c]);
+    }
+
+    /**
+     * Adds the current complete assignment to the results
+     */
+    protected void recordSolution() {
+        solutions++;
+        if (countByMines) solutionsByMines[numBombs]++;
+        int numDecided = 0;
+        for (int v = 0; v < numVariables; v++) {
+            if (assignment[v] == 1) {
+                bombFrequency[v]++;
+                if (countByMines) bombFrequencyByMines[v][numBombs]++;
+            }
+            if (bombFrequency[v] == 0 || bombFrequency[v] == solutions) numDecided++;
+        }
+        if (stopWhenUndecided && numDecided == 0) stopped = true;
+    }
+
+    public int getNumVariables() {
+        return numVariables;
+    }
+
+    /**
+     * @return The number of valid assignments found by the last search
+     */
+    public long getSolutions() {
+        return solutions;
+    }
+
+    /**
+     * @return The number of valid assignments of the last search in which variable was a bomb
+     */
+    public long getBombFrequency(int variable) {
+        return bombFrequency[variable];
+    }
+
+    /**
+     * @return The number of valid assignments of the last search with exactly mines bombs, needs setCountByMines
+     */
+    public long getSolutionsByMines(int mines) {
+        return solutionsByMines[mines];
+    }
+
+    /**
+     * @return The number of valid assignments of the last search with exactly mines bombs in which variable was a
+     *         bomb, needs setCountByMines
+     */
+    public long getBombFrequencyByMines(int variable, int mines) {
+        return bombFrequencyByMines[variable][mines];
+    }
+
+    /**
+     * @return The number of nodes of the search tree visited by the last search
+     */
+    public long getNodesVisited() {
+        return nodesVisited;
+    }
+
+    /**
+     * @return The number of branches cut by the last search because a constraint could no longer be met
+     */
+    public long getPrunedBranches() {
+        return prunedBranches;
+    }
+
+    private static boolean[] allExact(int numConstraints) {
+        boolean[] exact = new boolean[numConstraints];
+        for (int c = 0; c < numConstraints; c++)
+            exact[c] = true;
+        return exact;
+    }
+
+    /**
+     * Builds, for each variable, the list of constraints it belongs to
+     */
+    private static int[][] invert(int numVariables, int[][] constraintVariables) {
+        int[] counts = new int[numVariables];
+        for (int[] variables: constraintVariables)
+            for (int variable: variables)
+                counts[variable]++;
+
+        int[][] variableConstraints = new int[numVariables][];
+        for (int v = 0; v < numVariables; v++)
+            variableConstraints[v] = new int[counts[v]];
+        Arrays.fill(counts, 0);
+        for (int c = 0; c < constraintVariables.length; c++)
+            for (int variable: constraintVariables[c])
+                variableConstraints[variable][counts[variable]++] = c;
+        return variableConstraints;
+    }
+
+    /**
+     * Assigns the next variable both ways on copies of the state of search and runs the subtrees as new tasks, or
+     * runs the rest of the search sequentially once splitDepth variables were assigned
+     */
+    private static class SplitTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ConstraintSearch search;
+        private final int splitDepth;
+
+        SplitTask(ConstraintSearch search, int splitDepth) {
+            this.search = search;
+            this.splitDepth = splitDepth;
+        }
+
+        @Override
+        protected void compute() {
+            if (splitDepth == 0 || search.numAssigned == search.numVariables) {
+                search.solve();
+                return;
+            }
+
+            search.nodesVisited++;
+            int variable = search.pickVariable();
+            ArrayList<SplitTask> tasks = new ArrayList<>();
+            for (int value = 1; value >= 0; value--) {
+                ConstraintSearch branch = new ConstraintSearch(search);
+                if (branch.assign(variable, value)) tasks.add(new SplitTask(branch, splitDepth - 1));
+                else search.prunedBranches++;
+            }
+
+            invokeAll(tasks);
+            for (SplitTask task: tasks)
+                search.mergeResults(task.search);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package Solver.LocalBruteForceSolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConstraintSearchTests {
+    ConstraintSearch search;
+
+    @Test
+    public void singleConstraint() {
+        search = new ConstraintSearch(3, new int[][]{{0, 1, 2}}, new int[]{1});
+
+        assertEquals(3, search.search());
+        for (int v = 0; v < 3; v++)
+            assertEquals(1, search.getBombFrequency(v));
+    }
+
+    @Test
+    public void chainedConstraints() {
+        // 1 over {0, 1}, 1 over {1, 2}, 2 over {0, 1, 2}: only 0 and 2 can be bombs
+        search = new ConstraintSearch(3, new int[][]{{0, 1}, {1, 2}, {0, 1, 2}}, new int[]{1, 1, 2});
+
+        assertEquals(1, search.search());
+        assertEquals(1, search.getBombFrequency(0));
+        assertEquals(0, search.getBombFrequency(1));
+        assertEquals(1, search.getBombFrequency(2));
+    }
+
+    @Test
+    public void infeasibleConstraints() {
+        search = new ConstraintSearch(2, new int[][]{{0, 1}, {0}}, new int[]{3, 0});
+        assertEquals(0, search.search());
+
+        search = new ConstraintSearch(2, new int[][]{{0, 1}, {0}}, new int[]{-1, 0});
+        assertEquals(0, search.search());
+    }
+
+    @Test
+    public void atMostConstraints() {
+        search = new ConstraintSearch(3, new int[][]{{0, 1, 2}, {0, 1}}, new int[]{1, 0},
+                new boolean[]{true, false});
+
+        assertEquals(1, search.search());
+        assertEquals(0, search.getBombFrequency(0));
+        assertEquals(0, search.getBombFrequency(1));
+        assertEquals(1, search.getBombFrequency(2));
+
+        search = new ConstraintSearch(2, new int[][]{{0, 1}}, new int[]{1}, new boolean[]{false});
+        assertEquals(3, search.search());
+    }
+
+    @Test
+    public void countByMines() {
+        search = new ConstraintSearch(3, new int[][]{{0, 1}}, new int[]{1});
+        search.setCountByMines(true);
+
+        assertEquals(4, search.search());
+        assertEquals(0, search.getSolutionsByMines(0));
+        assertEquals(2, search.getSolutionsByMines(1));
+        assertEquals(2, search.getSolutionsByMines(2));
+        assertEquals(1, search.getBombFrequencyByMines(0, 1));
+        assertEquals(0, search.getBombFrequencyByMines(2, 1));
+        assertEquals(2, search.getBombFrequencyByMines(2, 2));
+    }
+
+    @Test
+    public void matchesExhaustiveEnumeration() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 200; trial++) {
+            int numVariables = 1 + random.nextInt(12);
+            int numConstraints = 1 + random.nextInt(8);
+            int[][] constraintVariables = new int[numConstraints][];
+            int[] constraintMines = new int[numConstraints];
+            boolean[] exact = new boolean[numConstraints];
+            for (int c = 0; c < numConstraints; c++) {
+                constraintVariables[c] = random.ints(0, numVariables).distinct()
+                        .limit(1 + random.nextInt(Math.min(8, numVariables))).toArray();
+                constraintMines[c] = random.nextInt(constraintVariables[c].length + 1);
+                exact[c] = random.nextInt(4) != 0;
+            }
+
+            long expectedSolutions = 0;
+            long[] expectedFrequency = new long[numVariables];
+            for (int mask = 0; mask < 1 << numVariables; mask++) {
+                boolean valid = true;
+                for (int c = 0; c < numConstraints && valid; c++) {
+                    int bombs = 0;
+                    for (int variable: constraintVariables[c])
+                        bombs += (mask >> variable) & 1;
+                    valid = exact[c] ? bombs == constraintMines[c] : bombs <= constraintMines[c];
+                }
+                if (!valid) continue;
+                expectedSolutions++;
+                for (int v = 0; v < numVariables; v++)
+                    expectedFrequency[v] += (mask >> v) & 1;
+            }
+
+            search = new ConstraintSearch(numVariables, constraintVariables, constraintMines, exact);
+            assertEquals(expectedSolutions, search.search());
+            for (int v = 0; v < numVariables; v++)
+                assertEquals(expectedFrequency[v], search.getBombFrequency(v));
+        }
+    }
+
+    @Test
+    public void prunesBranchesEarly() {
+        int numVariables = 24;
+        int[][] constraintVariables = new int[numVariables - 1][];
+        int[] constraintMines = new int[numVariables - 1];
+        for (int c = 0; c < numVariables - 1; c++) {
+            constraintVariables[c] = new int[]{c, c + 1};
+            constraintMines[c] = 1;
+        }
+
+        search = new ConstraintSearch(numVariables, constraintVariables, constraintMines);
+        assertEquals(2, search.search());
+        assertTrue(search.getNodesVisited() < 200);
+    }
+
+    @Test
+    public void stopWhenUndecided() {
+        // 1 over {0, 1}, 1 over {2, 3}: nothing is decided, the search stops at the second solution
+        search = new ConstraintSearch(4, new int[][]{{0, 1}, {2, 3}}, new int[]{1, 1});
+        search.setStopWhenUndecided(true);
+        assertTrue(search.search() < 4);
+        assertTrue(search.isStopped());
+
+        // 1 over {0, 1}, 0 over {1, 2}: 0 is a bomb, 1 and 2 are safe, the full search is kept
+        search = new ConstraintSearch(3, new int[][]{{0, 1}, {1, 2}}, new int[]{1, 0});
+        search.setStopWhenUndecided(true);
+        assertEquals(1, search.search());
+        assertFalse(search.isStopped());
+        assertEquals(1, search.getBombFrequency(0));
+        assertEquals(0, search.getBombFrequency(1));
+        assertEquals(0, search.getBombFrequency(2));
+    }
+
+    @Test
+    public void parallelMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Random random = new Random(11);
+        for (int trial = 0; trial < 100; trial++) {
+            int numVariables = 1 + random.nextInt(16);
+            int numConstraints = 1 + random.nextInt(10);
+            int[][] constraintVariables = new int[numConstraints][];
+            int[] constraintMines = new int[numConstraints];
+            boolean[] exact = new boolean[numConstraints];
+            for (int c = 0; c < numConstraints; c++) {
+                constraintVariables[c] = random.ints(0, numVariables).distinct()
+                        .limit(1 + random.nextInt(Math.min(8, numVariables))).toArray();
+                constraintMines[c] = random.nextInt(constraintVariables[c].length + 1);
+                exact[c] = random.nextInt(4) != 0;
+            }
+
+            ConstraintSearch sequential = new ConstraintSearch(numVariables, constraintVariables, constraintMines,
+                    exact);
+            sequential.setCountByMines(true);
+            long expected = sequential.search();
+
+            search = new ConstraintSearch(numVariables, constraintVariables, constraintMines, exact);
+            search.setCountByMines(true);
+            assertEquals(expected, search.searchParallel(pool, random.nextInt(6)));
+            assertEquals(sequential.getNodesVisited(), search.getNodesVisited());
+            assertEquals(sequential.getPrunedBranches(), search.getPrunedBranches());
+            for (int v = 0; v < numVariables; v++) {
+                assertEquals(sequential.getBombFrequency(v), search.getBombFrequency(v));
+                for (int mines = 0; mines <= numVariables; mines++)
+                    assertEquals(sequential.getBombFrequencyByMines(v, mines),
+                            search.getBombFrequencyByMines(v, mines));
+            }
+            for (int mines = 0; mines <= numVariables; mines++)
+                assertEquals(sequential.getSolutionsByMines(mines), search.getSolutionsByMines(mines));
+        }
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,241 @@
+package Solver.LocalBruteForceSolver;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of the deductions of LocalBruteForceSolver.bruteForceWrapper, keyed by the cells around the
+ * central node
+ *
+ * A pattern is the square window of the given radius around the central node, every cell encoded in 4 bits (off the
+ * board, closed, known bomb or its number). Patterns that are rotations or reflections of each other share the same
+ * key, the canonical one is the smallest encoding over the 8 symmetries of the square. Deductions are stored as
+ * positions in the canonical window, so a hit can be mapped back onto any of the symmetric boards.
+ * The cache can be shared by solvers on different threads.
+ */
+public class DeductionCache {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    public static final int OFF_BOARD = 0;
+    public static final int CLOSED = 1;
+    public static final int KNOWN_BOMB = 2;
+    /**
+     * Known cells that are not bombs and have no number, never made by the game but kept apart from the numbers
+     */
+    public static final int NO_NUMBER = 15;
+
+    protected final int capacity;
+    protected final LinkedHashMap<Key, Deduction> entries;
+    protected final LongAdder hits;
+    protected final LongAdder misses;
+
+    public DeductionCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity The maximum number of patterns kept, the least recently used one is dropped beyond that
+     */
+    public DeductionCache(int capacity) {
+        if (capacity < 1) throw new RuntimeException("Capacity must be larger than 0");
+
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Deduction> eldest) {
+                return size() > DeductionCache.this.capacity;
+            }
+        };
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * @return The deduction stored for key, null if there is none
+     */
+    public Deduction get(Key key) {
+        Deduction deduction;
+        synchronized (entries) {
+            deduction = entries.get(key);
+        }
+        if (deduction == null) misses.increment();
+        else hits.increment();
+        return deduction;
+    }
+
+    public void put(Key key, Deduction deduction) {
+        synchronized (entries) {
+            entries.put(key, deduction);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The fraction of lookups that found a deduction, 0 if there was no lookup
+     */
+    public double hitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * The canonical encoding of a pattern
+     *
+     * @param radius The radius of the window, windows of different radius never match
+     * @param words The cell codes of the window in canonical order, 16 per word
+     */
+    public record Key(int radius, long[] words) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && key.radius == radius && Arrays.equals(key.words, words);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * radius + Arrays.hashCode(words);
+        }
+    }
+
+    /**
+     * The certain cells found around a pattern
+     *
+     * @param safeCells The positions in the canonical window of the cells that are never bombs
+     * @param mineCells The positions in the canonical window of the cells that are always bombs
+     */
+    public record Deduction(int[] safeCells, int[] mineCells) {
+    }
+
+    /**
+     * Reusable buffers to encode the window around a cell and find its canonical key, not thread safe, each solver
+     * keeps its own
+     *
+     * Window position p = (dx + radius) * side + dy + radius holds the cell at offset (dx, dy) of the central node.
+     */
+    public static class Pattern {
+        protected final int radius;
+        protected final int side;
+        /**
+         * For each symmetry, the window position read for each canonical position
+         */
+        protected final int[][] symmetry;
+        /**
+         * For each symmetry, the canonical position of each window position
+         */
+        protected final int[][] inverseSymmetry;
+        protected final byte[] codes;
+        protected final long[] candidate;
+        protected final long[] best;
+        protected int transform;
+
+        /**
+         * @param radius The number of cells on each side of the central node, must not be negative
+         */
+        public Pattern(int radius) {
+            if (radius < 0) throw new RuntimeException("Radius must not be negative");
+
+            this.radius = radius;
+            this.side = 2 * radius + 1;
+            int numCells = side * side;
+            this.codes = new byte[numCells];
+            this.candidate = new long[(numCells + 15) / 16];
+            this.best = new long[candidate.length];
+
+            symmetry = new int[8][numCells];
+            inverseSymmetry = new int[8][numCells];
+            for (int t = 0; t < 8; t++)
+                for (int a = -radius; a <= radius; a++)
+                    for (int b = -radius; b <= radius; b++) {
+                        int dx = (t & 4) == 0 ? a : b;
+                        int dy = (t & 4) == 0 ? b : a;
+                        if ((t & 1) != 0) dx = -dx;
+                        if ((t & 2) != 0) dy = -dy;
+                        int canonical = position(a, b);
+                        int original = position(dx, dy);
+                        symmetry[t][canonical] = original;
+                        inverseSymmetry[t][original] = canonical;
+                    }
+        }
+
+        public int getRadius() {
+            return radius;
+        }
+
+        /**
+         * @return The window position of offset (dx, dy) from the central node
+         */
+        public int position(int dx, int dy) {
+            return (dx + radius) * side + dy + radius;
+        }
+
+        public int offsetX(int position) {
+            return position / side - radius;
+        }
+
+        public int offsetY(int position) {
+            return position % side - radius;
+        }
+
+        /**
+         * Sets the code of the cell at the given window position, one of OFF_BOARD, CLOSED, KNOWN_BOMB, NO_NUMBER or
+         * 3 + the number of the cell
+         */
+        public void setCode(int position, int code) {
+            codes[position] = (byte) code;
+        }
+
+        /**
+         * Finds the symmetry with the smallest encoding of the current codes and remembers it for the mapping methods
+         *
+         * @return A new key of the canonical encoding
+         */
+        public Key canonicalKey() {
+            encode(0, best);
+            transform = 0;
+            for (int t = 1; t < 8; t++) {
+                encode(t, candidate);
+                if (Arrays.compare(candidate, best) < 0) {
+                    System.arraycopy(candidate, 0, best, 0, best.length);
+                    transform = t;
+                }
+            }
+            return new Key(radius, best.clone());
+        }
+
+        private void encode(int t, long[] words) {
+            int[] map = symmetry[t];
+            Arrays.fill(words, 0);
+            for (int p = 0; p < map.length; p++)
+                words[p >>> 4] |= (long) codes[map[p]] << ((p & 15) << 2);
+        }
+
+        /**
+         * @return The window position on the current board of a position of the canonical window
+         */
+        public int fromCanonical(int canonicalPosition) {
+            return symmetry[transform][canonicalPosition];
+        }
+
+        /**
+         * @return The position in the canonical window of a window position on the current board
+         */
+        public int toCanonical(int position) {
+            return inverseSymmetry[transform][position];
+        }
+    }
+}
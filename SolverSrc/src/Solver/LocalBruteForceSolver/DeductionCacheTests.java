@@ -0,0 +1,72 @@
+package Solver.LocalBruteForceSolver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.Assert.*;
+
+public class DeductionCacheTests {
+
+    @Test
+    public void symmetricPatternsShareKey() {
+        DeductionCache.Pattern pattern = new DeductionCache.Pattern(2);
+        pattern.setCode(pattern.position(1, 2), 4);
+        pattern.setCode(pattern.position(-2, 0), DeductionCache.KNOWN_BOMB);
+        DeductionCache.Key key = pattern.canonicalKey();
+        int canonical = pattern.toCanonical(pattern.position(1, 2));
+
+        DeductionCache.Pattern rotated = new DeductionCache.Pattern(2);
+        rotated.setCode(rotated.position(-2, 1), 4);
+        rotated.setCode(rotated.position(0, -2), DeductionCache.KNOWN_BOMB);
+        assertEquals(key, rotated.canonicalKey());
+        assertEquals(rotated.fromCanonical(canonical), rotated.position(-2, 1));
+
+        DeductionCache.Pattern other = new DeductionCache.Pattern(2);
+        other.setCode(other.position(1, 2), 5);
+        assertNotEquals(key, other.canonicalKey());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        DeductionCache cache = new DeductionCache(2);
+        DeductionCache.Deduction deduction = new DeductionCache.Deduction(new int[]{1}, new int[0]);
+        DeductionCache.Key first = new DeductionCache.Key(1, new long[]{1});
+        DeductionCache.Key second = new DeductionCache.Key(1, new long[]{2});
+        DeductionCache.Key third = new DeductionCache.Key(1, new long[]{3});
+
+        cache.put(first, deduction);
+        cache.put(second, deduction);
+        assertNotNull(cache.get(first));
+        cache.put(third, deduction);
+
+        assertEquals(cache.size(), 2);
+        assertNull(cache.get(second));
+        assertNotNull(cache.get(first));
+        assertNotNull(cache.get(new DeductionCache.Key(1, new long[]{3})));
+        assertEquals(cache.getHits(), 3);
+        assertEquals(cache.getMisses(), 1);
+    }
+
+    @Test
+    public void solverHitsOnReflectedBoard() {
+        DeductionCache cache = new DeductionCache();
+        int[][] board = {{1, -1}, {1, -1}, {0, -1}};
+        LocalBruteForceSolver solver = new LocalBruteForceSolver(2, 3, 2);
+        solver.useDeductionCache(cache);
+        solver.updateBoard(board);
+        solver.bruteForceWrapper(solver.graph.getId(0, 0));
+
+        int[][] reflected = {{0, -1}, {1, -1}, {1, -1}};
+        LocalBruteForceSolver reflectedSolver = new LocalBruteForceSolver(2, 3, 2);
+        reflectedSolver.useDeductionCache(cache);
+        reflectedSolver.updateBoard(reflected);
+        reflectedSolver.bruteForceWrapper(reflectedSolver.graph.getId(2, 0));
+
+        assertEquals(cache.getMisses(), 1);
+        assertEquals(cache.getHits(), 1);
+        assertEquals(reflectedSolver.toFlag.size(), 1);
+        assertTrue(reflectedSolver.toFlag.contains(reflectedSolver.graph.getId(2, 1)));
+        assertEquals(reflectedSolver.certainNumberCells.size(), 2);
+        assertTrue(reflectedSolver.certainNumberCells.contains(reflectedSolver.graph.getId(1, 1)));
+        assertTrue(reflectedSolver.certainNumberCells.contains(reflectedSolver.graph.getId(0, 1)));
+    }
+}
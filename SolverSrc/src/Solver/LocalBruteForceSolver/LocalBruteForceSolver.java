@@ -1,10 +1,16 @@
 package Solver.LocalBruteForceSolver;
 
+import Solver.BoardChanges;
+import Solver.CellQueue;
 import Solver.Coordinates;
+import Solver.Frontier;
+import Solver.GuessSelector;
+import Solver.MoveBatch;
 import Solver.SolverAdapter;
+import Solver.SolverMetrics;
 
-import java.lang.reflect.Array;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Brute force solver for minesweeper
@@ -12,56 +18,147 @@ import java.util.*;
  * Determine bombs and guesses by brute forcing possibilities in a fixed sized area around a cell in the frontier
  */
 public class LocalBruteForceSolver implements SolverAdapter {
-    protected MinesweeperGraphNode[][] board;
+    /**
+     * Components with fewer closed cells than this are always searched sequentially, splitting them costs more than
+     * it saves
+     */
+    public static final int MIN_PARALLEL_VARIABLES = 20;
+
+    protected MinesweeperGraph graph;
     protected int longSideLength;
     protected int shortSideLength;
     protected int searchWidth;
 
-    protected ArrayList<MinesweeperGraphNode> frontier;
-    protected ArrayList<MinesweeperGraphNode> certainNumberCells;
-    protected ArrayList<MinesweeperGraphNode> toFlag;
+    /**
+     * Number nodes that still have closed neighbours, by id
+     */
+    protected Frontier frontier;
+    /**
+     * Ids of the cells found safe and found to be bombs that were not returned yet
+     */
+    protected CellQueue certainNumberCells;
+    protected CellQueue toFlag;
+
+    protected ForkJoinPool pool;
+    protected int splitDepth;
+
+    protected DeductionCache deductionCache;
+    protected DeductionCache.Pattern pattern;
+    protected SolverMetrics metrics;
+    /**
+     * Cell opened when the board has no open cell, (0, 0) by default
+     */
+    protected Coordinates openingCell;
+    /**
+     * Gets the bomb frequencies of every search of a step, picks the guess when it finds nothing certain
+     */
+    protected GuessSelector guessSelector;
+
+    /**
+     * Work buffers of bruteForceWrapper, reused by every search so walking the graph does not allocate
+     * cellMark[id] == epoch means cellSlot[id] holds data of the current pass, bumping epoch clears every mark
+     */
+    protected int[] searchFrontier;
+    protected int searchFrontierSize;
+    protected int[] parent;
+    protected int[] componentOf;
+    protected int[] componentStart;
+    protected int[] componentCells;
+    protected int[] closedCells;
+    protected int[] constraintCells;
+    protected int[] cellMark;
+    protected int[] cellSlot;
+    protected int epoch;
+    protected int[] foundSafe;
+    protected int numFoundSafe;
+    protected int[] foundMines;
+    protected int numFoundMines;
 
     public LocalBruteForceSolver(int searchWidth, int longSideLength, int shortSideLength) {
-        board = new MinesweeperGraphNode[longSideLength][shortSideLength];
+        graph = new MinesweeperGraph(longSideLength, shortSideLength);
         this.longSideLength = longSideLength;
         this.shortSideLength = shortSideLength;
         this.searchWidth = searchWidth;
 
-        frontier = new ArrayList<>();
-        certainNumberCells = new ArrayList<>();
-        toFlag = new ArrayList<>();
+        frontier = new Frontier(graph.getNumCells());
+        certainNumberCells = new CellQueue(graph.getNumCells());
+        toFlag = new CellQueue(graph.getNumCells());
+
+        int numCells = graph.getNumCells();
+        searchFrontier = new int[numCells];
+        parent = new int[numCells];
+        componentOf = new int[numCells];
+        componentStart = new int[numCells + 1];
+        componentCells = new int[numCells];
+        closedCells = new int[numCells];
+        constraintCells = new int[numCells];
+        cellMark = new int[numCells];
+        cellSlot = new int[numCells];
+        foundSafe = new int[numCells];
+        foundMines = new int[numCells];
+        openingCell = new Coordinates(0, 0);
+    }
 
-        for (int i = 0; i < longSideLength; i++)
-            for (int j = 0; j < shortSideLength; j++)
-                board[i][j] = new MinesweeperGraphNode(i,j);
+    /**
+     * Makes large components be searched in parallel on pool, see ConstraintSearch.searchParallel
+     *
+     * @param pool The pool running the search, null to search sequentially
+     * @param splitDepth The number of variables assigned before splitting the search into tasks
+     */
+    public void useParallelSearch(ForkJoinPool pool, int splitDepth) {
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    /**
+     * Makes the search reuse the deductions found around the same patterns of cells, see DeductionCache
+     *
+     * @param deductionCache The cache, can be shared with other solvers of any size and search width, null to always
+     *                       search
+     */
+    public void useDeductionCache(DeductionCache deductionCache) {
+        this.deductionCache = deductionCache;
+        this.pattern = deductionCache == null ? null : new DeductionCache.Pattern(searchWidth + 3);
+    }
+
+    @Override
+    public void useMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
 
-        setNeighbours();
+    @Override
+    public void useGuessSelector(GuessSelector guessSelector) {
+        this.guessSelector = guessSelector;
+    }
+
+    @Override
+    public void setOpeningCell(Coordinates openingCell) {
+        if (openingCell.x() < 0 || openingCell.x() >= longSideLength || openingCell.y() < 0 ||
+                openingCell.y() >= shortSideLength)
+            throw new RuntimeException("Opening cell must be inside the board");
+        this.openingCell = openingCell;
     }
 
     /**
-     * Sets the neighbours of all nodes in the board
+     * Starts a new pass over the cell marks, every cell becomes unmarked
      */
-    protected void setNeighbours() {
-        for (int i = 0; i < longSideLength; i++)
-            for (int j = 0; j < shortSideLength; j++) {
-                ArrayList<MinesweeperGraphNode> neighbours = getNeighbours(i, j);
-                board[i][j].addNeighbours(neighbours);
-            }
+    protected void nextEpoch() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(cellMark, 0);
+            epoch = 1;
+        }
     }
 
     /**
-     * Gets the neighbour nodes to the cell at position (x,y)
-     * @param x The x coordinate
-     * @param y The y coordinate
-     * @return The list of neighbour nodes
+     * Marks the cell in the current pass and stores slot for it
+     *
+     * @return False if the cell was already marked in this pass
      */
-    protected ArrayList<MinesweeperGraphNode> getNeighbours(int x, int y) {
-        ArrayList<MinesweeperGraphNode> neighbours = new ArrayList<>();
-        for (int i = -1; i <= 1; i++)
-            for (int j = -1; j <= 1; j++)
-                if (x + i >= 0 && x + i < longSideLength && y + j >= 0 && y +j < shortSideLength && !(i == 0 && j ==0))
-                    neighbours.add(board[x + i][y + j]);
-        return neighbours;
+    protected boolean mark(int id, int slot) {
+        if (cellMark[id] == epoch) return false;
+        cellMark[id] = epoch;
+        cellSlot[id] = slot;
+        return true;
     }
 
     /**
@@ -70,295 +167,490 @@ public class LocalBruteForceSolver implements SolverAdapter {
      */
     @Override
     public Coordinates step() {
-        MinesweeperGraphNode node = search();
-        return new Coordinates(node.getX(), node.getY());
+        if (metrics != null) metrics.recordFrontier(frontier.size());
+        return coordinatesOf(search());
     }
 
     @Override
     public ArrayList<Coordinates> getNextSteps() {
         ArrayList<Coordinates> returnArray = new ArrayList<>();
+        while (!certainNumberCells.isEmpty())
+            returnArray.add(coordinatesOf(certainNumberCells.poll()));
+        return returnArray;
+    }
 
-        for (MinesweeperGraphNode node: certainNumberCells)
-            returnArray.add(new Coordinates(node.getX(), node.getY()));
+    /**
+     * Searches around every cell of the frontier and adds all the certain cells and flags found to batch, guesses if
+     * no cell is certain. Flagged cells are marked as known bombs, same as in getFlags
+     *
+     * @param batch The batch the moves are added to
+     */
+    @Override
+    public void nextMoves(MoveBatch batch) {
+        if (metrics != null) metrics.recordFrontier(frontier.size());
+        if (guessSelector != null) guessSelector.clearEstimates();
+        if (certainNumberCells.isEmpty()) deduceAll();
+        if (certainNumberCells.isEmpty()) certainNumberCells.add(guess());
+
+        while (!certainNumberCells.isEmpty()) {
+            int id = certainNumberCells.poll();
+            batch.addOpen(graph.getX(id), graph.getY(id));
+        }
 
-        certainNumberCells.clear();
-        return returnArray;
+        while (!toFlag.isEmpty()) {
+            int id = toFlag.poll();
+            batch.addFlag(graph.getX(id), graph.getY(id));
+            graph.setKnown(id, true);
+            graph.setBomb(id, true);
+        }
+    }
+
+    /**
+     * Runs the search around every cell of the frontier, adding what is found to certainNumberCells and toFlag
+     * The cells whose search found a safe cell are removed from the frontier, same as in search
+     */
+    protected void deduceAll() {
+        for (int i = frontier.size() - 1; i >= 0; i--) {
+            int id = frontier.get(i);
+            int numCertain = certainNumberCells.size();
+            bruteForceWrapper(id);
+            if (certainNumberCells.size() > numCertain)
+                frontier.remove(id);
+        }
     }
 
     /**
      * Makes the search for the next cell to open. Guesses if necessary
      *
-     * @return The node of the next cell to open
+     * @return The id of the next cell to open
      */
-    protected MinesweeperGraphNode search() {
+    protected int search() {
         if (!certainNumberCells.isEmpty())
-            return certainNumberCells.remove(0);
+            return certainNumberCells.poll();
 
-        for (MinesweeperGraphNode node: frontier) {
-            bruteForceWrapper(node);
+        if (guessSelector != null) guessSelector.clearEstimates();
+        for (int i = 0; i < frontier.size(); i++) {
+            int id = frontier.get(i);
+            bruteForceWrapper(id);
             if (!certainNumberCells.isEmpty()) {
-                frontier.remove(node);
-                return certainNumberCells.remove(0);
+                frontier.remove(id);
+                return certainNumberCells.poll();
             }
         }
 
-        for (MinesweeperGraphNode node: frontier)
-            for (MinesweeperGraphNode neighbour: node.getNeighbours())
-                if (!neighbour.getKnown())
-                    return neighbour;
-        return new MinesweeperGraphNode(0,0);
+        return guess();
+    }
+
+    /**
+     * Picks the next cell to open when no cell is certain
+     * The opening cell while it is unknown and there is no frontier, then the cell ranked first by the guess selector if
+     * there is one, otherwise the first unknown neighbour of the frontier, or the first unknown cell of the board
+     *
+     * @return The id of the cell to guess
+     */
+    protected int guess() {
+        if (metrics != null) metrics.recordGuess();
+        int opening = graph.getId(openingCell.x(), openingCell.y());
+        if (frontier.isEmpty() && !graph.known[opening]) return opening;
+
+        if (guessSelector != null) {
+            for (int id = 0; id < graph.getNumCells(); id++)
+                guessSelector.setValue(id, !graph.known[id] ? -1 : graph.bomb[id] ? -2 : Math.max(graph.value[id], 0));
+            int id = guessSelector.select();
+            if (id != -1) return id;
+        }
+
+        for (int i = 0; i < frontier.size(); i++)
+            for (int k = graph.neighbourStart[frontier.get(i)]; k < graph.neighbourStart[frontier.get(i) + 1]; k++)
+                if (!graph.known[graph.neighbours[k]])
+                    return graph.neighbours[k];
+        for (int id = 0; id < graph.getNumCells(); id++)
+            if (!graph.known[id]) return id;
+        return opening;
     }
 
     /**
      * Does brute force search around centralNode with the specified width
+     * The search frontier is split into independent components which are enumerated separately, so the cost is the sum
+     * and not the product of the size of the search space of each component
+     * With a deduction cache, the search is skipped when the cells around centralNode were already seen, and gives no
+     * estimate to the guess selector
      * Updates toFlag and certainNumberCells according to certain findings of the search
-     * @param centralNode The central node of the search
-     */
-    protected void bruteForceWrapper(MinesweeperGraphNode centralNode) {
-        ArrayList<MinesweeperGraphNode> searchFrontier = getSearchFrontier(centralNode);
-        ArrayList<MinesweeperGraphNode> searchClosedCells = getClosedNeighbourCells(searchFrontier);
-        Map<MinesweeperGraphNode, Integer> bombFrequency = makeInitialBombFrequencyMap(searchClosedCells);
-
-        int possibilities = bruteForce(searchFrontier, searchClosedCells, bombFrequency,
-                searchClosedCells.size() - 1);
-
-        for (MinesweeperGraphNode node: searchClosedCells) {
-            int frequency = bombFrequency.get(node);
-            if (frequency == 0)
-                certainNumberCells.add(node);
-            if (frequency == possibilities && !toFlag.contains(node))
-                toFlag.add(node);
+     * @param centralNode The id of the central node of the search
+     */
+    protected void bruteForceWrapper(int centralNode) {
+        DeductionCache.Key key = null;
+        if (deductionCache != null) {
+            key = readPattern(centralNode);
+            DeductionCache.Deduction deduction = deductionCache.get(key);
+            if (deduction != null) {
+                for (int position: deduction.safeCells())
+                    addCertainNumberCell(cellInPattern(centralNode, pattern.fromCanonical(position)));
+                for (int position: deduction.mineCells())
+                    addToFlag(cellInPattern(centralNode, pattern.fromCanonical(position)));
+                return;
+            }
+        }
+
+        bruteForce(centralNode);
+        for (int i = 0; i < numFoundSafe; i++)
+            addCertainNumberCell(foundSafe[i]);
+        for (int i = 0; i < numFoundMines; i++)
+            addToFlag(foundMines[i]);
+
+        if (key != null) {
+            int[] safeCells = new int[numFoundSafe];
+            for (int i = 0; i < numFoundSafe; i++)
+                safeCells[i] = pattern.toCanonical(positionInPattern(centralNode, foundSafe[i]));
+            int[] mineCells = new int[numFoundMines];
+            for (int i = 0; i < numFoundMines; i++)
+                mineCells[i] = pattern.toCanonical(positionInPattern(centralNode, foundMines[i]));
+            deductionCache.put(key, new DeductionCache.Deduction(safeCells, mineCells));
         }
     }
 
     /**
-     * Does brute force search on the bomb assignments for the nodes in searchClosedCells
-     * Updates bombFrequency map to reflect the frequency of when the cells were bombs
-     * Returns the number of different valid assignments given current state
-     * Recursive call, first call should be called with currentCellIndex at the size minus one of the searchClosedCells
-     *
-     * @param searchFrontier The list of nodes in the search frontier
-     * @param searchClosedCells The list of cells being searched
-     * @param bombFrequency The frequency map
-     * @param currentCellIndex The index of the node currently being searched
-     * @return The number of possible valid assignments given the current state
-     */
-    protected int bruteForce(ArrayList<MinesweeperGraphNode> searchFrontier,
-                             ArrayList<MinesweeperGraphNode> searchClosedCells,
-                             Map<MinesweeperGraphNode, Integer> bombFrequency,
-                             int currentCellIndex) {
-        if (isStateInvalid(searchClosedCells)) return 0;
-        if (currentCellIndex < 0) {
-            if (!doesStateSatisfyFrontier(searchFrontier)) return 0;
-            updateBombFrequency(searchClosedCells, bombFrequency);
-            return 1;
+     * Runs the search around centralNode, the closed cells found to be always safe are written to foundSafe and the
+     * ones found to always be bombs to foundMines
+     * @param centralNode The id of the central node of the search
+     */
+    protected void bruteForce(int centralNode) {
+        numFoundSafe = 0;
+        numFoundMines = 0;
+        getSearchFrontier(centralNode);
+        int numComponents = getIndependentComponents(searchFrontier, searchFrontierSize);
+
+        for (int c = 0; c < numComponents; c++) {
+            int numClosedCells = getClosedNeighbourCells(componentCells, componentStart[c], componentStart[c + 1]);
+            ConstraintSearch search = makeConstraintSearch(componentStart[c], componentStart[c + 1], numClosedCells);
+
+            long possibilities = pool != null && search.getNumVariables() >= MIN_PARALLEL_VARIABLES ?
+                    search.searchParallel(pool, splitDepth) : search.search();
+            if (metrics != null) metrics.recordSearch(search.getNodesVisited(), search.getPrunedBranches());
+            if (possibilities == 0) continue;
+
+            for (int i = 0; i < numClosedCells; i++) {
+                long frequency = search.getBombFrequency(i);
+                if (guessSelector != null) guessSelector.addEstimate(closedCells[i], frequency, possibilities);
+                if (frequency == 0)
+                    foundSafe[numFoundSafe++] = closedCells[i];
+                else if (frequency == possibilities)
+                    foundMines[numFoundMines++] = closedCells[i];
+            }
         }
+    }
+
+    protected void addCertainNumberCell(int id) {
+        certainNumberCells.add(id);
+    }
 
-        MinesweeperGraphNode currentNode = searchClosedCells.get(currentCellIndex);
-        int possibilities = 0;
+    protected void addToFlag(int id) {
+        toFlag.add(id);
+    }
 
-        currentNode.setKnown(true);
-        currentNode.setBomb(true);
-        possibilities += bruteForce(searchFrontier, searchClosedCells, bombFrequency, currentCellIndex - 1);
-        currentNode.setBomb(false);
-        possibilities += bruteForce(searchFrontier, searchClosedCells, bombFrequency, currentCellIndex - 1);
-        currentNode.setKnown(false);
+    /**
+     * Encodes the window of pattern around centralNode, every cell within searchWidth + 3 of it can change the result
+     * of the search: numbers of the search frontier, their closed neighbours, the numbers bounding those and the known
+     * bombs around them
+     *
+     * @return The canonical key of the window, pattern maps positions between it and the board
+     */
+    protected DeductionCache.Key readPattern(int centralNode) {
+        int x = graph.getX(centralNode);
+        int y = graph.getY(centralNode);
+        int radius = pattern.getRadius();
+
+        for (int dx = -radius; dx <= radius; dx++)
+            for (int dy = -radius; dy <= radius; dy++) {
+                int code;
+                if (x + dx < 0 || x + dx >= longSideLength || y + dy < 0 || y + dy >= shortSideLength)
+                    code = DeductionCache.OFF_BOARD;
+                else {
+                    int id = graph.getId(x + dx, y + dy);
+                    if (!graph.known[id]) code = DeductionCache.CLOSED;
+                    else if (graph.bomb[id]) code = DeductionCache.KNOWN_BOMB;
+                    else if (graph.value[id] < 0) code = DeductionCache.NO_NUMBER;
+                    else code = 3 + graph.value[id];
+                }
+                pattern.setCode(pattern.position(dx, dy), code);
+            }
 
-        return possibilities;
+        return pattern.canonicalKey();
     }
 
     /**
-     * Checks if the current assignment is 1. completely assigned with all closed searched nodes being assigned either
-     * bomb or not bomb; 2. all nodes in the frontier have exactly the correct number of bombs adjacent to it
-     * @param searchFrontier The list of nodes in the search frontier
-     * @return True if the state satisfies the frontier constraints, false otherwise
+     * @return The id of the cell at the given window position of pattern around centralNode
      */
-    protected boolean doesStateSatisfyFrontier(ArrayList<MinesweeperGraphNode> searchFrontier) {
-        for (MinesweeperGraphNode node: searchFrontier) {
-            if (checkAdjacentForClosedCells(node)) return false;
-            int numBombs = 0;
-            for (MinesweeperGraphNode neighbour: node.getNeighbours())
-                if (neighbour.getBomb()) numBombs++;
-            if (numBombs != node.value) return false;
-        }
-        return true;
+    protected int cellInPattern(int centralNode, int position) {
+        return graph.getId(graph.getX(centralNode) + pattern.offsetX(position),
+                graph.getY(centralNode) + pattern.offsetY(position));
     }
 
     /**
-     * Updates bombFrequency map to have updated data on which cells were bombs
-     *
-     * @param searchClosedCells The list of searched cells in this search
-     * @param bombFrequency The frequency map to be updated
+     * @return The window position of pattern around centralNode of the cell with the given id
      */
-    protected void updateBombFrequency(ArrayList<MinesweeperGraphNode> searchClosedCells,
-                                       Map<MinesweeperGraphNode, Integer> bombFrequency) {
-        for (MinesweeperGraphNode node: searchClosedCells)
-            if (node.getBomb())
-                bombFrequency.put(node, bombFrequency.get(node) + 1);
+    protected int positionInPattern(int centralNode, int id) {
+        return pattern.position(graph.getX(id) - graph.getX(centralNode), graph.getY(id) - graph.getY(centralNode));
     }
 
     /**
-     * Checks if the current bomb assignment makes the board invalid
+     * Builds the constraint search over the bomb assignments of the closed cells of a component
+     * Nodes of the component must have exactly their number of bombs, other number nodes adjacent to the searched
+     * cells can only bound the number of bombs from above since they can have closed neighbours outside the search
+     * Expects the marks left by getClosedNeighbourCells, variable i of the search is closedCells[i]
      *
-     * @param searchClosedCells The nodes that are being assigned in the search, can still not be assigned
-     * @return True if the current assignment does not invalidate board
-     */
-    protected boolean isStateInvalid(ArrayList<MinesweeperGraphNode> searchClosedCells) {
-        ArrayList<MinesweeperGraphNode> visited = new ArrayList<>();
-
-        for (MinesweeperGraphNode node: searchClosedCells)
-            if (node.getKnown()) {
-                for (MinesweeperGraphNode neighbour: node.getNeighbours()) {
-                    if (neighbour.getKnown() && !neighbour.getBomb() && !visited.contains(neighbour) &&
-                            !searchClosedCells.contains(neighbour)) {
-                        int numAdjacentBombs = countAdjacentBombs(neighbour);
-                        if (numAdjacentBombs > neighbour.getValue()) return true;
-                        visited.add(neighbour);
-                    }
-                }
+     * @param from The position in componentCells of the first node of the component
+     * @param to The position in componentCells after the last node of the component
+     * @param numClosedCells The number of cells being searched
+     * @return The constraint search, not yet run
+     */
+    protected ConstraintSearch makeConstraintSearch(int from, int to, int numClosedCells) {
+        int numConstraintCells = 0;
+        for (int p = from; p < to; p++) {
+            constraintCells[numConstraintCells++] = componentCells[p];
+            mark(componentCells[p], -1);
+        }
+        int numExact = numConstraintCells;
+        for (int i = 0; i < numClosedCells; i++)
+            for (int k = graph.neighbourStart[closedCells[i]]; k < graph.neighbourStart[closedCells[i] + 1]; k++) {
+                int neighbour = graph.neighbours[k];
+                if (graph.known[neighbour] && !graph.bomb[neighbour] && mark(neighbour, -1))
+                    constraintCells[numConstraintCells++] = neighbour;
             }
 
-        return false;
-    }
+        int[][] constraintVariables = new int[numConstraintCells][];
+        int[] constraintMines = new int[numConstraintCells];
+        boolean[] exact = new boolean[numConstraintCells];
+        int numConstraints = 0;
+        for (int p = 0; p < numConstraintCells; p++) {
+            int cell = constraintCells[p];
+            if (graph.value[cell] < 0) continue;
+
+            int knownBombs = 0;
+            int numVariables = 0;
+            for (int k = graph.neighbourStart[cell]; k < graph.neighbourStart[cell + 1]; k++) {
+                int neighbour = graph.neighbours[k];
+                if (graph.known[neighbour]) {
+                    if (graph.bomb[neighbour]) knownBombs++;
+                } else if (cellMark[neighbour] == epoch) numVariables++;
+            }
 
-    /**
-     * Counts the number of known bombs adjacent to the parameter node
-     * @param node The node to have adjacent bombs counted
-     * @return The number of bombs adjacent to the parameter node
-     */
-    protected int countAdjacentBombs(MinesweeperGraphNode node) {
-        int adjacentBombs = 0;
+            int[] variables = new int[numVariables];
+            numVariables = 0;
+            for (int k = graph.neighbourStart[cell]; k < graph.neighbourStart[cell + 1]; k++) {
+                int neighbour = graph.neighbours[k];
+                if (!graph.known[neighbour] && cellMark[neighbour] == epoch)
+                    variables[numVariables++] = cellSlot[neighbour];
+            }
 
-        for (MinesweeperGraphNode neighbours: node.getNeighbours())
-            if (neighbours.getKnown() && neighbours.getBomb()) adjacentBombs++;
+            constraintVariables[numConstraints] = variables;
+            constraintMines[numConstraints] = graph.value[cell] - knownBombs;
+            exact[numConstraints] = p < numExact;
+            numConstraints++;
+        }
 
-        return adjacentBombs;
+        if (numConstraints < numConstraintCells) {
+            constraintVariables = Arrays.copyOf(constraintVariables, numConstraints);
+            constraintMines = Arrays.copyOf(constraintMines, numConstraints);
+            exact = Arrays.copyOf(exact, numConstraints);
+        }
+        return new ConstraintSearch(numClosedCells, constraintVariables, constraintMines, exact);
     }
 
     /**
-     * Returns an arrayList of number nodes with unknown neighbours that are at most distance
-     * searchWidth of the centralNode
+     * Splits the search frontier into groups that do not share any closed cell
+     * Two number nodes are in the same group if there is a chain of number nodes between them where each consecutive
+     * pair has a closed neighbour in common, so assignments of different groups never constrain each other
+     * The groups are written to componentCells, group c is componentCells[componentStart[c]] up to
+     * componentCells[componentStart[c + 1] - 1]
      *
-     * @param centralNode The central node of the search
-     * @return ArrayList of number nodes with unknown neighbours that are at most distance searchWidth
-     */
-    protected ArrayList<MinesweeperGraphNode> getSearchFrontier(MinesweeperGraphNode centralNode) {
-        ArrayList<MinesweeperGraphNode> searchFrontier = new ArrayList<>();
-        Set<MinesweeperGraphNode> toGetFrontier = new HashSet<>();
-
-        searchFrontier.add(centralNode);
-        toGetFrontier.add(centralNode);
-        for (int i = 0; i < searchWidth; i++) {
-            Set<MinesweeperGraphNode> auxSet = new HashSet<>();
-            for (MinesweeperGraphNode node : toGetFrontier) {
-                for (MinesweeperGraphNode neighbour : node.getNeighbours()) {
-                    if (neighbour.getKnown() && !neighbour.getBomb() && checkAdjacentForClosedCells(neighbour) &&
-                            !searchFrontier.contains(neighbour)) {
-                        searchFrontier.add(neighbour);
-                        auxSet.add(neighbour);
-                    }
-                }
+     * @param frontierCells The ids of the nodes in the search frontier
+     * @param size The number of nodes in the search frontier
+     * @return The number of groups, in the order of their first node in frontierCells
+     */
+    protected int getIndependentComponents(int[] frontierCells, int size) {
+        nextEpoch();
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+            int cell = frontierCells[i];
+            for (int k = graph.neighbourStart[cell]; k < graph.neighbourStart[cell + 1]; k++) {
+                int neighbour = graph.neighbours[k];
+                if (graph.known[neighbour]) continue;
+                if (!mark(neighbour, i))
+                    union(parent, i, cellSlot[neighbour]);
             }
-            toGetFrontier.clear();
-            toGetFrontier.addAll(auxSet);
         }
 
-        return searchFrontier;
+        // the root of a group is its first node, so it gets its component before the other nodes of the group
+        int numComponents = 0;
+        for (int i = 0; i < size; i++) {
+            int root = findRoot(parent, i);
+            componentOf[i] = root == i ? numComponents++ : componentOf[root];
+        }
+
+        Arrays.fill(componentStart, 0, numComponents + 1, 0);
+        for (int i = 0; i < size; i++)
+            componentStart[componentOf[i] + 1]++;
+        for (int c = 0; c < numComponents; c++)
+            componentStart[c + 1] += componentStart[c];
+        for (int i = 0; i < size; i++)
+            componentCells[componentStart[componentOf[i]]++] = frontierCells[i];
+        for (int c = numComponents; c > 0; c--)
+            componentStart[c] = componentStart[c - 1];
+        componentStart[0] = 0;
+
+        return numComponents;
     }
 
     /**
-     * Gets the closed nodes adjacent to the frontier nodes
-     * @param searchFrontier The list of nodes being searched
-     * @return A list of closed nodes adjacent to the parameter nodes
+     * Joins the groups of i and j, the smaller of the two roots stays the root
      */
-    protected ArrayList<MinesweeperGraphNode> getClosedNeighbourCells(ArrayList<MinesweeperGraphNode> searchFrontier) {
-        ArrayList<MinesweeperGraphNode> closedNeighbourCells = new ArrayList<>();
-
-        for (MinesweeperGraphNode node: searchFrontier)
-            for (MinesweeperGraphNode neighbour: node.getNeighbours())
-                if (!neighbour.getKnown() && !closedNeighbourCells.contains(neighbour))
-                    closedNeighbourCells.add(neighbour);
+    private static void union(int[] parent, int i, int j) {
+        int rootI = findRoot(parent, i);
+        int rootJ = findRoot(parent, j);
+        if (rootI < rootJ) parent[rootJ] = rootI;
+        else parent[rootI] = rootJ;
+    }
 
-        return closedNeighbourCells;
+    /**
+     * Finds the representative of the group of index i, compressing the path along the way
+     */
+    private static int findRoot(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
     }
 
     /**
-     * Maps all nodes to 0
-     * Setup for brute force search
+     * Fills searchFrontier with the number nodes with unknown neighbours that are at most distance searchWidth of the
+     * centralNode, the central node first
      *
-     * @param closedCells The nodes to be mapped
-     * @return A map where keys are the nodes from closedCells and all map to 0
+     * @param centralNode The id of the central node of the search
      */
-    protected Map<MinesweeperGraphNode, Integer> makeInitialBombFrequencyMap(ArrayList<MinesweeperGraphNode> closedCells) {
-        Map<MinesweeperGraphNode, Integer> returnMap = new HashMap<>();
+    protected void getSearchFrontier(int centralNode) {
+        nextEpoch();
+        searchFrontierSize = 0;
+        searchFrontier[searchFrontierSize++] = centralNode;
+        mark(centralNode, 0);
+
+        int levelStart = 0;
+        for (int i = 0; i < searchWidth && levelStart < searchFrontierSize; i++) {
+            int levelEnd = searchFrontierSize;
+            for (int p = levelStart; p < levelEnd; p++) {
+                int node = searchFrontier[p];
+                for (int k = graph.neighbourStart[node]; k < graph.neighbourStart[node + 1]; k++) {
+                    int neighbour = graph.neighbours[k];
+                    if (graph.known[neighbour] && !graph.bomb[neighbour] && cellMark[neighbour] != epoch &&
+                            graph.hasClosedNeighbour(neighbour)) {
+                        mark(neighbour, 0);
+                        searchFrontier[searchFrontierSize++] = neighbour;
+                    }
+                }
+            }
+            levelStart = levelEnd;
+        }
+    }
 
-        for (MinesweeperGraphNode node: closedCells)
-            returnMap.put(node, 0);
+    /**
+     * Gets the closed nodes adjacent to the frontier nodes cells[from] up to cells[to - 1] into closedCells, and marks
+     * each of them with its position in closedCells
+     *
+     * @return The number of closed nodes found
+     */
+    protected int getClosedNeighbourCells(int[] cells, int from, int to) {
+        nextEpoch();
+        int numClosedCells = 0;
+
+        for (int p = from; p < to; p++)
+            for (int k = graph.neighbourStart[cells[p]]; k < graph.neighbourStart[cells[p] + 1]; k++) {
+                int neighbour = graph.neighbours[k];
+                if (!graph.known[neighbour] && mark(neighbour, numClosedCells))
+                    closedCells[numClosedCells++] = neighbour;
+            }
 
-        return returnMap;
+        return numClosedCells;
     }
 
     /**
-     * Checks the adjacent cells to the parameter node and check if any of them are closed cells
-     * @param node The node being checked
-     * @return Returns true if at least one adjacent cell is closed, Returns false otherwise
+     * @return The coordinates of the cell with the given id
      */
-    protected boolean checkAdjacentForClosedCells(MinesweeperGraphNode node) {
-        for (MinesweeperGraphNode neighbour: node.getNeighbours())
-            if (!neighbour.getKnown()) return true;
-        return false;
+    protected Coordinates coordinatesOf(int id) {
+        return new Coordinates(graph.getX(id), graph.getY(id));
     }
 
     /**
-     * Parses the list of nodes to flag to a list of coordinates and returns it
-     * Update nodes that were flagged to known bombs
+     * Parses the list of cells to flag to a list of coordinates and returns it
+     * Update cells that were flagged to known bombs
      * @return The list of coordinates to flag as bombs
      */
     @Override
     public ArrayList<Coordinates> getFlags() {
         ArrayList<Coordinates> returnArray = new ArrayList<>();
-        for (MinesweeperGraphNode node: toFlag) {
-            returnArray.add(new Coordinates(node.getX(), node.getY()));
-            node.setKnown(true);
-            node.setBomb(true);
+        while (!toFlag.isEmpty()) {
+            int id = toFlag.poll();
+            returnArray.add(coordinatesOf(id));
+            graph.setKnown(id, true);
+            graph.setBomb(id, true);
         }
-        toFlag.clear();
         return returnArray;
     }
 
     /**
      * Updates the board according to the new board state newBoard
+     * Ignores the nodes that are deemed as known bombs by the solver
      * Updates frontier, so it only contains nodes that are in fact in the frontier
      * @param newBoard The new state of the board
      */
     @Override
     public void updateBoard(int[][] newBoard) {
-        ArrayList<MinesweeperGraphNode> difference = getDifference(newBoard);
+        for (int i = 0; i < longSideLength; i++)
+            for (int j = 0; j < shortSideLength; j++) {
+                int id = graph.getId(i, j);
+                int number = graph.parseIntoNumber(id);
+                if (newBoard[i][j] != number && number != -2)
+                    updateNode(id, newBoard[i][j]);
+            }
+
+        removeSolvedFrontier();
+    }
 
-        for (MinesweeperGraphNode node: difference) {
-            node.setKnown(true);
-            node.setValue(newBoard[node.getX()][node.getY()]);
-            if (!frontier.contains(node))
-                frontier.add(node);
+    /**
+     * Updates the board with only the cells that changed since the last update
+     * Ignores the nodes that are deemed as known bombs by the solver, same as in updateBoard
+     * @param changes The changed cells and their new values
+     */
+    @Override
+    public void applyChanges(BoardChanges changes) {
+        for (int i = 0; i < changes.size(); i++) {
+            Coordinates coordinates = changes.coordinates()[i];
+            int id = graph.getId(coordinates.x(), coordinates.y());
+            int number = graph.parseIntoNumber(id);
+            if (changes.values()[i] != number && number != -2)
+                updateNode(id, changes.values()[i]);
         }
 
-        frontier.removeIf(node -> !checkAdjacentForClosedCells(node));
+        removeSolvedFrontier();
     }
 
     /**
-     * Returns an array of the nodes that differ from the newBoard parameter
-     * Ignores the nodes that are deemed as known bombs by the solver
-     * @param newBoard The new state of the board
-     * @return An array of the nodes that differ
+     * Removes the nodes of the frontier that have no closed neighbours left
      */
-    protected ArrayList<MinesweeperGraphNode> getDifference(int[][] newBoard) {
-        ArrayList<MinesweeperGraphNode> difference = new ArrayList<>();
-
-        for (int i = 0; i < longSideLength; i++)
-            for (int j = 0; j < shortSideLength; j++)
-                if (newBoard[i][j] != board[i][j].parseIntoNumber() && board[i][j].parseIntoNumber() != -2)
-                    difference.add(board[i][j]);
+    protected void removeSolvedFrontier() {
+        for (int i = frontier.size() - 1; i >= 0; i--)
+            if (!graph.hasClosedNeighbour(frontier.get(i)))
+                frontier.remove(frontier.get(i));
+    }
 
-        return difference;
+    /**
+     * Sets the node as known with the given value and adds it to the frontier
+     * @param id The id of the node that changed
+     * @param value The new value of the node
+     */
+    protected void updateNode(int id, int value) {
+        graph.setKnown(id, true);
+        graph.setValue(id, value);
+        frontier.add(id);
     }
 }
@@ -1,10 +1,16 @@
 package Solver.LocalBruteForceSolver;
 
+import ModelMinesweeper.BitboardGrid;
+import Solver.BoardChanges;
 import Solver.Coordinates;
+import Solver.GuessSelector;
+import Solver.MoveBatch;
+import Solver.SimpleMinesweeper;
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.Assert.*;
 
@@ -26,13 +32,10 @@ public class LocalBruteForceSolverTests {
         assertEquals(solver.longSideLength, longSide);
         assertEquals(solver.shortSideLength, shortSide);
 
-        assertEquals(solver.board.length, longSide);
-        for (int i = 0; i < longSide; i++)
-            assertEquals(solver.board[i].length, shortSide);
-
+        assertEquals(solver.graph.getNumCells(), longSide * shortSide);
         for (int i = 0; i < longSide; i++)
             for (int j = 0; j < shortSide; j++)
-                assertEquals(solver.board[i][j].parseIntoNumber(), -1);
+                assertEquals(node(i, j).parseIntoNumber(), -1);
     }
 
     @Test
@@ -46,19 +49,21 @@ public class LocalBruteForceSolverTests {
                 for (int i = -1; i <= 1; i++)
                     for (int j = -1; j <= 1; j++)
                         if (x + i >= 0 && x + i < longSide && y + j >= 0 && y +j < shortSide && !(i == 0 && j ==0))
-                            assertTrue(solver.board[x][y].getNeighbours().contains(solver.board[x + i][y + j]));
+                            assertTrue(isNeighbour(node(x, y), solver.graph.getId(x + i, y + j)));
     }
 
     @Test
     public void getFlags() {
         solver = new LocalBruteForceSolver(1, 4, 3);
         ArrayList<MinesweeperGraphNode> toFlagArray = new ArrayList<>();
-        toFlagArray.add(solver.board[0][0]);
-        toFlagArray.add(solver.board[3][1]);
-        toFlagArray.add(solver.board[2][2]);
-        toFlagArray.add(solver.board[1][2]);
+        toFlagArray.add(node(0, 0));
+        toFlagArray.add(node(3, 1));
+        toFlagArray.add(node(2, 2));
+        toFlagArray.add(node(1, 2));
 
-        solver.toFlag.addAll(toFlagArray);
+        for (MinesweeperGraphNode node: toFlagArray)
+            solver.addToFlag(node.getId());
+        solver.addToFlag(toFlagArray.get(0).getId());
         assertEquals(solver.toFlag.size(), toFlagArray.size());
         ArrayList<Coordinates> resultToFlag = solver.getFlags();
         assertTrue(solver.toFlag.isEmpty());
@@ -86,18 +91,19 @@ public class LocalBruteForceSolverTests {
                 new Coordinates(3, 3), new Coordinates(4, 3)};
 
         for (int i = 0; i < alreadyChangedCoordinates.length; i++) {
-            solver.board[alreadyChangedCoordinates[i].x()][alreadyChangedCoordinates[i].y()].setKnown(true);
-            solver.board[alreadyChangedCoordinates[i].x()][alreadyChangedCoordinates[i].y()].setValue(alreadySetValues[i]);
+            node(alreadyChangedCoordinates[i].x(), alreadyChangedCoordinates[i].y()).setKnown(true);
+            node(alreadyChangedCoordinates[i].x(), alreadyChangedCoordinates[i].y()).setValue(alreadySetValues[i]);
         }
 
         for (Coordinates coordinates: setBombs) {
-            solver.board[coordinates.x()][coordinates.y()].setBomb(true);
-            solver.board[coordinates.x()][coordinates.y()].setKnown(true);
+            node(coordinates.x(), coordinates.y()).setBomb(true);
+            node(coordinates.x(), coordinates.y()).setKnown(true);
         }
 
         solver.updateBoard(board);
         assertEquals(solver.frontier.size(), changeCoordinates.length);
-        for (MinesweeperGraphNode node: solver.frontier) {
+        for (int k = 0; k < solver.frontier.size(); k++) {
+            MinesweeperGraphNode node = new MinesweeperGraphNode(solver.graph, solver.frontier.get(k));
             boolean found = false;
             for (int i = 0; i < changeCoordinates.length; i++) {
                 if (node.getX() == changeCoordinates[i].x() && node.getY() == changeCoordinates[i].y()) {
@@ -116,20 +122,186 @@ public class LocalBruteForceSolverTests {
 
         for (int i = 0; i < 3; i++)
             for (int j = 0; j < 3; j++) {
-                solver.board[i][j].setKnown(true);
-                solver.board[i][j].setValue(1);
+                node(i, j).setKnown(true);
+                node(i, j).setValue(1);
             }
 
-        solver.board[0][1].setKnown(false);
-        solver.board[2][1].setKnown(false);
-        solver.board[2][0].setValue(2);
-        solver.frontier.add(solver.board[2][0]);
+        node(0, 1).setKnown(false);
+        node(2, 1).setKnown(false);
+        node(2, 0).setValue(2);
+        solver.frontier.add(solver.graph.getId(2, 0));
 
         solver.updateBoard(board);
         assertEquals(solver.frontier.size(), 1);
-        assertTrue(solver.frontier.contains(solver.board[2][0]));
-        assertTrue(solver.board[0][1].getKnown());
-        assertEquals(solver.board[0][1].getValue(), 0);
+        assertTrue(solver.frontier.contains(solver.graph.getId(2, 0)));
+        assertTrue(node(0, 1).getKnown());
+        assertEquals(node(0, 1).getValue(), 0);
+    }
+
+    @Test
+    public void applyChanges() {
+        solver = new LocalBruteForceSolver(0, 3, 3);
+        node(1, 1).setKnown(true);
+        node(1, 1).setBomb(true);
+
+        BoardChanges changes = new BoardChanges(new Coordinates[]{new Coordinates(0, 0), new Coordinates(1, 1),
+                new Coordinates(2, 2)}, new int[]{1, -1, 1});
+        solver.applyChanges(changes);
+
+        assertEquals(solver.frontier.size(), 2);
+        assertTrue(solver.frontier.contains(solver.graph.getId(0, 0)));
+        assertTrue(solver.frontier.contains(solver.graph.getId(2, 2)));
+        assertEquals(node(0, 0).parseIntoNumber(), 1);
+        assertEquals(node(1, 1).parseIntoNumber(), -2);
+        assertEquals(node(2, 2).parseIntoNumber(), 1);
+        assertEquals(node(0, 1).parseIntoNumber(), -1);
+    }
+
+    @Test
+    public void getIndependentComponents() {
+        solver = new LocalBruteForceSolver(0, 5, 2);
+        for (int i = 0; i < 5; i++) {
+            node(i, 0).setKnown(true);
+            node(i, 0).setValue(1);
+        }
+
+        int[] searchFrontier = {solver.graph.getId(0, 0), solver.graph.getId(4, 0), solver.graph.getId(1, 0)};
+        int numComponents = solver.getIndependentComponents(searchFrontier, searchFrontier.length);
+
+        assertEquals(numComponents, 2);
+        assertEquals(solver.componentStart[1] - solver.componentStart[0], 2);
+        assertEquals(solver.componentCells[0], solver.graph.getId(0, 0));
+        assertEquals(solver.componentCells[1], solver.graph.getId(1, 0));
+        assertEquals(solver.componentStart[2] - solver.componentStart[1], 1);
+        assertEquals(solver.componentCells[2], solver.graph.getId(4, 0));
+    }
+
+    @Test
+    public void getSearchFrontier() {
+        solver = new LocalBruteForceSolver(1, 3, 3);
+        int[][] board = {{1, 1, -1}, {0, 1, -1}, {0, 1, -1}};
+        solver.updateBoard(board);
+
+        solver.getSearchFrontier(solver.graph.getId(1, 1));
+        assertEquals(solver.searchFrontierSize, 3);
+        assertEquals(solver.searchFrontier[0], solver.graph.getId(1, 1));
+        for (int i = 1; i < solver.searchFrontierSize; i++)
+            assertEquals(solver.graph.getY(solver.searchFrontier[i]), 1);
+    }
+
+    @Test
+    public void bruteForceWrapper() {
+        solver = new LocalBruteForceSolver(2, 3, 2);
+        int[][] board = {{1, -1}, {1, -1}, {0, -1}};
+        solver.updateBoard(board);
+
+        solver.bruteForceWrapper(solver.graph.getId(0, 0));
+        assertEquals(solver.toFlag.size(), 1);
+        assertTrue(solver.toFlag.contains(solver.graph.getId(0, 1)));
+        assertEquals(solver.certainNumberCells.size(), 2);
+        assertTrue(solver.certainNumberCells.contains(solver.graph.getId(1, 1)));
+        assertTrue(solver.certainNumberCells.contains(solver.graph.getId(2, 1)));
+    }
+
+    @Test
+    public void nextMoves() {
+        solver = new LocalBruteForceSolver(2, 4, 2);
+        int[][] board = {{1, -1}, {1, -1}, {0, -1}, {0, -1}};
+        solver.updateBoard(board);
+
+        MoveBatch batch = new MoveBatch(4, 2);
+        solver.nextMoves(batch);
+        assertEquals(batch.getNumFlags(), 1);
+        assertEquals(batch.getFlagCoordinates().get(0), new Coordinates(0, 1));
+        assertTrue(node(0, 1).getBomb());
+        ArrayList<Coordinates> opens = batch.getOpenCoordinates();
+        assertEquals(opens.size(), 3);
+        assertTrue(opens.contains(new Coordinates(1, 1)));
+        assertTrue(opens.contains(new Coordinates(2, 1)));
+        assertTrue(opens.contains(new Coordinates(3, 1)));
+        assertTrue(solver.certainNumberCells.isEmpty());
+        assertTrue(solver.toFlag.isEmpty());
+    }
+
+    @Test
+    public void guessSkipsKnownCells() {
+        solver = new LocalBruteForceSolver(1, 3, 2);
+        int[][] board = {{1, 1}, {-1, -1}, {-1, -1}};
+        solver.updateBoard(board);
+
+        // no frontier while the opening cell (0, 0) is open
+        for (int i = solver.frontier.size() - 1; i >= 0; i--)
+            solver.frontier.remove(solver.frontier.get(i));
+        assertFalse(solver.graph.known[solver.guess()]);
+    }
+
+    @Test
+    public void guessSelector() {
+        // the 1 at (0, 0) has a mine among its three closed neighbours, the six cells away from it share one mine
+        solver = new LocalBruteForceSolver(1, 5, 2);
+        solver.useGuessSelector(new GuessSelector(5, 2, 2, 0));
+        int[][] board = {{1, -1}, {-1, -1}, {-1, -1}, {-1, -1}, {-1, -1}};
+        solver.updateBoard(board);
+
+        MoveBatch batch = new MoveBatch(5, 2);
+        solver.nextMoves(batch);
+        assertEquals(batch.getNumOpens(), 1);
+        assertTrue(batch.getOpenCoordinates().get(0).x() >= 2);
+    }
+
+    @Test
+    public void parallelSearchMakesSameMoves() {
+        // width 3 searches reach components large enough to be split, both solvers must make every move the same
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (long seed = 0; seed < 8; seed++) {
+                BitboardGrid sequentialGrid = new BitboardGrid(30, 16, 99);
+                BitboardGrid parallelGrid = new BitboardGrid(30, 16, 99);
+                sequentialGrid.useSafeFirstClick(true, true);
+                parallelGrid.useSafeFirstClick(true, true);
+                SimpleMinesweeper sequentialGame = new SimpleMinesweeper(sequentialGrid, false);
+                SimpleMinesweeper parallelGame = new SimpleMinesweeper(parallelGrid, false);
+                sequentialGame.reset(seed);
+                parallelGame.reset(seed);
+                LocalBruteForceSolver sequential = new LocalBruteForceSolver(3, 30, 16);
+                solver = new LocalBruteForceSolver(3, 30, 16);
+                solver.useParallelSearch(pool, 2);
+                MoveBatch sequentialMoves = new MoveBatch(30, 16);
+                MoveBatch parallelMoves = new MoveBatch(30, 16);
+
+                while (!sequentialGame.isGameLost() && !sequentialGame.isGameWon()) {
+                    sequentialMoves.clear();
+                    parallelMoves.clear();
+                    sequential.nextMoves(sequentialMoves);
+                    solver.nextMoves(parallelMoves);
+                    assertEquals(sequentialMoves.getOpenCoordinates(), parallelMoves.getOpenCoordinates());
+                    assertEquals(sequentialMoves.getFlagCoordinates(), parallelMoves.getFlagCoordinates());
+
+                    sequentialGame.applyMoves(sequentialMoves);
+                    sequential.applyChanges(sequentialGame.getChanges());
+                    parallelGame.applyMoves(parallelMoves);
+                    solver.applyChanges(parallelGame.getChanges());
+                }
+                assertEquals(sequentialGame.isGameWon(), parallelGame.isGameWon());
+                assertEquals(sequentialGame.isGameLost(), parallelGame.isGameLost());
+            }
+            assertTrue(pool.getPoolSize() > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @return A view of the cell at (x, y) of the graph of the solver
+     */
+    private MinesweeperGraphNode node(int x, int y) {
+        return new MinesweeperGraphNode(solver.graph, solver.graph.getId(x, y));
+    }
+
+    private static boolean isNeighbour(MinesweeperGraphNode node, int id) {
+        for (int k = 0; k < node.getNumNeighbours(); k++)
+            if (node.getNeighbour(k) == id) return true;
+        return false;
     }
 
 //    @Test
@@ -0,0 +1,102 @@
+package Solver.LocalBruteForceSolver;
+
+import Solver.NeighbourTable;
+
+/**
+ * Index based graph which represents the minesweeper board
+ *
+ * The cell at (x, y) has id x * shortSideLength + y. The state of the cells is kept in parallel primitive arrays, and
+ * the neighbours of cell id are neighbours[neighbourStart[id]] up to neighbours[neighbourStart[id + 1] - 1].
+ * The neighbour table only depends on the dimensions of the board, so it is the NeighbourTable shared by every
+ * solver of the same size.
+ */
+public class MinesweeperGraph {
+    protected final int longSideLength;
+    protected final int shortSideLength;
+    protected final int numCells;
+    protected final int[] neighbourStart;
+    protected final int[] neighbours;
+
+    protected final boolean[] known;
+    protected final boolean[] bomb;
+    protected final byte[] value;
+
+    /**
+     * Creates a graph where every cell is unknown
+     *
+     * @param longSideLength The size of the long side of the board, must be non-zero positive number
+     * @param shortSideLength The size of the short side of the board, must be non-zero positive number
+     */
+    public MinesweeperGraph(int longSideLength, int shortSideLength) {
+        NeighbourTable table = NeighbourTable.of(longSideLength, shortSideLength);
+        this.longSideLength = longSideLength;
+        this.shortSideLength = shortSideLength;
+        this.numCells = longSideLength * shortSideLength;
+        this.neighbourStart = table.start();
+        this.neighbours = table.neighbours();
+
+        this.known = new boolean[numCells];
+        this.bomb = new boolean[numCells];
+        this.value = new byte[numCells];
+        for (int id = 0; id < numCells; id++)
+            value[id] = -1;
+    }
+
+    public int getId(int x, int y) {
+        return x * shortSideLength + y;
+    }
+
+    public int getX(int id) {
+        return id / shortSideLength;
+    }
+
+    public int getY(int id) {
+        return id % shortSideLength;
+    }
+
+    public int getNumCells() {
+        return numCells;
+    }
+
+    public boolean getKnown(int id) {
+        return known[id];
+    }
+
+    public boolean getBomb(int id) {
+        return bomb[id];
+    }
+
+    public int getValue(int id) {
+        return value[id];
+    }
+
+    public void setKnown(int id, boolean isKnown) {
+        known[id] = isKnown;
+    }
+
+    public void setBomb(int id, boolean isBomb) {
+        bomb[id] = isBomb;
+    }
+
+    public void setValue(int id, int value) {
+        this.value[id] = (byte) value;
+    }
+
+    /**
+     * @return The value of the cell in the encoding of the board matrix, -1 if unknown, -2 if a known bomb
+     */
+    public int parseIntoNumber(int id) {
+        if (!known[id]) return -1;
+        if (bomb[id]) return -2;
+        return value[id];
+    }
+
+    /**
+     * @return True if at least one neighbour of the cell is unknown
+     */
+    public boolean hasClosedNeighbour(int id) {
+        for (int k = neighbourStart[id]; k < neighbourStart[id + 1]; k++)
+            if (!known[neighbours[k]]) return true;
+        return false;
+    }
+}
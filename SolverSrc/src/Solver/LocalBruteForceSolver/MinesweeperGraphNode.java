@@ -1,76 +1,80 @@
 package Solver.LocalBruteForceSolver;
 
-import java.util.ArrayList;
-
 /**
- * The node of a graph which represents the minesweeper board
+ * A node of the graph which represents the minesweeper board
+ *
+ * The node keeps no state of its own, it reads and writes the arrays of its MinesweeperGraph. Two nodes are equal if
+ * they are the same cell of the same graph. The solvers work on ids and never make nodes, a node is only a view of a
+ * cell for code outside of them.
  */
 public class MinesweeperGraphNode {
-    protected ArrayList<MinesweeperGraphNode> neighbours;
-    protected boolean known;
-    protected boolean bomb;
-    protected int value;
-    protected int x;
-    protected int y;
-
-    public MinesweeperGraphNode(int x, int y) {
-        neighbours = new ArrayList<>();
-        known = false;
-        bomb = false;
-        value = -1;
-        this.x = x;
-        this.y = y;
-    }
+    protected final MinesweeperGraph graph;
+    protected final int id;
 
-    public void addNeighbours(MinesweeperGraphNode node) {
-        if (!neighbours.contains(node))
-            neighbours.add(node);
+    public MinesweeperGraphNode(MinesweeperGraph graph, int id) {
+        this.graph = graph;
+        this.id = id;
     }
 
-    public void addNeighbours(ArrayList<MinesweeperGraphNode> neighbourNodes) {
-        for (MinesweeperGraphNode node: neighbourNodes)
-            addNeighbours(node);
+    public int parseIntoNumber() {
+        return graph.parseIntoNumber(id);
     }
 
-    public int parseIntoNumber() {
-        if (!known) return -1;
-        if (bomb) return -2;
-        return value;
+    public int getNumNeighbours() {
+        return graph.neighbourStart[id + 1] - graph.neighbourStart[id];
     }
 
-    public ArrayList<MinesweeperGraphNode> getNeighbours () {
-        return neighbours;
+    /**
+     * @return The id of the k-th neighbour, 0 <= k < getNumNeighbours()
+     */
+    public int getNeighbour(int k) {
+        if (k < 0 || k >= getNumNeighbours()) throw new IndexOutOfBoundsException(k);
+        return graph.neighbours[graph.neighbourStart[id] + k];
     }
 
     public boolean getKnown() {
-        return known;
+        return graph.getKnown(id);
     }
 
     public boolean getBomb() {
-        return bomb;
+        return graph.getBomb(id);
     }
 
     public void setBomb(boolean isBomb) {
-        bomb = isBomb;
+        graph.setBomb(id, isBomb);
     }
 
     public void setKnown(boolean isKnown) {
-        known = isKnown;
+        graph.setKnown(id, isKnown);
     }
 
     public int getValue() {
-        return value;
+        return graph.getValue(id);
+    }
+
+    public int getId() {
+        return id;
     }
 
     public int getX() {
-        return x;
+        return graph.getX(id);
     }
 
     public int getY() {
-        return y;
+        return graph.getY(id);
     }
 
     public void setValue(int value) {
-        this.value = value;
+        graph.setValue(id, value);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof MinesweeperGraphNode node && node.graph == graph && node.id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
     }
 }
@@ -3,12 +3,14 @@ package Solver.LocalBruteForceSolver;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 
 public class MinesweeperGraphNodeTests {
 
     @Test
     public void parseIntoValue() {
-        MinesweeperGraphNode node = new MinesweeperGraphNode(2,3);
+        MinesweeperGraph graph = new MinesweeperGraph(4, 5);
+        MinesweeperGraphNode node = new MinesweeperGraphNode(graph, graph.getId(2, 3));
         assertEquals(node.parseIntoNumber(), -1);
 
         node.setKnown(true);
@@ -21,4 +23,16 @@ public class MinesweeperGraphNodeTests {
         node.setKnown(false);
         assertEquals(node.parseIntoNumber(), -1);
     }
+
+    @Test
+    public void equalsSameCell() {
+        MinesweeperGraph graph = new MinesweeperGraph(4, 5);
+        MinesweeperGraphNode node = new MinesweeperGraphNode(graph, graph.getId(2, 3));
+
+        assertEquals(node, new MinesweeperGraphNode(graph, graph.getId(2, 3)));
+        assertNotEquals(node, new MinesweeperGraphNode(graph, graph.getId(3, 2)));
+        assertNotEquals(node, new MinesweeperGraphNode(new MinesweeperGraph(4, 5), graph.getId(2, 3)));
+        assertEquals(node.getX(), 2);
+        assertEquals(node.getY(), 3);
+    }
 }
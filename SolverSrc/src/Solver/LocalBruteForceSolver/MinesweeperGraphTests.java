@@ -0,0 +1,51 @@
+package Solver.LocalBruteForceSolver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.Assert.*;
+
+public class MinesweeperGraphTests {
+
+    @Test
+    public void neighbourTable() {
+        int longSide = 7;
+        int shortSide = 5;
+        MinesweeperGraph graph = new MinesweeperGraph(longSide, shortSide);
+
+        for (int x = 0; x < longSide; x++)
+            for (int y = 0; y < shortSide; y++) {
+                int id = graph.getId(x, y);
+                int expected = 0;
+                for (int i = -1; i <= 1; i++)
+                    for (int j = -1; j <= 1; j++)
+                        if (x + i >= 0 && x + i < longSide && y + j >= 0 && y + j < shortSide && !(i == 0 && j == 0)) {
+                            expected++;
+                            boolean found = false;
+                            for (int k = graph.neighbourStart[id]; k < graph.neighbourStart[id + 1]; k++)
+                                found |= graph.neighbours[k] == graph.getId(x + i, y + j);
+                            assertTrue(found);
+                        }
+                assertEquals(graph.neighbourStart[id + 1] - graph.neighbourStart[id], expected);
+            }
+    }
+
+    @Test
+    public void neighbourTableShared() {
+        MinesweeperGraph graph = new MinesweeperGraph(6, 4);
+
+        assertSame(graph.neighbours, new MinesweeperGraph(6, 4).neighbours);
+        assertNotSame(graph.neighbours, new MinesweeperGraph(4, 6).neighbours);
+    }
+
+    @Test
+    public void hasClosedNeighbour() {
+        MinesweeperGraph graph = new MinesweeperGraph(2, 2);
+        for (int id = 0; id < graph.getNumCells(); id++)
+            graph.setKnown(id, true);
+        assertFalse(graph.hasClosedNeighbour(0));
+
+        graph.setKnown(3, false);
+        assertTrue(graph.hasClosedNeighbour(0));
+        assertFalse(graph.hasClosedNeighbour(3));
+    }
+}
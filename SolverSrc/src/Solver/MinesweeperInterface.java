@@ -6,8 +6,24 @@ public interface MinesweeperInterface {
 
     public void openCells(ArrayList<Coordinates> toOpen);
     public void flagCells(ArrayList<Coordinates> toFlag);
+
+    /**
+     * Opens the cells to open of batch, then flags its cells to flag
+     */
+    public void applyMoves(MoveBatch batch);
     public int[][] getBoard();
+
+    /**
+     * Writes the board into board instead of making a new matrix, passing the same matrix every call only writes the
+     * cells that changed since the previous call
+     */
+    public void exportBoard(int[][] board);
+    public BoardChanges getChanges();
     public int getLongSideLength();
     public int getShortSideLength();
+    public int getNumMines();
+    public boolean isMine(int x, int y);
     public void reset();
+    public boolean isGameLost();
+    public boolean isGameWon();
 }
@@ -0,0 +1,145 @@
+package Solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The cells a solver opens and flags in one step, packed as cell ids so the same batch can be reused every step
+ *
+ * The cell at (x, y) has id x * shortSideLength + y, same as NeighbourTable. A cell is added at most once to the opens
+ * and once to the flags of a batch, so a cell found by several searches is opened once and a flag is never toggled
+ * back by a repeated move.
+ */
+public class MoveBatch {
+    private static final byte OPEN = 1;
+    private static final byte FLAG = 2;
+
+    protected final int longSideLength;
+    protected final int shortSideLength;
+    protected int[] opens;
+    protected int numOpens;
+    protected int[] flags;
+    protected int numFlags;
+    /**
+     * OPEN and FLAG bits of the cells in the batch, by cell id
+     */
+    protected final byte[] added;
+
+    /**
+     * @param longSideLength The size of the long side of the board, must be non-zero positive number
+     * @param shortSideLength The size of the short side of the board, must be non-zero positive number
+     */
+    public MoveBatch(int longSideLength, int shortSideLength) {
+        if (shortSideLength < 1 || longSideLength < 1) throw new RuntimeException("Side must be larger than 0");
+
+        this.longSideLength = longSideLength;
+        this.shortSideLength = shortSideLength;
+        this.opens = new int[16];
+        this.flags = new int[16];
+        this.added = new byte[longSideLength * shortSideLength];
+    }
+
+    /**
+     * Adds the cell to the cells to open, after the ones already added
+     *
+     * @return False if the cell was already in the cells to open
+     */
+    public boolean addOpen(int id) {
+        if ((added[id] & OPEN) != 0) return false;
+        added[id] |= OPEN;
+        if (numOpens == opens.length) opens = Arrays.copyOf(opens, numOpens * 2);
+        opens[numOpens++] = id;
+        return true;
+    }
+
+    public boolean addOpen(int x, int y) {
+        return addOpen(getId(x, y));
+    }
+
+    /**
+     * Adds the cell to the cells to flag, after the ones already added
+     *
+     * @return False if the cell was already in the cells to flag
+     */
+    public boolean addFlag(int id) {
+        if ((added[id] & FLAG) != 0) return false;
+        added[id] |= FLAG;
+        if (numFlags == flags.length) flags = Arrays.copyOf(flags, numFlags * 2);
+        flags[numFlags++] = id;
+        return true;
+    }
+
+    public boolean addFlag(int x, int y) {
+        return addFlag(getId(x, y));
+    }
+
+    /**
+     * Empties the batch, only touches the cells that were added
+     */
+    public void clear() {
+        for (int i = 0; i < numOpens; i++)
+            added[opens[i]] = 0;
+        for (int i = 0; i < numFlags; i++)
+            added[flags[i]] = 0;
+        numOpens = 0;
+        numFlags = 0;
+    }
+
+    public int getNumOpens() {
+        return numOpens;
+    }
+
+    /**
+     * @return The id of the index-th cell to open, 0 <= index < getNumOpens()
+     */
+    public int getOpen(int index) {
+        return opens[index];
+    }
+
+    public int getNumFlags() {
+        return numFlags;
+    }
+
+    /**
+     * @return The id of the index-th cell to flag, 0 <= index < getNumFlags()
+     */
+    public int getFlag(int index) {
+        return flags[index];
+    }
+
+    public boolean isEmpty() {
+        return numOpens == 0 && numFlags == 0;
+    }
+
+    public int getId(int x, int y) {
+        return x * shortSideLength + y;
+    }
+
+    public int getX(int id) {
+        return id / shortSideLength;
+    }
+
+    public int getY(int id) {
+        return id % shortSideLength;
+    }
+
+    /**
+     * @return The cells to open as coordinates, in the order they were added
+     */
+    public ArrayList<Coordinates> getOpenCoordinates() {
+        ArrayList<Coordinates> coordinates = new ArrayList<>(numOpens);
+        for (int i = 0; i < numOpens; i++)
+            coordinates.add(new Coordinates(getX(opens[i]), getY(opens[i])));
+        return coordinates;
+    }
+
+    /**
+     * @return The cells to flag as coordinates, in the order they were added
+     */
+    public ArrayList<Coordinates> getFlagCoordinates() {
+        ArrayList<Coordinates> coordinates = new ArrayList<>(numFlags);
+        for (int i = 0; i < numFlags; i++)
+            coordinates.add(new Coordinates(getX(flags[i]), getY(flags[i])));
+        return coordinates;
+    }
+}
@@ -0,0 +1,66 @@
+package Solver;
+
+import ModelMinesweeper.BitboardGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class MoveBatchTests {
+
+    @Test
+    public void addIgnoresDuplicates() {
+        MoveBatch batch = new MoveBatch(4, 3);
+
+        assertTrue(batch.addOpen(2, 1));
+        assertTrue(batch.addOpen(0, 0));
+        assertFalse(batch.addOpen(7));
+        assertTrue(batch.addFlag(2, 1));
+        assertFalse(batch.addFlag(2, 1));
+
+        assertEquals(batch.getNumOpens(), 2);
+        assertEquals(batch.getOpen(0), 7);
+        assertEquals(batch.getOpen(1), 0);
+        assertEquals(batch.getNumFlags(), 1);
+        assertEquals(batch.getFlag(0), 7);
+
+        ArrayList<Coordinates> opens = batch.getOpenCoordinates();
+        assertEquals(opens.get(0), new Coordinates(2, 1));
+        assertEquals(opens.get(1), new Coordinates(0, 0));
+    }
+
+    @Test
+    public void clearAllowsAddingAgain() {
+        MoveBatch batch = new MoveBatch(20, 20);
+        for (int id = 0; id < 400; id++)
+            batch.addOpen(id);
+        batch.addFlag(5);
+        assertEquals(batch.getNumOpens(), 400);
+
+        batch.clear();
+        assertTrue(batch.isEmpty());
+        assertTrue(batch.addOpen(5));
+        assertTrue(batch.addFlag(5));
+        assertEquals(batch.getNumOpens(), 1);
+    }
+
+    @Test
+    public void appliedInOneCall() {
+        SimpleMinesweeper game = new SimpleMinesweeper(new BitboardGrid(4, 3, 1), false);
+        game.reset(new long[]{1L});
+        MoveBatch batch = new MoveBatch(4, 3);
+        batch.addOpen(3, 2);
+        batch.addFlag(0, 0);
+
+        game.applyMoves(batch);
+        assertTrue(game.isGameWon());
+        BoardChanges changes = game.getChanges();
+        assertEquals(changes.size(), 12);
+        assertEquals(changes.coordinates()[0], new Coordinates(0, 0));
+        assertEquals(changes.values()[0], -2);
+        for (int i = 1; i < changes.size(); i++)
+            assertTrue(batch.getId(changes.coordinates()[i - 1].x(), changes.coordinates()[i - 1].y()) <
+                    batch.getId(changes.coordinates()[i].x(), changes.coordinates()[i].y()));
+    }
+}
@@ -1,12 +1,20 @@
 package Solver.NaiveSolver;
 
+import Solver.BoardChanges;
+import Solver.CellQueue;
 import Solver.Coordinates;
+import Solver.Frontier;
+import Solver.GuessSelector;
+import Solver.MoveBatch;
+import Solver.NeighbourTable;
 import Solver.SolverAdapter;
+import Solver.SolverMetrics;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * A naive solver for minesweeper.
@@ -23,10 +31,28 @@ public class NaiveSolver implements SolverAdapter {
     protected int[][] board;
     protected int longSideLength;
     protected int shortSideLength;
-    protected ArrayList<Coordinates> frontier;
+    /**
+     * Number cells that still have closed neighbours, by id of neighbourTable
+     */
+    protected Frontier frontier;
 
-    protected ArrayList<Coordinates> certainNumberCells;
-    protected ArrayList<Coordinates> toFlag;
+    /**
+     * Ids of the cells found safe and found to be bombs that were not returned yet
+     */
+    protected CellQueue certainNumberCells;
+    protected CellQueue toFlag;
+
+    protected NeighbourTable neighbourTable;
+    /**
+     * Closed neighbours of the cell being analyzed, reused so walking the neighbours does not allocate
+     */
+    protected int[] closedNeighbours;
+    protected SolverMetrics metrics;
+    /**
+     * Cell opened when the board has no open cell, the corner (longSideLength - 1, shortSideLength - 1) by default
+     */
+    protected Coordinates openingCell;
+    protected GuessSelector guessSelector;
 
     /**
      *
@@ -44,10 +70,14 @@ public class NaiveSolver implements SolverAdapter {
         this.board = board;
         this.longSideLength = longSideLength;
         this.shortSideLength = shortSideLength;
-        this.frontier = new ArrayList<>();
+        this.neighbourTable = NeighbourTable.of(longSideLength, shortSideLength);
+        this.frontier = new Frontier(longSideLength * shortSideLength);
 
-        this.certainNumberCells = new ArrayList<Coordinates>();
-        this.toFlag = new ArrayList<Coordinates>();
+        this.certainNumberCells = new CellQueue(longSideLength * shortSideLength);
+        this.toFlag = new CellQueue(longSideLength * shortSideLength);
+
+        this.closedNeighbours = new int[8];
+        this.openingCell = new Coordinates(longSideLength - 1, shortSideLength - 1);
     }
 
     /**
@@ -57,15 +87,57 @@ public class NaiveSolver implements SolverAdapter {
      */
     @Override
     public Coordinates step() {
-        if (frontier.size() == 0) return new Coordinates(longSideLength - 1,shortSideLength - 1);
+        if (metrics != null) metrics.recordFrontier(frontier.size());
+        if (frontier.isEmpty() && board[openingCell.x()][openingCell.y()] == -1) {
+            if (metrics != null) metrics.recordGuess();
+            return openingCell;
+        }
         findBombs();
-        return search();
+        return coordinatesOf(search());
+    }
+
+    /**
+     * Flags every bomb and opens every safe cell of the frontier that can be found in one pass, guesses if there is
+     * none
+     *
+     * @param batch The batch the moves are added to
+     */
+    @Override
+    public void nextMoves(MoveBatch batch) {
+        if (metrics != null) metrics.recordFrontier(frontier.size());
+        if (frontier.isEmpty() && certainNumberCells.isEmpty() && board[openingCell.x()][openingCell.y()] == -1) {
+            if (metrics != null) metrics.recordGuess();
+            batch.addOpen(openingCell.x(), openingCell.y());
+        } else {
+            findBombs();
+            while (!certainNumberCells.isEmpty())
+                batch.addOpen(certainNumberCells.poll());
+            findSafeCells(batch);
+            if (batch.getNumOpens() == 0) batch.addOpen(guess());
+        }
+
+        while (!toFlag.isEmpty())
+            batch.addFlag(toFlag.poll());
+    }
+
+    @Override
+    public void setOpeningCell(Coordinates openingCell) {
+        if (openingCell.x() < 0 || openingCell.x() >= longSideLength || openingCell.y() < 0 ||
+                openingCell.y() >= shortSideLength)
+            throw new RuntimeException("Opening cell must be inside the board");
+        this.openingCell = openingCell;
+    }
+
+    @Override
+    public void useGuessSelector(GuessSelector guessSelector) {
+        this.guessSelector = guessSelector;
     }
 
     @Override
     public ArrayList<Coordinates> getNextSteps() {
-        ArrayList<Coordinates> aux = new ArrayList<>(certainNumberCells);
-        certainNumberCells.clear();
+        ArrayList<Coordinates> aux = new ArrayList<>();
+        while (!certainNumberCells.isEmpty())
+            aux.add(coordinatesOf(certainNumberCells.poll()));
         return aux;
     }
 
@@ -73,13 +145,14 @@ public class NaiveSolver implements SolverAdapter {
      * Generates a map of cell coordinates that have different values between the field board and the parameter newBoard
      * to the value in newBoard
      * Cells that have value -2 (mines) in the field board are not added to the map
+     * The map iterates the cells by id, the order BoardChanges gives them in, so both updates make the same moves
      *
      * @param newBoard the new board that is being compared
      *
      * @return a map of the difference between field and parameter
      */
     protected Map<Coordinates, Integer> getDifference(int[][] newBoard) {
-        Map<Coordinates, Integer> returnMap = new HashMap<Coordinates, Integer>();
+        Map<Coordinates, Integer> returnMap = new LinkedHashMap<Coordinates, Integer>();
 
         for (int i = 0; i < longSideLength; i++)
             for (int j = 0; j < shortSideLength; j++)
@@ -110,6 +183,24 @@ public class NaiveSolver implements SolverAdapter {
         update(changedCoordinates, changedValues);
     }
 
+    /**
+     * Updates the solver with only the cells that changed since the last update
+     * Cells that have value -2 (mines) in the field board are ignored, same as in updateBoard
+     * The board and the frontier are updated in place, so a step does not allocate
+     *
+     * @param changes The changed cells and their new values
+     */
+    @Override
+    public void applyChanges(BoardChanges changes) {
+        for (int i = 0; i < changes.size(); i++) {
+            Coordinates coordinate = changes.coordinates()[i];
+            int value = changes.values()[i];
+            if (value != board[coordinate.x()][coordinate.y()] && board[coordinate.x()][coordinate.y()] != -2)
+                setCell(coordinate.x(), coordinate.y(), value);
+        }
+        updateFrontier();
+    }
+
     /**
      * Updates the object with the changed cells
      *
@@ -117,33 +208,53 @@ public class NaiveSolver implements SolverAdapter {
      * @param values The list of values of the cells that have been changed
      */
     protected void update(Coordinates[] coordinates, int[] values) {
-        for (int i = 0; i < coordinates.length; i++) {
-            board[coordinates[i].x()][coordinates[i].y()] = values[i];
-            frontier.add(coordinates[i]);
-        }
+        for (int i = 0; i < coordinates.length; i++)
+            setCell(coordinates[i].x(), coordinates[i].y(), values[i]);
+        updateFrontier();
+    }
+
+    /**
+     * Writes the new value of a changed cell to the board and adds it to the frontier, updateFrontier removes it
+     * again if it has no closed neighbours
+     */
+    protected void setCell(int x, int y, int value) {
+        board[x][y] = value;
+        frontier.add(neighbourTable.getId(x, y));
+    }
+
+    /**
+     * Removes every cell without closed neighbours from the frontier
+     */
+    protected void updateFrontier() {
         for (int i = frontier.size() - 1; i >= 0; i--)
             updateFrontierElement(frontier.get(i));
     }
 
     @Override
     public ArrayList<Coordinates> getFlags() {
-        ArrayList<Coordinates> returnArray = new ArrayList<>(toFlag);
-        toFlag.clear();
+        ArrayList<Coordinates> returnArray = new ArrayList<>();
+        while (!toFlag.isEmpty())
+            returnArray.add(coordinatesOf(toFlag.poll()));
         return returnArray;
     }
 
+    @Override
+    public void useMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * removes the cell from the frontier if it has no closed cells adjacent to it
      *
-     * @param coordinate The coordinate of the cell being analyzed
+     * @param id The id of the cell being analyzed
      */
-    protected void updateFrontierElement(Coordinates coordinate) {
-        Iterator<Coordinates> iterator = new CoordinateIterable(coordinate, longSideLength, shortSideLength).iterator();
-        while (iterator.hasNext()) {
-            Coordinates currentCoordinates = iterator.next();
-            if (board[currentCoordinates.x()][currentCoordinates.y()] == -1) return;
-        }
-        frontier.remove(coordinate);
+    protected void updateFrontierElement(int id) {
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+
+        for (int k = start[id]; k < start[id + 1]; k++)
+            if (valueOf(neighbours[k]) == -1) return;
+        frontier.remove(id);
     }
 
     /**
@@ -151,23 +262,24 @@ public class NaiveSolver implements SolverAdapter {
      * Adds findings to toFlag field so minesweeper game can be flagged as well
      */
     protected void findBombs() {
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+
         for (int k = frontier.size() - 1; k >= 0; k--) {
-            Coordinates coordinate = frontier.get(k);
-            int numOpenCells = 0;
+            int id = frontier.get(k);
             int numBombCells = 0;
-            ArrayList<Coordinates> closedCells = new ArrayList<Coordinates>();
-            Iterator<Coordinates> iterator = new CoordinateIterable(coordinate, longSideLength, shortSideLength).iterator();
-            while (iterator.hasNext()) {
-                Coordinates currentCoordinates = iterator.next();
-                if (board[currentCoordinates.x()][currentCoordinates.y()] == -2) numBombCells++;
-                else if (board[currentCoordinates.x()][currentCoordinates.y()] > -1) numOpenCells++;
-                else closedCells.add(new Coordinates(currentCoordinates.x(), currentCoordinates.y()));
+            int numClosedCells = 0;
+            for (int n = start[id]; n < start[id + 1]; n++) {
+                int value = valueOf(neighbours[n]);
+                if (value == -2) numBombCells++;
+                else if (value == -1) closedNeighbours[numClosedCells++] = neighbours[n];
             }
-            if (numBombCells + closedCells.size() == board[coordinate.x()][coordinate.y()]) {
-                for (Coordinates bombCoordinates : closedCells)
-                    board[bombCoordinates.x()][bombCoordinates.y()] = -2;
-                toFlag.addAll(closedCells);
-                frontier.remove(coordinate);
+            if (numBombCells + numClosedCells == valueOf(id)) {
+                for (int c = 0; c < numClosedCells; c++) {
+                    board[neighbourTable.getX(closedNeighbours[c])][neighbourTable.getY(closedNeighbours[c])] = -2;
+                    toFlag.add(closedNeighbours[c]);
+                }
+                frontier.remove(id);
             }
         }
     }
@@ -175,90 +287,130 @@ public class NaiveSolver implements SolverAdapter {
     /**
      * Searches the frontier for a certain mine free cell
      *
-     * @return The coordinates of the solver's guess of a mine free cell
+     * @return The id of the solver's guess of a mine free cell
      */
-    protected Coordinates search() {
+    protected int search() {
         if (!certainNumberCells.isEmpty()) {
-            return certainNumberCells.remove(0);
+            return certainNumberCells.poll();
         }
 
-        for (Coordinates coordinate: frontier) {
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+
+        for (int k = 0; k < frontier.size(); k++) {
+            int id = frontier.get(k);
             int numAdjacentBombs = 0;
-            ArrayList<Coordinates> closedCells = new ArrayList<Coordinates>();
-            Iterator<Coordinates> iterator = new CoordinateIterable(coordinate, longSideLength, shortSideLength)
-                    .iterator();
-            while(iterator.hasNext()) {
-                Coordinates current = iterator.next();
-                if (board[current.x()][current.y()] == -2) numAdjacentBombs++;
-                else if (board[current.x()][current.y()] == -1)
-                    closedCells.add(new Coordinates(current.x(), current.y()));
+            int numClosedCells = 0;
+            for (int n = start[id]; n < start[id + 1]; n++) {
+                int value = valueOf(neighbours[n]);
+                if (value == -2) numAdjacentBombs++;
+                else if (value == -1) closedNeighbours[numClosedCells++] = neighbours[n];
             }
-            if (numAdjacentBombs == board[coordinate.x()][coordinate.y()] && !closedCells.isEmpty()) {
-                Coordinates poppedCoordinate = closedCells.remove(0);
-                certainNumberCells.addAll(closedCells);
-                frontier.remove(coordinate);
-                return poppedCoordinate;
+            if (numAdjacentBombs == valueOf(id) && numClosedCells > 0) {
+                for (int c = 1; c < numClosedCells; c++)
+                    certainNumberCells.add(closedNeighbours[c]);
+                frontier.remove(id);
+                return closedNeighbours[0];
             }
         }
 
-        Coordinates aux = frontier.get(0);
+        return guess();
+    }
 
-        Iterator<Coordinates> iterator = new CoordinateIterable(aux,longSideLength,shortSideLength).iterator();
-        while (iterator.hasNext()) {
-            Coordinates current = iterator.next();
-            if (board[current.x()][current.y()] == -1) return new Coordinates(current.x(), current.y());
+    /**
+     * Adds the closed neighbours of every frontier cell that already has all its bombs around it to batch, the cells
+     * are removed from the frontier
+     *
+     * @param batch The batch the safe cells are added to
+     */
+    protected void findSafeCells(MoveBatch batch) {
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+
+        for (int k = frontier.size() - 1; k >= 0; k--) {
+            int id = frontier.get(k);
+            int numAdjacentBombs = 0;
+            int numClosedCells = 0;
+            for (int n = start[id]; n < start[id + 1]; n++) {
+                int value = valueOf(neighbours[n]);
+                if (value == -2) numAdjacentBombs++;
+                else if (value == -1) closedNeighbours[numClosedCells++] = neighbours[n];
+            }
+            if (numAdjacentBombs == valueOf(id) && numClosedCells > 0) {
+                for (int c = 0; c < numClosedCells; c++)
+                    batch.addOpen(closedNeighbours[c]);
+                frontier.remove(id);
+            }
         }
+    }
 
-        return new Coordinates(0,0);
+    /**
+     * Picks the next cell to open when no cell is certain, the cell ranked first by the guess selector if there is one,
+     * otherwise the first closed neighbour of the frontier, or the first closed cell of the board
+     *
+     * @return The id of the cell to guess
+     */
+    protected int guess() {
+        if (metrics != null) metrics.recordGuess();
+        if (guessSelector != null) {
+            guessSelector.clearEstimates();
+            for (int x = 0; x < longSideLength; x++)
+                for (int y = 0; y < shortSideLength; y++)
+                    guessSelector.setValue(x, y, board[x][y]);
+            int id = guessSelector.select();
+            if (id != -1) return id;
+        }
+
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+        if (!frontier.isEmpty()) {
+            int id = frontier.get(0);
+            for (int n = start[id]; n < start[id + 1]; n++)
+                if (valueOf(neighbours[n]) == -1) return neighbours[n];
+        }
+
+        for (int id = 0; id < longSideLength * shortSideLength; id++)
+            if (valueOf(id) == -1) return id;
+        return neighbourTable.getId(openingCell.x(), openingCell.y());
+    }
+
+    /**
+     * @return The value on the board of the cell with the given id of neighbourTable
+     */
+    protected int valueOf(int id) {
+        return board[id / shortSideLength][id % shortSideLength];
+    }
+
+    protected Coordinates coordinatesOf(int id) {
+        return new Coordinates(neighbourTable.getX(id), neighbourTable.getY(id));
     }
 
 
     /**
-     * Helper class to iterate through adjacent cells
+     * Helper class to iterate through adjacent cells, walks the shared NeighbourTable of the board
      */
     protected static class AdjacentCellIterator implements Iterator<Coordinates> {
 
-        private Coordinates coordinate;
-        private int longSide, shortSide;
-        private int i, j;
+        private NeighbourTable neighbourTable;
+        private int next, end;
 
         public AdjacentCellIterator(Coordinates coordinate, int longSide, int shortSide) {
-            this.coordinate = coordinate;
-            this.longSide = longSide;
-            this.shortSide = shortSide;
-            i = -1;
-            j = -1;
+            this.neighbourTable = NeighbourTable.of(longSide, shortSide);
+            int id = neighbourTable.getId(coordinate.x(), coordinate.y());
+            next = neighbourTable.start()[id];
+            end = neighbourTable.start()[id + 1];
         }
 
         @Override
         public boolean hasNext() {
-            boolean first = true;
-            for (int auxI = i; auxI < 2; auxI++) {
-                for (int auxJ = -1 ; auxJ < 2; auxJ++) {
-                    if (first) {auxJ = j; first = false;}
-                    if (checkInGrid(auxI, auxJ) && auxJ < 2)
-                        return true;
-                }
-            }
-            return false;
+            return next < end;
         }
 
         @Override
         public Coordinates next() {
-            while (!checkInGrid(i, j) || i > 1 || j > 1) {
-                j++;
-                if (j > 1) {
-                    j = -1;
-                    i++;
-                }
-            }
-            j++;
-            return new Coordinates(coordinate.x() + i, coordinate.y() + j - 1);
-        }
-
-        private boolean checkInGrid(int i, int j) {
-            return coordinate.x() + i >= 0 && coordinate.x() + i < longSide && coordinate.y() + j >= 0
-                    && coordinate.y() + j < shortSide && !(i == 0 && j == 0);
+            if (next >= end) throw new NoSuchElementException();
+            int id = neighbourTable.neighbours()[next++];
+            return new Coordinates(neighbourTable.getX(id), neighbourTable.getY(id));
         }
     }
 
@@ -4,7 +4,9 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
+import Solver.BoardChanges;
 import Solver.Coordinates;
+import Solver.MoveBatch;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -42,15 +44,15 @@ public class NaiveSolverTests {
         Coordinates[] notRemovedCoordinates = {new Coordinates(1, 0), new Coordinates(2, 1)};
 
         for (Coordinates removedCoordinate : removedCoordinates) {
-            naiveSolver.frontier.add(removedCoordinate);
-            naiveSolver.updateFrontierElement(removedCoordinate);
-            assertFalse(naiveSolver.frontier.contains(removedCoordinate));
+            naiveSolver.frontier.add(id(removedCoordinate));
+            naiveSolver.updateFrontierElement(id(removedCoordinate));
+            assertFalse(naiveSolver.frontier.contains(id(removedCoordinate)));
         }
 
         for (Coordinates notRemovedCoordinate : notRemovedCoordinates) {
-            naiveSolver.frontier.add(notRemovedCoordinate);
-            naiveSolver.updateFrontierElement(notRemovedCoordinate);
-            assertTrue(naiveSolver.frontier.contains(notRemovedCoordinate));
+            naiveSolver.frontier.add(id(notRemovedCoordinate));
+            naiveSolver.updateFrontierElement(id(notRemovedCoordinate));
+            assertTrue(naiveSolver.frontier.contains(id(notRemovedCoordinate)));
         }
     }
 
@@ -107,7 +109,7 @@ public class NaiveSolverTests {
             }
         assertEquals(changedCoordinates.length, naiveSolver.frontier.size());
         for (Coordinates coordinates: changedCoordinates)
-            assertTrue(naiveSolver.frontier.contains(coordinates));
+            assertTrue(naiveSolver.frontier.contains(id(coordinates)));
 
         changedBoard = new int[][]{{1, -1, -1, -1},{-1, -1, 8, 0},{7, -1, -1, -1},{-1, 5, 0, -2}};
         changedCoordinates = new Coordinates[]{new Coordinates(1, 2), new Coordinates(1, 3),
@@ -123,7 +125,18 @@ public class NaiveSolverTests {
             }
         assertEquals(changedCoordinates.length, naiveSolver.frontier.size());
         for (Coordinates coordinates: changedCoordinates)
-            assertTrue(naiveSolver.frontier.contains(coordinates));
+            assertTrue(naiveSolver.frontier.contains(id(coordinates)));
+    }
+
+    @Test
+    void updateTwiceKeepsSingleFrontierEntryTest() {
+        int[][] board = {{-1, -1, -1}, {-1, -1, -1}, {-1, -1, -1}};
+        naiveSolver = new NaiveSolver(board, 3, 3);
+
+        naiveSolver.update(new Coordinates[]{new Coordinates(1, 1)}, new int[]{1});
+        naiveSolver.update(new Coordinates[]{new Coordinates(1, 1)}, new int[]{2});
+        assertEquals(naiveSolver.frontier.size(), 1);
+        assertEquals(naiveSolver.board[1][1], 2);
     }
 
     @Test
@@ -141,7 +154,7 @@ public class NaiveSolverTests {
                 assertEquals(board[i][j], changedBoard[i][j]);
             }
         assertEquals(naiveSolver.frontier.size(), 1);
-        assertTrue(naiveSolver.frontier.contains(changedCoordinates[1]));
+        assertTrue(naiveSolver.frontier.contains(id(changedCoordinates[1])));
     }
 
     @Test
@@ -157,7 +170,24 @@ public class NaiveSolverTests {
                 assertEquals(board[i][j], changedBoard[i][j]);
             }
         assertEquals(naiveSolver.frontier.size(), 1);
-        assertTrue(naiveSolver.frontier.contains(new Coordinates(3,3)));
+        assertTrue(naiveSolver.frontier.contains(id(new Coordinates(3,3))));
+    }
+
+    @Test
+    void applyChangesTest() {
+        int[][] board = {{-1, -2, -1, 3},{-2, 1, 5, -1},{0, -1, -1, -1},{-1, -1, -2, -1}};
+        naiveSolver = new NaiveSolver(board, 4, 4);
+        BoardChanges changes = new BoardChanges(new Coordinates[]{new Coordinates(0, 0), new Coordinates(0, 1),
+                new Coordinates(3, 3)}, new int[]{1, -1, 0});
+
+        naiveSolver.applyChanges(changes);
+        int[][] changedBoard = {{1, -2, -1, 3},{-2, 1, 5, -1},{0, -1, -1, -1},{-1, -1, -2, 0}};
+        for (int i = 0; i < board.length; i++)
+            for (int j = 0; j < board[0].length; j++) {
+                assertEquals(board[i][j], changedBoard[i][j]);
+            }
+        assertEquals(naiveSolver.frontier.size(), 1);
+        assertTrue(naiveSolver.frontier.contains(id(new Coordinates(3,3))));
     }
 
     @Test
@@ -172,34 +202,34 @@ public class NaiveSolverTests {
                 new Coordinates(1, 0), new Coordinates(1, 1)};
 
         naiveSolver = new NaiveSolver(board, 4, 4);
-        naiveSolver.frontier.addAll(Arrays.asList(frontier));
+        for (Coordinates coordinates: frontier)
+            naiveSolver.frontier.add(id(coordinates));
         naiveSolver.findBombs();
 
         assertEquals(naiveSolver.frontier.size(), frontierPostFlagging.length);
         for (Coordinates coordinates: frontierPostFlagging)
-            assertTrue(naiveSolver.frontier.contains(coordinates));
+            assertTrue(naiveSolver.frontier.contains(id(coordinates)));
         for (int i = 0; i < 4; i++)
             for (int j = 0; j < 4; j++) {
                 assertEquals(flaggedBoard[i][j], naiveSolver.board[i][j]);
             }
         assertEquals(flaggedCoordinates.length, naiveSolver.toFlag.size());
         for (Coordinates coordinates: flaggedCoordinates)
-            assertTrue(naiveSolver.toFlag.contains(coordinates));
+            assertTrue(naiveSolver.toFlag.contains(id(coordinates)));
     }
 
     @Test
     void searchWithCertainNumberCells() {
         int[][] board = {{-1, -1, -1}, {-1, -1, -1}, {-1, -1, -1}};
         naiveSolver = new NaiveSolver(board, 3, 3);
-        naiveSolver.certainNumberCells.add(new Coordinates(2,1));
-        naiveSolver.certainNumberCells.add(new Coordinates(2,2));
+        naiveSolver.certainNumberCells.add(id(new Coordinates(2,1)));
+        naiveSolver.certainNumberCells.add(id(new Coordinates(2,2)));
 
-        Coordinates nextCoordinates = naiveSolver.search();
+        Coordinates nextCoordinates = naiveSolver.coordinatesOf(naiveSolver.search());
         assertEquals(nextCoordinates.x(), 2);
         assertEquals(nextCoordinates.y(), 1);
         assertEquals(naiveSolver.certainNumberCells.size(), 1);
-        Assertions.assertEquals(naiveSolver.certainNumberCells.get(0).x(), 2);
-        Assertions.assertEquals(naiveSolver.certainNumberCells.get(0).y(), 2);
+        Assertions.assertEquals(naiveSolver.certainNumberCells.get(0), id(new Coordinates(2,2)));
     }
 
     @Test
@@ -213,9 +243,9 @@ public class NaiveSolverTests {
         while (iterator.hasNext())
             elementsToExplore.add(iterator.next());
 
-        naiveSolver.frontier.add(new Coordinates(1,1));
+        naiveSolver.frontier.add(id(new Coordinates(1,1)));
         while (!elementsToExplore.isEmpty()) {
-            Coordinates step = naiveSolver.search();
+            Coordinates step = naiveSolver.coordinatesOf(naiveSolver.search());
             assertTrue(elementsToExplore.contains(step));
             naiveSolver.board[step.x()][step.y()] = 1;
             elementsToExplore.remove(step);
@@ -231,12 +261,12 @@ public class NaiveSolverTests {
                 new Coordinates(3,0)};
 
         for (Coordinates coordinates: frontier)
-            naiveSolver.frontier.add(coordinates);
-        Coordinates step = naiveSolver.search();
+            naiveSolver.frontier.add(id(coordinates));
+        Coordinates step = naiveSolver.coordinatesOf(naiveSolver.search());
         assertEquals(step.x(),2);
         assertEquals(step.y(),1);
         assertEquals(naiveSolver.frontier.size(), frontier.length - 1);
-        assertFalse(naiveSolver.frontier.contains(new Coordinates(3,0)));
+        assertFalse(naiveSolver.frontier.contains(id(new Coordinates(3,0))));
         assertEquals(naiveSolver.certainNumberCells.size(), 0);
     }
 
@@ -247,12 +277,35 @@ public class NaiveSolverTests {
         Coordinates[] frontier = {new Coordinates(1,0)};
 
         for (Coordinates coordinates: frontier)
-            naiveSolver.frontier.add(coordinates);
-        Coordinates step = naiveSolver.search();
+            naiveSolver.frontier.add(id(coordinates));
+        Coordinates step = naiveSolver.coordinatesOf(naiveSolver.search());
         assertEquals(step.x(),0);
         assertEquals(step.y(),1);
         assertEquals(naiveSolver.frontier.size(), 0);
         assertEquals(naiveSolver.certainNumberCells.size(), 1);
-        assertTrue(naiveSolver.certainNumberCells.contains(new Coordinates(2,1)));
+        assertTrue(naiveSolver.certainNumberCells.contains(id(new Coordinates(2,1))));
+    }
+
+    @Test
+    void nextMovesFindsEveryMoveTest() {
+        int[][] board = {{-1, -1, -1}, {-1, -1, -1}, {-1, -1, -1}};
+        naiveSolver = new NaiveSolver(board, 3, 3);
+        naiveSolver.updateBoard(new int[][]{{-1, 1, 0}, {1, 1, 0}, {-1, -1, -1}});
+
+        MoveBatch batch = new MoveBatch(3, 3);
+        naiveSolver.nextMoves(batch);
+        assertEquals(batch.getNumFlags(), 1);
+        assertEquals(batch.getFlagCoordinates().get(0), new Coordinates(0, 0));
+        assertEquals(batch.getNumOpens(), 3);
+        ArrayList<Coordinates> opens = batch.getOpenCoordinates();
+        assertTrue(opens.contains(new Coordinates(2, 0)));
+        assertTrue(opens.contains(new Coordinates(2, 1)));
+        assertTrue(opens.contains(new Coordinates(2, 2)));
+        assertTrue(naiveSolver.toFlag.isEmpty());
+        assertTrue(naiveSolver.certainNumberCells.isEmpty());
+    }
+
+    private int id(Coordinates coordinates) {
+        return naiveSolver.neighbourTable.getId(coordinates.x(), coordinates.y());
     }
 }
@@ -0,0 +1,90 @@
+package Solver;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The neighbours of every cell of a board, precomputed so the solvers can walk them without allocating
+ *
+ * The cell at (x, y) has id x * shortSideLength + y, and its neighbours are neighbours[start[id]] up to
+ * neighbours[start[id + 1] - 1], in the same order as the rows and columns around the cell. The table only depends
+ * on the dimensions of the board, so one table is shared by every solver of the same size and must not be modified.
+ *
+ * The shared tables are only weakly held, a size no solver uses anymore is dropped by the garbage collector, so
+ * sessions over many different sizes do not fill the cache.
+ *
+ * @param start For each cell id, the position of its first neighbour in neighbours, start[numCells] is the end
+ * @param neighbours The ids of the neighbours of every cell, in order of cell id
+ */
+public record NeighbourTable(int longSideLength, int shortSideLength, int[] start, int[] neighbours) {
+    private static final ConcurrentHashMap<Long, TableReference> TABLES = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<NeighbourTable> CLEARED = new ReferenceQueue<>();
+
+    /**
+     * @param longSideLength The size of the long side of the board, must be non-zero positive number
+     * @param shortSideLength The size of the short side of the board, must be non-zero positive number
+     * @return The shared table of boards of the given size
+     */
+    public static NeighbourTable of(int longSideLength, int shortSideLength) {
+        if (shortSideLength < 1 || longSideLength < 1) throw new RuntimeException("Side must be larger than 0");
+        for (Reference<? extends NeighbourTable> cleared; (cleared = CLEARED.poll()) != null; )
+            TABLES.remove(((TableReference) cleared).key, cleared);
+
+        // the table built can be collected before get, then it is built again
+        long key = (long) longSideLength << 32 | shortSideLength;
+        while (true) {
+            NeighbourTable table = TABLES.compute(key, (k, old) -> old != null && !old.refersTo(null) ? old :
+                    new TableReference(k, build(longSideLength, shortSideLength))).get();
+            if (table != null) return table;
+        }
+    }
+
+    private static final class TableReference extends WeakReference<NeighbourTable> {
+        private final long key;
+
+        private TableReference(long key, NeighbourTable table) {
+            super(table, CLEARED);
+            this.key = key;
+        }
+    }
+
+    private static NeighbourTable build(int longSideLength, int shortSideLength) {
+        int numCells = longSideLength * shortSideLength;
+        int[] start = new int[numCells + 1];
+        int[] neighbours = new int[numCells * 8];
+        int size = 0;
+
+        for (int x = 0; x < longSideLength; x++)
+            for (int y = 0; y < shortSideLength; y++) {
+                start[x * shortSideLength + y] = size;
+                for (int i = -1; i <= 1; i++)
+                    for (int j = -1; j <= 1; j++)
+                        if (x + i >= 0 && x + i < longSideLength && y + j >= 0 && y + j < shortSideLength &&
+                                !(i == 0 && j == 0))
+                            neighbours[size++] = (x + i) * shortSideLength + y + j;
+            }
+        start[numCells] = size;
+
+        int[] trimmed = new int[size];
+        System.arraycopy(neighbours, 0, trimmed, 0, size);
+        return new NeighbourTable(longSideLength, shortSideLength, start, trimmed);
+    }
+
+    public int numCells() {
+        return longSideLength * shortSideLength;
+    }
+
+    public int getId(int x, int y) {
+        return x * shortSideLength + y;
+    }
+
+    public int getX(int id) {
+        return id / shortSideLength;
+    }
+
+    public int getY(int id) {
+        return id % shortSideLength;
+    }
+}
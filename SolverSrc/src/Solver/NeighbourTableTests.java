@@ -0,0 +1,72 @@
+package Solver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.Assert.*;
+
+public class NeighbourTableTests {
+
+    @Test
+    public void neighbourCounts() {
+        NeighbourTable table = NeighbourTable.of(5, 4);
+        int[] start = table.start();
+
+        for (int x = 0; x < 5; x++)
+            for (int y = 0; y < 4; y++) {
+                int id = table.getId(x, y);
+                boolean edgeX = x == 0 || x == 4;
+                boolean edgeY = y == 0 || y == 3;
+                int expected = edgeX && edgeY ? 3 : edgeX || edgeY ? 5 : 8;
+                assertEquals(start[id + 1] - start[id], expected);
+            }
+        assertEquals(start[table.numCells()], table.neighbours().length);
+        assertEquals(table.neighbours().length, 4 * 3 + 10 * 5 + 6 * 8);
+    }
+
+    @Test
+    public void neighboursAreAdjacent() {
+        NeighbourTable table = NeighbourTable.of(6, 3);
+        int[] start = table.start();
+        int[] neighbours = table.neighbours();
+
+        for (int id = 0; id < table.numCells(); id++)
+            for (int k = start[id]; k < start[id + 1]; k++) {
+                int neighbour = neighbours[k];
+                assertNotEquals(neighbour, id);
+                assertTrue(Math.abs(table.getX(neighbour) - table.getX(id)) <= 1);
+                assertTrue(Math.abs(table.getY(neighbour) - table.getY(id)) <= 1);
+                if (k > start[id]) assertTrue(neighbour > neighbours[k - 1]);
+            }
+    }
+
+    @Test
+    public void singleRowAndSingleCell() {
+        NeighbourTable row = NeighbourTable.of(4, 1);
+        assertEquals(row.start()[1] - row.start()[0], 1);
+        assertEquals(row.start()[2] - row.start()[1], 2);
+
+        NeighbourTable cell = NeighbourTable.of(1, 1);
+        assertEquals(cell.neighbours().length, 0);
+        assertEquals(cell.start()[1], 0);
+    }
+
+    @Test
+    public void idRoundTrip() {
+        NeighbourTable table = NeighbourTable.of(7, 5);
+        for (int x = 0; x < 7; x++)
+            for (int y = 0; y < 5; y++) {
+                int id = table.getId(x, y);
+                assertEquals(id, x * 5 + y);
+                assertEquals(table.getX(id), x);
+                assertEquals(table.getY(id), y);
+            }
+    }
+
+    @Test
+    public void sharedBySize() {
+        NeighbourTable table = NeighbourTable.of(9, 8);
+        assertSame(table, NeighbourTable.of(9, 8));
+        assertNotSame(table, NeighbourTable.of(8, 9));
+        assertThrows(RuntimeException.class, () -> NeighbourTable.of(0, 3));
+    }
+}
@@ -0,0 +1,824 @@
+package Solver;
+
+import ModelMinesweeper.BoardConfig;
+import Solver.LocalBruteForceSolver.ConstraintSearch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Makes boards that can be solved from a fixed first click without guessing
+ *
+ * A candidate board is checked by an internal deduction engine working on cell ids of a NeighbourTable: the counting
+ * rules of NaiveSolver run from a work list, and when they are stuck the closed cells around each number are
+ * enumerated with the ConstraintSearch of LocalBruteForceSolver, searchWidth numbers around it at most, then the
+ * total mine count is used. When the engine gets stuck the candidate is repaired instead of dropped: a mine is moved
+ * between a closed cell next to the opened region and a closed cell away from it. Every found cell remembers the
+ * cells its deduction used, so only the ones that depended on the moved mine are closed again and the check goes on
+ * from the rest.
+ *
+ * Boards are returned as the mine bitsets of GridEngine.genGrid(long[]), cell (x, y) is bit x * shortSide + y. The
+ * first click and its neighbours are never mines, so the first click always opens a zero region. A generator is not
+ * thread safe, generate makes one per thread.
+ */
+public class NoGuessGenerator {
+    /**
+     * Repairs tried on a candidate before it is dropped for a new one
+     */
+    public static final int MAX_REPAIRS = 100;
+    /**
+     * Candidates tried by next before giving up, only reached when the board is too dense to be solved without guessing
+     */
+    public static final int MAX_CANDIDATES = 10000;
+    public static final int DEFAULT_SEARCH_WIDTH = 2;
+
+    private static final byte CLOSED = 0;
+    private static final byte OPENED = 1;
+    private static final byte MINE = 2;
+    /**
+     * Radius of a reason that used the whole board
+     */
+    private static final int WHOLE_BOARD = -1;
+
+    protected final BoardConfig board;
+    protected final int firstClick;
+    protected final int numCells;
+    protected final int numMines;
+    protected final int searchWidth;
+    protected final NeighbourTable neighbourTable;
+    protected final SplittableRandom random;
+
+    protected final boolean[] mine;
+    /**
+     * Number of adjacent mines of every cell, kept up to date when mines are moved
+     */
+    protected final int[] number;
+    /**
+     * Cells that can get mines, every cell but the first click and its neighbours
+     */
+    protected final int[] placeable;
+
+    protected final byte[] state;
+    /**
+     * Number of closed and of marked neighbours of every cell, kept up to date as cells are found and closed again
+     */
+    protected final int[] closedNeighbours;
+    protected final int[] foundNeighbours;
+    protected final int[] numNeighbours;
+    protected int numOpened;
+    protected int numKnownMines;
+    /**
+     * Opened cells whose neighbours changed since the rules were last applied to them
+     */
+    protected final int[] work;
+    protected final boolean[] inWork;
+    protected int workSize;
+    protected final int[] stack;
+    /**
+     * Opened and marked cells in the order they were found, so a repair can undo what depended on the moved mine
+     */
+    protected final int[] trail;
+    protected final int[] trailIndex;
+    protected int trailSize;
+    /**
+     * The cell around which each found cell was deduced, the cells found before it within reasonRadius of that cell
+     * are all it depended on
+     */
+    protected final int[] reason;
+    protected final int[] reasonRadius;
+    /**
+     * Found cells being closed again by undoDependents
+     */
+    protected final boolean[] invalid;
+    /**
+     * Opened cells whose number is changed by moveMine
+     */
+    protected final boolean[] changed;
+
+    /**
+     * True if the window around the number was enumerated without finding a cell and did not change since
+     */
+    protected final boolean[] searched;
+    /**
+     * Same as searched, for the subset rule
+     */
+    protected final boolean[] compared;
+    /**
+     * True if some flag of searched or compared may be set, so cells opened before the first search clear nothing
+     */
+    protected boolean anySearched;
+    protected final int[] variableOf;
+    protected final int[] variables;
+    protected final int[] windowNumbers;
+    protected final int[] closedCells;
+    protected final int[] closedX;
+    protected final int[] closedY;
+    protected final int[] frontierCells;
+    protected final int[] interiorCells;
+
+    protected long candidates;
+    protected long repairs;
+
+    /**
+     * Makes a generator with the default search width
+     */
+    public NoGuessGenerator(BoardConfig board, Coordinates firstClick, long seed) {
+        this(board, firstClick, DEFAULT_SEARCH_WIDTH, new SplittableRandom(seed));
+    }
+
+    /**
+     * @param board The dimensions and number of mines of the boards
+     * @param firstClick The cell opened first, must be inside the board
+     * @param searchWidth The distance from a number up to which the numbers around it are enumerated together, must
+     *                    be at least 0
+     * @param random Places and moves the mines
+     */
+    public NoGuessGenerator(BoardConfig board, Coordinates firstClick, int searchWidth, SplittableRandom random) {
+        if (firstClick.x() < 0 || firstClick.x() >= board.longSide() || firstClick.y() < 0 ||
+                firstClick.y() >= board.shortSide())
+            throw new RuntimeException("First click must be inside the board");
+        if (searchWidth < 0) throw new RuntimeException("Search width must be at least 0");
+
+        this.board = board;
+        this.numCells = board.totalNumCells();
+        this.numMines = board.numMines();
+        this.searchWidth = searchWidth;
+        this.neighbourTable = NeighbourTable.of(board.longSide(), board.shortSide());
+        this.firstClick = neighbourTable.getId(firstClick.x(), firstClick.y());
+        this.random = random;
+
+        int[] start = neighbourTable.start();
+        int numSafe = start[this.firstClick + 1] - start[this.firstClick] + 1;
+        if (numMines > numCells - numSafe)
+            throw new RuntimeException("Too many mines to keep the first click and its neighbours free");
+
+        this.placeable = new int[numCells - numSafe];
+        int size = 0;
+        for (int id = 0; id < numCells; id++)
+            if (id != this.firstClick && !isNeighbour(id, this.firstClick))
+                placeable[size++] = id;
+
+        this.mine = new boolean[numCells];
+        this.number = new int[numCells];
+        this.state = new byte[numCells];
+        this.closedNeighbours = new int[numCells];
+        this.foundNeighbours = new int[numCells];
+        this.numNeighbours = new int[numCells];
+        for (int id = 0; id < numCells; id++)
+            numNeighbours[id] = start[id + 1] - start[id];
+        this.work = new int[numCells];
+        this.inWork = new boolean[numCells];
+        this.stack = new int[numCells];
+        this.trail = new int[numCells];
+        this.trailIndex = new int[numCells];
+        this.reason = new int[numCells];
+        this.reasonRadius = new int[numCells];
+        this.invalid = new boolean[numCells];
+        this.changed = new boolean[numCells];
+        this.searched = new boolean[numCells];
+        this.compared = new boolean[numCells];
+        this.variableOf = new int[numCells];
+        this.variables = new int[numCells];
+        this.windowNumbers = new int[numCells];
+        this.closedCells = new int[8];
+        this.closedX = new int[8];
+        this.closedY = new int[8];
+        this.frontierCells = new int[numCells];
+        this.interiorCells = new int[numCells];
+        Arrays.fill(variableOf, -1);
+    }
+
+    /**
+     * Makes boards on a pool of threads, each thread has its own generator seeded from seed, so the same arguments
+     * always give the same boards
+     *
+     * @param count The number of boards
+     * @param threads The number of threads, must be non-zero positive number
+     * @return The mine bitsets of the boards
+     */
+    public static long[][] generate(BoardConfig board, Coordinates firstClick, int count, int threads, long seed) {
+        if (threads < 1) throw new RuntimeException("Must use at least one thread");
+
+        long[][] boards = new long[count][];
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ArrayList<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                NoGuessGenerator generator = new NoGuessGenerator(board, firstClick, seed + thread);
+                for (int i = thread; i < count; i += threads)
+                    boards[i] = generator.next();
+            }));
+        }
+
+        try {
+            for (Future<?> future: futures)
+                future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdown();
+        }
+        return boards;
+    }
+
+    /**
+     * Makes the next board
+     *
+     * @return The mine bitset of a board that can be solved from the first click without guessing
+     */
+    public long[] next() {
+        for (int c = 0; c < MAX_CANDIDATES; c++) {
+            placeMines();
+            candidates++;
+            if (solve()) return toBitset();
+            for (int r = 0; r < MAX_REPAIRS; r++) {
+                repairs++;
+                if (!repair() && !repairAnywhere()) break;
+                if (deduce()) return toBitset();
+            }
+        }
+        throw new RuntimeException("No board without guesses found in " + MAX_CANDIDATES + " candidates");
+    }
+
+    /**
+     * Checks a board with the deduction engine of the generator
+     *
+     * @param mines The mine bitset of the board, the first click and its neighbours must not be mines
+     * @return True if the board can be solved from the first click without guessing
+     */
+    public boolean isNoGuess(long[] mines) {
+        Arrays.fill(mine, false);
+        int count = 0;
+        for (int id = 0; id < numCells; id++)
+            if ((mines[id >>> 6] & 1L << id) != 0) {
+                mine[id] = true;
+                count++;
+            }
+        if (count != numMines) throw new RuntimeException("Board must have " + numMines + " mines");
+        if (mine[firstClick]) throw new RuntimeException("First click must not be a mine");
+
+        countNumbers();
+        return solve();
+    }
+
+    /**
+     * Places numMines mines on placeable cells with a partial Fisher-Yates pass
+     */
+    protected void placeMines() {
+        Arrays.fill(mine, false);
+        for (int k = 0; k < numMines; k++) {
+            int swapIndex = k + random.nextInt(placeable.length - k);
+            int cell = placeable[swapIndex];
+            placeable[swapIndex] = placeable[k];
+            placeable[k] = cell;
+            mine[cell] = true;
+        }
+        countNumbers();
+    }
+
+    protected void countNumbers() {
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+
+        Arrays.fill(number, 0);
+        for (int id = 0; id < numCells; id++)
+            if (mine[id])
+                for (int n = start[id]; n < start[id + 1]; n++)
+                    number[neighbours[n]]++;
+    }
+
+    /**
+     * Plays the board from the first click with certain moves only
+     *
+     * @return True if every safe cell was opened, otherwise state holds what was found before getting stuck
+     */
+    protected boolean solve() {
+        Arrays.fill(state, CLOSED);
+        System.arraycopy(numNeighbours, 0, closedNeighbours, 0, numCells);
+        Arrays.fill(foundNeighbours, 0);
+        if (anySearched) {
+            Arrays.fill(searched, false);
+            Arrays.fill(compared, false);
+            anySearched = false;
+        }
+        numOpened = 0;
+        numKnownMines = 0;
+        trailSize = 0;
+        while (workSize > 0)
+            inWork[work[--workSize]] = false;
+
+        open(firstClick, firstClick, 0);
+        return deduce();
+    }
+
+    /**
+     * Continues playing from state with certain moves only
+     *
+     * @return True if every safe cell was opened
+     */
+    protected boolean deduce() {
+        while (true) {
+            applyRules();
+            if (numOpened == numCells - numMines) return true;
+            if (compareNumbers()) continue;
+            if (enumerate()) continue;
+            if (applyMineCount()) continue;
+            return false;
+        }
+    }
+
+    /**
+     * Applies the rules of NaiveSolver to the cells of the work list until it is empty: a number with all its mines
+     * found opens its other closed neighbours, a number with as many closed neighbours as missing mines marks them
+     */
+    protected void applyRules() {
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+
+        while (workSize > 0) {
+            int id = work[--workSize];
+            inWork[id] = false;
+            if (state[id] != OPENED) continue;
+
+            int numClosed = closedNeighbours[id];
+            int numFound = foundNeighbours[id];
+            if (numClosed == 0) continue;
+
+            if (numFound == number[id]) {
+                for (int n = start[id]; n < start[id + 1]; n++)
+                    if (state[neighbours[n]] == CLOSED) open(neighbours[n], id, 1);
+            } else if (numFound + numClosed == number[id]) {
+                for (int n = start[id]; n < start[id + 1]; n++)
+                    if (state[neighbours[n]] == CLOSED) markMine(neighbours[n], id, 1);
+            }
+        }
+    }
+
+    /**
+     * Applies the subset rule to every pair of numbers of the frontier at most 2 cells apart: when the closed
+     * neighbours of a number are all neighbours of another one, the closed cells only next to the other one hold the
+     * difference of their missing mines, so they are all safe if it is 0 and all mines if it is their count
+     * Cheaper than enumerate and finds the usual patterns, stops at the first pair that decides a cell
+     *
+     * @return True if a cell was opened or marked
+     */
+    protected boolean compareNumbers() {
+        anySearched = true;
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+
+        for (int a = 0; a < numCells; a++) {
+            if (compared[a] || state[a] != OPENED) continue;
+            compared[a] = true;
+            int numClosedA = closedNeighbours[a];
+            if (numClosedA == 0) continue;
+            int missingA = number[a] - foundNeighbours[a];
+            int k = 0;
+            for (int n = start[a]; n < start[a + 1]; n++)
+                if (state[neighbours[n]] == CLOSED) {
+                    closedCells[k] = neighbours[n];
+                    closedX[k] = neighbourTable.getX(neighbours[n]);
+                    closedY[k++] = neighbourTable.getY(neighbours[n]);
+                }
+
+            int ax = neighbourTable.getX(a);
+            int ay = neighbourTable.getY(a);
+            int firstClosed = closedCells[0];
+            for (int m = start[firstClosed]; m < start[firstClosed + 1]; m++) {
+                int b = neighbours[m];
+                if (b == a || state[b] != OPENED || !containsClosed(b, numClosedA)) continue;
+
+                int numOnlyB = closedNeighbours[b] - numClosedA;
+                int missingB = number[b] - foundNeighbours[b];
+                if (numOnlyB == 0 || (missingB - missingA != 0 && missingB - missingA != numOnlyB)) continue;
+
+                boolean mines = missingB - missingA != 0;
+                for (int n = start[b]; n < start[b + 1]; n++) {
+                    int cell = neighbours[n];
+                    if (state[cell] != CLOSED || Math.abs(neighbourTable.getX(cell) - ax) <= 1 &&
+                            Math.abs(neighbourTable.getY(cell) - ay) <= 1) continue;
+                    if (mines) markMine(cell, a, 3);
+                    else open(cell, a, 3);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return True if the first numClosed cells of closedCells, at closedX and closedY, are all neighbours of id
+     */
+    private boolean containsClosed(int id, int numClosed) {
+        int x = neighbourTable.getX(id);
+        int y = neighbourTable.getY(id);
+        for (int k = 0; k < numClosed; k++)
+            if (Math.abs(closedX[k] - x) > 1 || Math.abs(closedY[k] - y) > 1)
+                return false;
+        return true;
+    }
+
+    /**
+     * Enumerates the closed cells around the numbers within searchWidth of each number of the frontier, stops at the
+     * first window that decides a cell
+     * Windows that did not decide a cell are skipped until a cell in them changes
+     * @return True if a cell was opened or marked
+     */
+    protected boolean enumerate() {
+        anySearched = true;
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+        int longSide = board.longSide();
+        int shortSide = board.shortSide();
+
+        for (int center = 0; center < numCells; center++) {
+            if (searched[center] || state[center] != OPENED || closedNeighbours[center] == 0) continue;
+            searched[center] = true;
+
+            int cx = neighbourTable.getX(center);
+            int cy = neighbourTable.getY(center);
+            int numNumbers = 0;
+            int numVariables = 0;
+            for (int x = Math.max(cx - searchWidth, 0); x <= Math.min(cx + searchWidth, longSide - 1); x++)
+                for (int y = Math.max(cy - searchWidth, 0); y <= Math.min(cy + searchWidth, shortSide - 1); y++) {
+                    int id = neighbourTable.getId(x, y);
+                    if (state[id] != OPENED || closedNeighbours[id] == 0) continue;
+                    windowNumbers[numNumbers++] = id;
+                    for (int n = start[id]; n < start[id + 1]; n++)
+                        if (state[neighbours[n]] == CLOSED && variableOf[neighbours[n]] == -1) {
+                            variableOf[neighbours[n]] = numVariables;
+                            variables[numVariables++] = neighbours[n];
+                        }
+                }
+
+            int[][] constraintVariables = new int[numNumbers][];
+            int[] constraintMines = new int[numNumbers];
+            for (int c = 0; c < numNumbers; c++) {
+                int id = windowNumbers[c];
+                int numClosed = 0;
+                for (int n = start[id]; n < start[id + 1]; n++)
+                    if (state[neighbours[n]] == CLOSED) stack[numClosed++] = variableOf[neighbours[n]];
+                constraintVariables[c] = Arrays.copyOf(stack, numClosed);
+                constraintMines[c] = number[id] - foundNeighbours[id];
+            }
+            for (int v = 0; v < numVariables; v++)
+                variableOf[variables[v]] = -1;
+
+            ConstraintSearch search = new ConstraintSearch(numVariables, constraintVariables, constraintMines);
+            search.setStopWhenUndecided(true);
+            long solutions = search.search();
+            if (solutions == 0 || search.isStopped()) continue;
+
+            boolean found = false;
+            for (int v = 0; v < numVariables; v++) {
+                long frequency = search.getBombFrequency(v);
+                if (frequency == 0) {
+                    open(variables[v], center, searchWidth + 1);
+                    found = true;
+                } else if (frequency == solutions) {
+                    markMine(variables[v], center, searchWidth + 1);
+                    found = true;
+                }
+            }
+            if (found) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Opens every closed cell when all mines are found, marks them when every closed cell is a mine
+     *
+     * @return True if a cell was opened or marked
+     */
+    protected boolean applyMineCount() {
+        int numClosed = numCells - numOpened - numKnownMines;
+        if (numClosed == 0) return false;
+
+        if (numKnownMines == numMines) {
+            for (int id = 0; id < numCells; id++)
+                if (state[id] == CLOSED) open(id, id, WHOLE_BOARD);
+            return true;
+        }
+        if (numMines - numKnownMines == numClosed) {
+            for (int id = 0; id < numCells; id++)
+                if (state[id] == CLOSED) markMine(id, id, WHOLE_BOARD);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves a mine after deduce got stuck: a random closed cell next to the opened region is picked, its mine is
+     * moved to a closed cell away from the opened region, or a mine from there is moved to it if it is safe
+     *
+     * @return False if there was no cell to move a mine to or from
+     */
+    protected boolean repair() {
+        int numFrontier = 0;
+        int numInterior = 0;
+        for (int id = 0; id < numCells; id++) {
+            if (state[id] != CLOSED) continue;
+            if (hasOpenedNeighbour(id)) frontierCells[numFrontier++] = id;
+            else interiorCells[numInterior++] = id;
+        }
+        if (numFrontier == 0) return false;
+
+        int cell = frontierCells[random.nextInt(numFrontier)];
+        if (swapWith(cell, interiorCells, numInterior)) return true;
+
+        int x = neighbourTable.getX(cell);
+        int y = neighbourTable.getY(cell);
+        int numFar = 0;
+        for (int k = 0; k < numFrontier; k++)
+            if (Math.abs(neighbourTable.getX(frontierCells[k]) - x) > 2 ||
+                    Math.abs(neighbourTable.getY(frontierCells[k]) - y) > 2)
+                interiorCells[numFar++] = frontierCells[k];
+        return swapWith(cell, interiorCells, numFar);
+    }
+
+    /**
+     * Moves the mine of cell to a random cell of cells without one, or the mine of a random cell of cells to cell if it
+     * has none
+     *
+     * @return False if every cell of cells has the same state as cell
+     */
+    private boolean swapWith(int cell, int[] cells, int numCells) {
+        if (numCells == 0) return false;
+        int offset = random.nextInt(numCells);
+        for (int k = 0; k < numCells; k++) {
+            int other = cells[(offset + k) % numCells];
+            if (mine[other] != mine[cell]) {
+                if (mine[cell]) moveMine(cell, other);
+                else moveMine(other, cell);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Repair used when every closed cell is next to the opened region, usually a guess at the end of the game: a random
+     * closed cell next to the opened region swaps its mine, or lack of one, with any placeable cell
+     *
+     * @return False if there was no cell to swap with
+     */
+    protected boolean repairAnywhere() {
+        int numFrontier = 0;
+        for (int id = 0; id < numCells; id++)
+            if (state[id] == CLOSED) frontierCells[numFrontier++] = id;
+        if (numFrontier == 0) return false;
+
+        int cell = frontierCells[random.nextInt(numFrontier)];
+        return swapWith(cell, placeable, placeable.length);
+    }
+
+    /**
+     * Moves the mine of from to to, only the numbers around both cells are updated and the opened ones are checked
+     * again by the next deduce
+     */
+    protected void moveMine(int from, int to) {
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+
+        undoDependents(from, to);
+        mine[from] = false;
+        for (int n = start[from]; n < start[from + 1]; n++)
+            number[neighbours[n]]--;
+        mine[to] = true;
+        for (int n = start[to]; n < start[to + 1]; n++)
+            number[neighbours[n]]++;
+
+        addOpenedNeighbours(from);
+        addOpenedNeighbours(to);
+        clearSearched(from);
+        clearSearched(to);
+    }
+
+    /**
+     * Closes the found cells that depend on the mines of from and to: both cells, and every cell whose reason used
+     * the state of a closed cell or the number of an opened neighbour of from or to
+     * The cells left keep their order in trail and each was deduced from the ones before it, so deduce continues from
+     * the first click and the repaired board needs no solve
+     */
+    protected void undoDependents(int from, int to) {
+        int first = Math.min(invalidate(from), invalidate(to));
+        int size = first;
+        int numClosed = 0;
+        for (int k = first; k < trailSize; k++) {
+            int id = trail[k];
+            if (invalid[id] || dependsOnInvalid(id, k)) {
+                invalid[id] = true;
+                stack[numClosed++] = id;
+            } else {
+                trailIndex[id] = size;
+                trail[size++] = id;
+            }
+        }
+        trailSize = size;
+
+        for (int k = 0; k < numClosed; k++) {
+            int id = stack[k];
+            if (state[id] == OPENED) numOpened--;
+            else numKnownMines--;
+            updateCounts(id, -1);
+            state[id] = CLOSED;
+            invalid[id] = false;
+        }
+        for (int k = 0; k < numClosed; k++) {
+            addOpenedNeighbours(stack[k]);
+            clearSearched(stack[k]);
+        }
+        clearChanged(from);
+        clearChanged(to);
+    }
+
+    /**
+     * Marks id as invalid if it was found, and its opened neighbours as changed
+     *
+     * @return The first position in trail of the marked cells, trailSize if none
+     */
+    private int invalidate(int id) {
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+        int first = trailSize;
+        if (state[id] != CLOSED) {
+            invalid[id] = true;
+            first = trailIndex[id];
+        }
+        for (int n = start[id]; n < start[id + 1]; n++)
+            if (state[neighbours[n]] == OPENED) {
+                changed[neighbours[n]] = true;
+                first = Math.min(first, trailIndex[neighbours[n]]);
+            }
+        return first;
+    }
+
+    private void clearChanged(int id) {
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+        for (int n = start[id]; n < start[id + 1]; n++)
+            changed[neighbours[n]] = false;
+    }
+
+    /**
+     * A reason of a given radius uses the states of the cells within the radius and the numbers of the cells one
+     * closer, or of the reason itself for the zero region
+     *
+     * @return True if the reason of id used a cell found before position k of trail that is invalid or changed
+     */
+    private boolean dependsOnInvalid(int id, int k) {
+        int radius = reasonRadius[id];
+        if (radius == WHOLE_BOARD) return true;
+        int numberRadius = Math.max(radius - 1, 0);
+        int x = neighbourTable.getX(reason[id]);
+        int y = neighbourTable.getY(reason[id]);
+        for (int i = Math.max(x - radius, 0); i <= Math.min(x + radius, board.longSide() - 1); i++)
+            for (int j = Math.max(y - radius, 0); j <= Math.min(y + radius, board.shortSide() - 1); j++) {
+                int cell = neighbourTable.getId(i, j);
+                if (trailIndex[cell] >= k || state[cell] == CLOSED) continue;
+                if (invalid[cell]) return true;
+                if (changed[cell] && Math.abs(i - x) <= numberRadius && Math.abs(j - y) <= numberRadius) return true;
+            }
+        return false;
+    }
+
+    /**
+     * Opens id and the zero region around it, the opened cells and their opened neighbours are added to the work list
+     *
+     * @param reason The cell around which id was deduced, the cells of the zero region are deduced from the zero
+     *               next to them
+     * @param radius The distance from reason of the cells the deduction used, WHOLE_BOARD if it used the mine count
+     */
+    protected void open(int id, int reason, int radius) {
+        if (state[id] != CLOSED) return;
+        if (mine[id]) throw new RuntimeException("Deduced a mine as safe");
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+
+        int size = 0;
+        setOpened(id, reason, radius);
+        stack[size++] = id;
+        while (size > 0) {
+            int current = stack[--size];
+            if (number[current] != 0) continue;
+            for (int n = start[current]; n < start[current + 1]; n++)
+                if (state[neighbours[n]] == CLOSED) {
+                    setOpened(neighbours[n], current, 0);
+                    stack[size++] = neighbours[n];
+                }
+        }
+    }
+
+    private void setOpened(int id, int reason, int radius) {
+        state[id] = OPENED;
+        numOpened++;
+        updateCounts(id, 1);
+        addToTrail(id, reason, radius);
+        addWork(id);
+        addOpenedNeighbours(id);
+        clearSearched(id);
+    }
+
+    /**
+     * @param reason As in open
+     * @param radius As in open
+     */
+    protected void markMine(int id, int reason, int radius) {
+        if (state[id] != CLOSED) return;
+        if (!mine[id]) throw new RuntimeException("Deduced a safe cell as mine");
+        state[id] = MINE;
+        numKnownMines++;
+        updateCounts(id, 1);
+        addToTrail(id, reason, radius);
+        addOpenedNeighbours(id);
+        clearSearched(id);
+    }
+
+    private void addToTrail(int id, int reason, int radius) {
+        trailIndex[id] = trailSize;
+        trail[trailSize++] = id;
+        this.reason[id] = reason;
+        reasonRadius[id] = radius;
+    }
+
+    /**
+     * Makes the windows that contain id be enumerated again, the ones centered within searchWidth + 1 of it
+     */
+    private void clearSearched(int id) {
+        if (!anySearched) return;
+        int x = neighbourTable.getX(id);
+        int y = neighbourTable.getY(id);
+        int distance = searchWidth + 1;
+        for (int i = Math.max(x - distance, 0); i <= Math.min(x + distance, board.longSide() - 1); i++)
+            for (int j = Math.max(y - distance, 0); j <= Math.min(y + distance, board.shortSide() - 1); j++)
+                searched[neighbourTable.getId(i, j)] = false;
+        for (int i = Math.max(x - 3, 0); i <= Math.min(x + 3, board.longSide() - 1); i++)
+            for (int j = Math.max(y - 3, 0); j <= Math.min(y + 3, board.shortSide() - 1); j++)
+                compared[neighbourTable.getId(i, j)] = false;
+    }
+
+    private void addOpenedNeighbours(int id) {
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+        for (int n = start[id]; n < start[id + 1]; n++)
+            if (state[neighbours[n]] == OPENED) addWork(neighbours[n]);
+    }
+
+    private void addWork(int id) {
+        if (inWork[id]) return;
+        inWork[id] = true;
+        work[workSize++] = id;
+    }
+
+    /**
+     * Counts id as found in the neighbours of its neighbours, or as closed again if change is -1
+     */
+    private void updateCounts(int id, int change) {
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+        int found = state[id] == MINE ? change : 0;
+        for (int n = start[id]; n < start[id + 1]; n++) {
+            closedNeighbours[neighbours[n]] -= change;
+            foundNeighbours[neighbours[n]] += found;
+        }
+    }
+
+    private boolean hasOpenedNeighbour(int id) {
+        return closedNeighbours[id] + foundNeighbours[id] < numNeighbours[id];
+    }
+
+    private boolean isNeighbour(int id, int other) {
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+        for (int n = start[other]; n < start[other + 1]; n++)
+            if (neighbours[n] == id) return true;
+        return false;
+    }
+
+    protected long[] toBitset() {
+        long[] bits = new long[(numCells + 63) >>> 6];
+        for (int id = 0; id < numCells; id++)
+            if (mine[id]) bits[id >>> 6] |= 1L << id;
+        return bits;
+    }
+
+    /**
+     * @return The number of candidate boards placed so far
+     */
+    public long getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * @return The number of mines moved so far
+     */
+    public long getRepairs() {
+        return repairs;
+    }
+}
@@ -0,0 +1,83 @@
+package Solver;
+
+import ModelMinesweeper.BoardConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class NoGuessGeneratorTests {
+
+    @Test
+    public void generatedBoardsAreNoGuess() {
+        BoardConfig board = BoardConfig.EXPERT;
+        Coordinates firstClick = new Coordinates(15, 8);
+        NoGuessGenerator generator = new NoGuessGenerator(board, firstClick, 1);
+        NoGuessGenerator checker = new NoGuessGenerator(board, firstClick, 2);
+
+        for (int i = 0; i < 20; i++) {
+            long[] mines = generator.next();
+
+            int count = 0;
+            for (long word: mines)
+                count += Long.bitCount(word);
+            assertEquals(count, board.numMines());
+            for (int x = firstClick.x() - 1; x <= firstClick.x() + 1; x++)
+                for (int y = firstClick.y() - 1; y <= firstClick.y() + 1; y++) {
+                    int id = x * board.shortSide() + y;
+                    assertEquals(mines[id >>> 6] & 1L << id, 0);
+                }
+            assertTrue(checker.isNoGuess(mines));
+        }
+        assertTrue(generator.getCandidates() >= 20);
+    }
+
+    @Test
+    public void probabilitySolverWinsWithoutGuessing() {
+        // The probability solver shares no code with the deduction engine of the generator
+        BoardConfig board = BoardConfig.EXPERT;
+        Coordinates firstClick = new Coordinates(15, 8);
+        long[][] boards = NoGuessGenerator.generate(board, firstClick, 100, 2, 5);
+
+        BatchSimulator simulator = new BatchSimulator(board, boards.length, 2);
+        simulator.useNoGuessBoards(firstClick, boards);
+        simulator.useMetrics(true);
+        BatchSimulator.Result result = simulator.run(SolverMain.PROBABILITY_MODE);
+        assertEquals(result.games, result.wins);
+        assertEquals(result.metrics.guesses(), 0);
+    }
+
+    @Test
+    public void isNoGuess() {
+        // The mine at (3, 0) is left with (3, 1) behind the two 1s of column 2
+        NoGuessGenerator generator = new NoGuessGenerator(new BoardConfig(4, 2, 1), new Coordinates(0, 0), 3);
+        assertFalse(generator.isNoGuess(new long[]{1L << 6}));
+
+        // The 0 at (2, 2) opens (3, 1) and (3, 2), which leaves (3, 0) as the only closed cell
+        generator = new NoGuessGenerator(new BoardConfig(4, 3, 1), new Coordinates(0, 0), 3);
+        assertTrue(generator.isNoGuess(new long[]{1L << 9}));
+    }
+
+    @Test
+    public void generateIsDeterministic() {
+        BoardConfig board = BoardConfig.INTERMEDIATE;
+        Coordinates firstClick = new Coordinates(0, 0);
+
+        long[][] boards = NoGuessGenerator.generate(board, firstClick, 8, 2, 42);
+        long[][] again = NoGuessGenerator.generate(board, firstClick, 8, 2, 42);
+        for (int i = 0; i < boards.length; i++)
+            assertArrayEquals(boards[i], again[i]);
+
+        NoGuessGenerator generator = new NoGuessGenerator(board, firstClick, 0, new SplittableRandom(1));
+        assertTrue(generator.isNoGuess(generator.next()));
+    }
+
+    @Test
+    public void rejectsInvalidBoards() {
+        assertThrows(RuntimeException.class,
+                () -> new NoGuessGenerator(new BoardConfig(3, 3, 1), new Coordinates(1, 1), 5));
+        assertThrows(RuntimeException.class,
+                () -> new NoGuessGenerator(BoardConfig.BEGINNER, new Coordinates(9, 0), 5));
+    }
+}
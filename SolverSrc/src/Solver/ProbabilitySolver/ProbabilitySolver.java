@@ -0,0 +1,481 @@
+package Solver.ProbabilitySolver;
+
+import Solver.BoardChanges;
+import Solver.Coordinates;
+import Solver.GuessSelector;
+import Solver.LocalBruteForceSolver.ConstraintSearch;
+import Solver.SolverAdapter;
+import Solver.SolverMetrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Exact probability solver for minesweeper
+ *
+ * Enumerates every independent component of the frontier, counting solutions by their number of bombs, and weights
+ * each combination by the number of ways the mines left can be placed in the closed cells that touch no number.
+ * Weights are handled in log space so they do not overflow on large boards. Opens every certainly safe cell when there
+ * is one, otherwise the cell with the lowest probability of being a mine.
+ */
+public class ProbabilitySolver implements SolverAdapter {
+    /**
+        0-9 number on cell
+        -2 flag
+        -1 closed cell
+     */
+    protected int[][] board;
+    protected int longSideLength;
+    protected int shortSideLength;
+    protected int numMines;
+
+    protected ArrayList<Coordinates> certainNumberCells;
+    protected ArrayList<Coordinates> toFlag;
+
+    /**
+     * Probability of being a mine of every cell in the last analysis, indexed by x * shortSideLength + y,
+     * NaN for cells that are not closed
+     */
+    protected double[] mineProbability;
+    protected double[] logFactorial;
+    protected SolverMetrics metrics;
+    /**
+     * Cell preferred on ties, so the first step opens it, the corner (longSideLength - 1, shortSideLength - 1) by
+     * default
+     */
+    protected Coordinates openingCell;
+    protected GuessSelector guessSelector;
+
+    /**
+     * @param longSideLength The size of the long side of the board, must be non-zero positive number
+     * @param shortSideLength The size of the short side of the board, must be non-zero positive number
+     * @param numMines The total number of mines in the board
+     */
+    public ProbabilitySolver(int longSideLength, int shortSideLength, int numMines) {
+        if (shortSideLength < 1 || longSideLength < 1) throw new RuntimeException("Side must be larger than 0");
+        if (numMines < 0 || numMines > longSideLength * shortSideLength)
+            throw new RuntimeException("Number of mines must be between 0 and the number of cells");
+
+        this.longSideLength = longSideLength;
+        this.shortSideLength = shortSideLength;
+        this.numMines = numMines;
+        this.board = new int[longSideLength][shortSideLength];
+        for (int[] column: board)
+            Arrays.fill(column, -1);
+
+        this.certainNumberCells = new ArrayList<>();
+        this.toFlag = new ArrayList<>();
+        this.mineProbability = new double[longSideLength * shortSideLength];
+        this.openingCell = new Coordinates(longSideLength - 1, shortSideLength - 1);
+
+        int totalNumCells = longSideLength * shortSideLength;
+        this.logFactorial = new double[totalNumCells + 1];
+        for (int i = 1; i <= totalNumCells; i++)
+            logFactorial[i] = logFactorial[i - 1] + Math.log(i);
+    }
+
+    /**
+     * Gives the coordinates of the next cell to be opened, a certainly safe cell if there is one, otherwise the cell
+     * least likely to be a mine
+     *
+     * @return the Coordinates of the next cell to be opened
+     */
+    @Override
+    public Coordinates step() {
+        if (!certainNumberCells.isEmpty()) return certainNumberCells.remove(0);
+
+        analyze();
+        if (!certainNumberCells.isEmpty()) return certainNumberCells.remove(0);
+        if (metrics != null) metrics.recordGuess();
+        if (guessSelector != null && hasOpenCell()) return selectGuess();
+        return getLowestRiskCell();
+    }
+
+    @Override
+    public ArrayList<Coordinates> getNextSteps() {
+        ArrayList<Coordinates> aux = new ArrayList<>(certainNumberCells);
+        certainNumberCells.clear();
+        return aux;
+    }
+
+    @Override
+    public ArrayList<Coordinates> getFlags() {
+        ArrayList<Coordinates> returnArray = new ArrayList<>(toFlag);
+        toFlag.clear();
+        return returnArray;
+    }
+
+    @Override
+    public void useMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void useGuessSelector(GuessSelector guessSelector) {
+        this.guessSelector = guessSelector;
+    }
+
+    @Override
+    public void setOpeningCell(Coordinates openingCell) {
+        if (openingCell.x() < 0 || openingCell.x() >= longSideLength || openingCell.y() < 0 ||
+                openingCell.y() >= shortSideLength)
+            throw new RuntimeException("Opening cell must be inside the board");
+        this.openingCell = openingCell;
+    }
+
+    /**
+     * Updates the solver with the new state of the board
+     * Cells that have value -2 (mines) in the field board are not changed
+     *
+     * @param newBoard The new state of the board
+     */
+    @Override
+    public void updateBoard(int[][] newBoard) {
+        for (int i = 0; i < longSideLength; i++)
+            for (int j = 0; j < shortSideLength; j++)
+                if (board[i][j] != -2)
+                    board[i][j] = newBoard[i][j];
+    }
+
+    /**
+     * Updates the solver with only the cells that changed since the last update
+     * Cells that have value -2 (mines) in the field board are not changed
+     *
+     * @param changes The changed cells and their new values
+     */
+    @Override
+    public void applyChanges(BoardChanges changes) {
+        for (int i = 0; i < changes.size(); i++) {
+            Coordinates coordinate = changes.coordinates()[i];
+            if (board[coordinate.x()][coordinate.y()] != -2)
+                board[coordinate.x()][coordinate.y()] = changes.values()[i];
+        }
+    }
+
+    /**
+     * Gives the probability of the cell being a mine computed by the last analysis
+     *
+     * @return The probability, NaN if the cell was not closed
+     */
+    public double getMineProbability(int x, int y) {
+        return mineProbability[x * shortSideLength + y];
+    }
+
+    /**
+     * Computes the mine probability of every closed cell
+     * Adds certainly safe cells to certainNumberCells and certain mines to toFlag, marking them as flags on the board
+     */
+    protected void analyze() {
+        int totalNumCells = longSideLength * shortSideLength;
+        int[] variableIndex = new int[totalNumCells];
+        Arrays.fill(variableIndex, -1);
+        ArrayList<Integer> variables = new ArrayList<>();
+        ArrayList<Integer> constraints = new ArrayList<>();
+        int flags = 0;
+        int closed = 0;
+
+        for (int x = 0; x < longSideLength; x++)
+            for (int y = 0; y < shortSideLength; y++) {
+                if (board[x][y] == -2) flags++;
+                if (board[x][y] == -1) closed++;
+                if (board[x][y] < 0 || !hasClosedNeighbour(x, y)) continue;
+                constraints.add(x * shortSideLength + y);
+                for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, longSideLength - 1); i++)
+                    for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, shortSideLength - 1); j++)
+                        if (board[i][j] == -1 && variableIndex[i * shortSideLength + j] == -1) {
+                            variableIndex[i * shortSideLength + j] = variables.size();
+                            variables.add(i * shortSideLength + j);
+                        }
+            }
+
+        if (metrics != null) metrics.recordFrontier(constraints.size());
+        ArrayList<Component> components = makeComponents(variables, constraints, variableIndex);
+        int interior = closed - variables.size();
+        int minesLeft = numMines - flags;
+
+        double[][] prefix = new double[components.size() + 1][];
+        double[][] suffix = new double[components.size() + 1][];
+        prefix[0] = new double[]{1};
+        suffix[components.size()] = new double[]{1};
+        for (int c = 0; c < components.size(); c++)
+            prefix[c + 1] = convolve(prefix[c], components.get(c).solutionsByMines);
+        for (int c = components.size() - 1; c >= 0; c--)
+            suffix[c] = convolve(suffix[c + 1], components.get(c).solutionsByMines);
+
+        double[] weight = getInteriorWeights(interior, minesLeft, prefix[components.size()].length - 1);
+        if (dot(prefix[components.size()], weight, 0) == 0)
+            Arrays.fill(weight, 1);
+
+        Arrays.fill(mineProbability, Double.NaN);
+        for (int c = 0; c < components.size(); c++) {
+            Component component = components.get(c);
+            double[] others = convolve(prefix[c], suffix[c + 1]);
+            double[] shiftedWeight = new double[component.solutionsByMines.length];
+            for (int k = 0; k < shiftedWeight.length; k++)
+                shiftedWeight[k] = dot(others, weight, k);
+
+            double total = dot(component.solutionsByMines, shiftedWeight, 0);
+            for (int v = 0; v < component.cells.length; v++) {
+                int cell = component.cells[v];
+                boolean safe = true;
+                boolean mine = true;
+                for (int k = 0; k < shiftedWeight.length; k++) {
+                    if (shiftedWeight[k] == 0 || component.solutionsByMines[k] == 0) continue;
+                    if (component.bombFrequencyByMines[v][k] != 0) safe = false;
+                    if (component.bombFrequencyByMines[v][k] != component.solutionsByMines[k]) mine = false;
+                }
+
+                mineProbability[cell] = total == 0 ? 0.5 :
+                        dot(component.bombFrequencyByMines[v], shiftedWeight, 0) / total;
+                Coordinates coordinates = new Coordinates(cell / shortSideLength, cell % shortSideLength);
+                if (safe && total != 0) {
+                    mineProbability[cell] = 0;
+                    certainNumberCells.add(coordinates);
+                } else if (mine && total != 0) {
+                    mineProbability[cell] = 1;
+                    board[coordinates.x()][coordinates.y()] = -2;
+                    toFlag.add(coordinates);
+                }
+            }
+        }
+
+        if (interior > 0) {
+            double[] all = prefix[components.size()];
+            double total = 0;
+            double expectedMines = 0;
+            boolean safe = true;
+            boolean mine = true;
+            for (int m = 0; m < all.length; m++) {
+                if (all[m] == 0 || weight[m] == 0) continue;
+                int interiorMines = Math.max(0, Math.min(interior, minesLeft - m));
+                total += all[m] * weight[m];
+                expectedMines += all[m] * weight[m] * interiorMines;
+                if (interiorMines != 0) safe = false;
+                if (interiorMines != interior) mine = false;
+            }
+            double interiorProbability = total == 0 ? 0.5 : expectedMines / total / interior;
+            for (int x = 0; x < longSideLength; x++)
+                for (int y = 0; y < shortSideLength; y++)
+                    if (board[x][y] == -1 && variableIndex[x * shortSideLength + y] == -1) {
+                        mineProbability[x * shortSideLength + y] = interiorProbability;
+                        if (total == 0) continue;
+                        if (safe) {
+                            certainNumberCells.add(new Coordinates(x, y));
+                        } else if (mine) {
+                            board[x][y] = -2;
+                            toFlag.add(new Coordinates(x, y));
+                        }
+                    }
+        }
+    }
+
+    /**
+     * Gives the cell ranked first by the guess selector, with the probabilities of the last analysis as estimates
+     *
+     * @return The coordinates of the cell
+     */
+    protected Coordinates selectGuess() {
+        guessSelector.clearEstimates();
+        for (int x = 0; x < longSideLength; x++)
+            for (int y = 0; y < shortSideLength; y++) {
+                int cell = x * shortSideLength + y;
+                guessSelector.setValue(cell, board[x][y]);
+                if (!Double.isNaN(mineProbability[cell])) guessSelector.addEstimate(cell, mineProbability[cell]);
+            }
+        int best = guessSelector.select();
+        return best == -1 ? getLowestRiskCell() : new Coordinates(best / shortSideLength, best % shortSideLength);
+    }
+
+    /**
+     * @return True if some cell of the board is open, so the first step still opens the opening cell
+     */
+    protected boolean hasOpenCell() {
+        for (int[] column: board)
+            for (int value: column)
+                if (value >= 0) return true;
+        return false;
+    }
+
+    /**
+     * Gives the closed cell with the lowest mine probability of the last analysis, preferring the opening cell and
+     * then the first cell found on ties
+     *
+     * @return The coordinates of the cell
+     */
+    protected Coordinates getLowestRiskCell() {
+        int best = openingCell.x() * shortSideLength + openingCell.y();
+        for (int cell = 0; cell < mineProbability.length; cell++)
+            if (!Double.isNaN(mineProbability[cell]) &&
+                    (Double.isNaN(mineProbability[best]) || mineProbability[cell] < mineProbability[best]))
+                best = cell;
+        return new Coordinates(best / shortSideLength, best % shortSideLength);
+    }
+
+    /**
+     * Splits the frontier cells into components that share no number and enumerates each of them
+     */
+    protected ArrayList<Component> makeComponents(ArrayList<Integer> variables, ArrayList<Integer> constraints,
+                                                  int[] variableIndex) {
+        int[] parent = new int[variables.size()];
+        for (int v = 0; v < parent.length; v++)
+            parent[v] = v;
+
+        ArrayList<int[]> constraintCells = new ArrayList<>();
+        for (int constraint: constraints) {
+            int[] cells = getClosedNeighbours(constraint / shortSideLength, constraint % shortSideLength);
+            for (int k = 1; k < cells.length; k++)
+                parent[findRoot(parent, variableIndex[cells[k]])] = findRoot(parent, variableIndex[cells[0]]);
+            constraintCells.add(cells);
+        }
+
+        int[] componentOfRoot = new int[variables.size()];
+        Arrays.fill(componentOfRoot, -1);
+        int[] localIndex = new int[variables.size()];
+        ArrayList<ArrayList<Integer>> componentVariables = new ArrayList<>();
+        for (int v = 0; v < variables.size(); v++) {
+            int root = findRoot(parent, v);
+            if (componentOfRoot[root] == -1) {
+                componentOfRoot[root] = componentVariables.size();
+                componentVariables.add(new ArrayList<>());
+            }
+            localIndex[v] = componentVariables.get(componentOfRoot[root]).size();
+            componentVariables.get(componentOfRoot[root]).add(variables.get(v));
+        }
+
+        ArrayList<ArrayList<int[]>> componentConstraints = new ArrayList<>();
+        ArrayList<ArrayList<Integer>> componentMines = new ArrayList<>();
+        for (int c = 0; c < componentVariables.size(); c++) {
+            componentConstraints.add(new ArrayList<>());
+            componentMines.add(new ArrayList<>());
+        }
+        for (int k = 0; k < constraints.size(); k++) {
+            int constraint = constraints.get(k);
+            int x = constraint / shortSideLength;
+            int y = constraint % shortSideLength;
+            int[] cells = constraintCells.get(k);
+            int[] local = new int[cells.length];
+            for (int i = 0; i < cells.length; i++)
+                local[i] = localIndex[variableIndex[cells[i]]];
+            int component = componentOfRoot[findRoot(parent, variableIndex[cells[0]])];
+            componentConstraints.get(component).add(local);
+            componentMines.get(component).add(board[x][y] - countAdjacentFlags(x, y));
+        }
+
+        ArrayList<Component> components = new ArrayList<>();
+        for (int c = 0; c < componentVariables.size(); c++) {
+            int[] cells = componentVariables.get(c).stream().mapToInt(Integer::intValue).toArray();
+            ConstraintSearch search = new ConstraintSearch(cells.length,
+                    componentConstraints.get(c).toArray(new int[0][]),
+                    componentMines.get(c).stream().mapToInt(Integer::intValue).toArray());
+            search.setCountByMines(true);
+            search.search();
+            if (metrics != null) metrics.recordSearch(search.getNodesVisited(), search.getPrunedBranches());
+            components.add(new Component(cells, search));
+        }
+        return components;
+    }
+
+    /**
+     * Gives, relative to the largest one, the number of ways of placing the mines left in the interior cells when the
+     * frontier has m mines, for every m from 0 to maxFrontierMines
+     */
+    protected double[] getInteriorWeights(int interior, int minesLeft, int maxFrontierMines) {
+        double[] logWeight = new double[maxFrontierMines + 1];
+        double maxLogWeight = Double.NEGATIVE_INFINITY;
+        for (int m = 0; m <= maxFrontierMines; m++) {
+            int interiorMines = minesLeft - m;
+            logWeight[m] = interiorMines < 0 || interiorMines > interior ? Double.NEGATIVE_INFINITY :
+                    logFactorial[interior] - logFactorial[interiorMines] - logFactorial[interior - interiorMines];
+            maxLogWeight = Math.max(maxLogWeight, logWeight[m]);
+        }
+
+        double[] weight = new double[maxFrontierMines + 1];
+        if (maxLogWeight == Double.NEGATIVE_INFINITY) return weight;
+        for (int m = 0; m <= maxFrontierMines; m++)
+            weight[m] = Math.exp(logWeight[m] - maxLogWeight);
+        return weight;
+    }
+
+    /**
+     * Convolution of two distributions over the number of mines, scaled so the largest entry is 1
+     * Scaling does not change probabilities since they are ratios of sums over the same distribution
+     */
+    protected static double[] convolve(double[] a, double[] b) {
+        double[] result = new double[a.length + b.length - 1];
+        double max = 0;
+        for (int i = 0; i < a.length; i++)
+            for (int j = 0; j < b.length; j++)
+                result[i + j] += a[i] * b[j];
+        for (double value: result)
+            max = Math.max(max, value);
+        if (max > 0)
+            for (int i = 0; i < result.length; i++)
+                result[i] /= max;
+        return result;
+    }
+
+    /**
+     * @return The sum of a[i] * weight[i + offset] over every i where weight is defined
+     */
+    protected static double dot(double[] a, double[] weight, int offset) {
+        double sum = 0;
+        for (int i = 0; i < a.length && i + offset < weight.length; i++)
+            sum += a[i] * weight[i + offset];
+        return sum;
+    }
+
+    protected boolean hasClosedNeighbour(int x, int y) {
+        for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, longSideLength - 1); i++)
+            for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, shortSideLength - 1); j++)
+                if (board[i][j] == -1) return true;
+        return false;
+    }
+
+    protected int countAdjacentFlags(int x, int y) {
+        int flags = 0;
+        for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, longSideLength - 1); i++)
+            for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, shortSideLength - 1); j++)
+                if (board[i][j] == -2) flags++;
+        return flags;
+    }
+
+    /**
+     * @return The cell indices of the closed neighbours of (x, y)
+     */
+    protected int[] getClosedNeighbours(int x, int y) {
+        int[] cells = new int[8];
+        int size = 0;
+        for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, longSideLength - 1); i++)
+            for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, shortSideLength - 1); j++)
+                if (board[i][j] == -1) cells[size++] = i * shortSideLength + j;
+        return Arrays.copyOf(cells, size);
+    }
+
+    private static int findRoot(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    /**
+     * The solutions of one independent component of the frontier, counted by number of mines
+     */
+    protected static class Component {
+        protected final int[] cells;
+        protected final double[] solutionsByMines;
+        protected final double[][] bombFrequencyByMines;
+
+        protected Component(int[] cells, ConstraintSearch search) {
+            this.cells = cells;
+            this.solutionsByMines = new double[cells.length + 1];
+            this.bombFrequencyByMines = new double[cells.length][cells.length + 1];
+            for (int k = 0; k <= cells.length; k++) {
+                solutionsByMines[k] = search.getSolutionsByMines(k);
+                for (int v = 0; v < cells.length; v++)
+                    bombFrequencyByMines[v][k] = search.getBombFrequencyByMines(v, k);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package Solver.ProbabilitySolver;
+
+import Solver.Coordinates;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProbabilitySolverTests {
+    ProbabilitySolver solver;
+
+    @Test
+    public void firstStepOpensCorner() {
+        solver = new ProbabilitySolver(4, 3, 2);
+
+        assertEquals(new Coordinates(3, 2), solver.step());
+        assertEquals(2.0 / 12, solver.getMineProbability(0, 0), 1e-9);
+    }
+
+    @Test
+    public void certainCellsFromNumbers() {
+        solver = new ProbabilitySolver(3, 2, 1);
+        solver.updateBoard(new int[][]{{1, -1}, {1, -1}, {0, -1}});
+
+        ArrayList<Coordinates> opened = new ArrayList<>();
+        opened.add(solver.step());
+        opened.addAll(solver.getNextSteps());
+        ArrayList<Coordinates> flags = solver.getFlags();
+
+        assertEquals(2, opened.size());
+        assertTrue(opened.contains(new Coordinates(1, 1)));
+        assertTrue(opened.contains(new Coordinates(2, 1)));
+        assertEquals(1, flags.size());
+        assertTrue(flags.contains(new Coordinates(0, 1)));
+        assertEquals(-2, solver.board[0][1]);
+    }
+
+    @Test
+    public void certainCellsFromMineCount() {
+        solver = new ProbabilitySolver(3, 2, 1);
+        solver.updateBoard(new int[][]{{1, -1}, {-1, -1}, {-1, -1}});
+
+        ArrayList<Coordinates> opened = new ArrayList<>();
+        opened.add(solver.step());
+        opened.addAll(solver.getNextSteps());
+
+        assertEquals(2, opened.size());
+        assertTrue(opened.contains(new Coordinates(2, 0)));
+        assertTrue(opened.contains(new Coordinates(2, 1)));
+        assertTrue(solver.getFlags().isEmpty());
+    }
+
+    @Test
+    public void lowestRiskGuess() {
+        solver = new ProbabilitySolver(3, 2, 2);
+        solver.updateBoard(new int[][]{{1, -1}, {-1, -1}, {-1, -1}});
+
+        Coordinates step = solver.step();
+        assertEquals(1.0 / 3, solver.getMineProbability(0, 1), 1e-9);
+        assertEquals(1.0 / 3, solver.getMineProbability(1, 1), 1e-9);
+        assertEquals(1.0 / 2, solver.getMineProbability(2, 0), 1e-9);
+        assertTrue(Double.isNaN(solver.getMineProbability(0, 0)));
+        assertTrue(step.x() < 2);
+        assertTrue(solver.getNextSteps().isEmpty());
+    }
+
+    @Test
+    public void probabilitiesAddUpToMineCount() {
+        // the probabilities of all closed cells must add up to the number of mines left
+        solver = new ProbabilitySolver(3, 2, 2);
+        solver.updateBoard(new int[][]{{1, -1}, {-1, -1}, {-1, -1}});
+        solver.analyze();
+
+        double total = 0;
+        for (int x = 0; x < 3; x++)
+            for (int y = 0; y < 2; y++)
+                if (!Double.isNaN(solver.getMineProbability(x, y)))
+                    total += solver.getMineProbability(x, y);
+        assertEquals(2, total, 1e-9);
+    }
+}
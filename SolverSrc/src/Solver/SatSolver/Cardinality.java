@@ -0,0 +1,63 @@
+package Solver.SatSolver;
+
+/**
+ * Cardinality constraints as clauses, with the sequential counter encoding
+ *
+ * The counter for at most k of n literals adds (n - 1) * k variables, where s(i, j) means that at least j + 1 of the
+ * first i + 1 literals are true, and O(n * k) clauses. Unit propagation on it is as strong as on the constraint.
+ */
+public class Cardinality {
+    private Cardinality() {
+    }
+
+    /**
+     * Adds the clauses for exactly k of literals being true
+     *
+     * @return False if the solver became unsatisfiable
+     */
+    public static boolean exactly(CdclSolver solver, int[] literals, int k) {
+        int[] negated = new int[literals.length];
+        for (int i = 0; i < literals.length; i++)
+            negated[i] = CdclSolver.negate(literals[i]);
+
+        return atMost(solver, literals, k) && atMost(solver, negated, literals.length - k);
+    }
+
+    /**
+     * Adds the clauses for at most k of literals being true
+     *
+     * @return False if the solver became unsatisfiable
+     */
+    public static boolean atMost(CdclSolver solver, int[] literals, int k) {
+        int n = literals.length;
+        if (k < 0) return solver.addClause();
+        if (k >= n) return true;
+        if (k == 0) {
+            for (int literal: literals)
+                if (!solver.addClause(CdclSolver.negate(literal))) return false;
+            return true;
+        }
+
+        int[][] counter = new int[n - 1][k];
+        for (int i = 0; i < n - 1; i++)
+            for (int j = 0; j < k; j++)
+                counter[i][j] = CdclSolver.literal(solver.newVariable(), true);
+
+        boolean ok = solver.addClause(CdclSolver.negate(literals[0]), counter[0][0]);
+        for (int j = 1; j < k; j++)
+            ok &= solver.addClause(CdclSolver.negate(counter[0][j]));
+
+        for (int i = 1; i < n - 1; i++) {
+            ok &= solver.addClause(CdclSolver.negate(literals[i]), counter[i][0]);
+            ok &= solver.addClause(CdclSolver.negate(counter[i - 1][0]), counter[i][0]);
+            for (int j = 1; j < k; j++) {
+                ok &= solver.addClause(CdclSolver.negate(literals[i]), CdclSolver.negate(counter[i - 1][j - 1]),
+                        counter[i][j]);
+                ok &= solver.addClause(CdclSolver.negate(counter[i - 1][j]), counter[i][j]);
+            }
+            ok &= solver.addClause(CdclSolver.negate(literals[i]), CdclSolver.negate(counter[i - 1][k - 1]));
+        }
+        ok &= solver.addClause(CdclSolver.negate(literals[n - 1]), CdclSolver.negate(counter[n - 2][k - 1]));
+        return ok;
+    }
+}
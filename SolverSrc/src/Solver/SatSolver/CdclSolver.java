@@ -0,0 +1,480 @@
+package Solver.SatSolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Small incremental CDCL SAT solver
+ *
+ * Variables are numbered from 0, the literal of variable v is 2 * v if positive and 2 * v + 1 if negated. Clauses are
+ * watched by their first two literals, conflicts are analysed to the first unique implication point and the learnt
+ * clause is kept, so later calls to solve start from everything learnt before. Branching picks the most active
+ * variable (VSIDS) with its last value, restarts follow the Luby sequence.
+ * Clauses can only be added between calls to solve, solve can be given assumptions that hold for that call only.
+ */
+public class CdclSolver {
+    public static final int RESTART_BASE = 100;
+
+    protected static final byte TRUE = 1;
+    protected static final byte FALSE = -1;
+    protected static final byte UNASSIGNED = 0;
+
+    protected int numVariables;
+    protected byte[] assigns;
+    protected int[] level;
+    protected int[] reason;
+    protected boolean[] polarity;
+    protected boolean[] seen;
+    protected double[] activity;
+    protected double variableIncrement = 1;
+    protected double variableDecay = 0.95;
+
+    protected final ArrayList<int[]> clauses = new ArrayList<>();
+    protected IntVector[] watches;
+
+    protected int[] trail;
+    protected int trailSize;
+    protected int propagateHead;
+    protected final IntVector trailLimits = new IntVector();
+
+    protected int[] heap;
+    protected int[] heapIndex;
+    protected int heapSize;
+
+    protected boolean[] model;
+    /**
+     * False once the clauses are found unsatisfiable without assumptions
+     */
+    protected boolean ok = true;
+
+    protected final IntVector learnt = new IntVector();
+    protected long conflicts;
+    protected long decisions;
+    protected int numLearnts;
+
+    public CdclSolver() {
+        this(16);
+    }
+
+    /**
+     * @param capacity The expected number of variables, the solver grows past it if needed
+     */
+    public CdclSolver(int capacity) {
+        capacity = Math.max(capacity, 1);
+        assigns = new byte[capacity];
+        level = new int[capacity];
+        reason = new int[capacity];
+        polarity = new boolean[capacity];
+        seen = new boolean[capacity];
+        activity = new double[capacity];
+        trail = new int[capacity];
+        heap = new int[capacity];
+        heapIndex = new int[capacity];
+        model = new boolean[capacity];
+        watches = new IntVector[2 * capacity];
+    }
+
+    public static int literal(int variable, boolean positive) {
+        return 2 * variable + (positive ? 0 : 1);
+    }
+
+    public static int negate(int literal) {
+        return literal ^ 1;
+    }
+
+    public static int variable(int literal) {
+        return literal >> 1;
+    }
+
+    /**
+     * @return The index of the new variable
+     */
+    public int newVariable() {
+        if (numVariables == assigns.length) grow(2 * assigns.length);
+
+        int v = numVariables++;
+        assigns[v] = UNASSIGNED;
+        reason[v] = -1;
+        watches[2 * v] = new IntVector();
+        watches[2 * v + 1] = new IntVector();
+        heapIndex[v] = -1;
+        heapInsert(v);
+        return v;
+    }
+
+    public int getNumVariables() {
+        return numVariables;
+    }
+
+    private void grow(int capacity) {
+        assigns = Arrays.copyOf(assigns, capacity);
+        level = Arrays.copyOf(level, capacity);
+        reason = Arrays.copyOf(reason, capacity);
+        polarity = Arrays.copyOf(polarity, capacity);
+        seen = Arrays.copyOf(seen, capacity);
+        activity = Arrays.copyOf(activity, capacity);
+        trail = Arrays.copyOf(trail, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+        heapIndex = Arrays.copyOf(heapIndex, capacity);
+        model = Arrays.copyOf(model, capacity);
+        watches = Arrays.copyOf(watches, 2 * capacity);
+    }
+
+    /**
+     * Adds a clause, the disjunction of the given literals
+     *
+     * @return False if the clauses became unsatisfiable
+     */
+    public boolean addClause(int... literals) {
+        if (!ok) return false;
+
+        int[] clause = literals.clone();
+        Arrays.sort(clause);
+        int size = 0;
+        int previous = -1;
+        for (int i = 0; i < clause.length; i++) {
+            int lit = clause[i];
+            if (value(lit) == TRUE || lit == negate(previous)) return true;
+            boolean duplicate = lit == previous;
+            previous = lit;
+            if (value(lit) == FALSE || duplicate) continue;
+            clause[size++] = lit;
+        }
+
+        if (size == 0) {
+            ok = false;
+        } else if (size == 1) {
+            enqueue(clause[0], -1);
+            ok = propagate() == -1;
+        } else {
+            clauses.add(Arrays.copyOf(clause, size));
+            attach(clauses.size() - 1);
+        }
+        return ok;
+    }
+
+    /**
+     * Searches for an assignment that satisfies every clause and every assumption, the solver is back at level 0
+     * when it returns
+     *
+     * @param assumptions Literals that must hold for this call only
+     * @return True if there is one, it can then be read with modelValue
+     */
+    public boolean solve(int... assumptions) {
+        if (!ok) return false;
+        if (propagate() != -1) {
+            ok = false;
+            return false;
+        }
+
+        int restarts = 0;
+        long conflictLimit = luby(restarts) * RESTART_BASE;
+        long restartConflicts = 0;
+        while (true) {
+            int conflict = propagate();
+            if (conflict != -1) {
+                conflicts++;
+                restartConflicts++;
+                if (decisionLevel() == 0) {
+                    ok = false;
+                    return false;
+                }
+                learn(conflict);
+                variableIncrement /= variableDecay;
+                continue;
+            }
+
+            if (restartConflicts >= conflictLimit) {
+                backtrack(0);
+                restarts++;
+                conflictLimit = luby(restarts) * RESTART_BASE;
+                restartConflicts = 0;
+                continue;
+            }
+
+            int next = -1;
+            while (decisionLevel() < assumptions.length) {
+                int assumption = assumptions[decisionLevel()];
+                if (value(assumption) == TRUE) {
+                    trailLimits.add(trailSize);
+                } else if (value(assumption) == FALSE) {
+                    backtrack(0);
+                    return false;
+                } else {
+                    next = assumption;
+                    break;
+                }
+            }
+
+            if (next == -1) {
+                next = pickBranchLiteral();
+                if (next == -1) {
+                    for (int v = 0; v < numVariables; v++)
+                        model[v] = assigns[v] == TRUE;
+                    backtrack(0);
+                    return true;
+                }
+                decisions++;
+            }
+            trailLimits.add(trailSize);
+            enqueue(next, -1);
+        }
+    }
+
+    /**
+     * @return The value of variable in the last assignment found by solve
+     */
+    public boolean modelValue(int variable) {
+        return model[variable];
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    public long getDecisions() {
+        return decisions;
+    }
+
+    public int getNumLearnts() {
+        return numLearnts;
+    }
+
+    protected int decisionLevel() {
+        return trailLimits.size;
+    }
+
+    protected byte value(int literal) {
+        byte assign = assigns[variable(literal)];
+        return (literal & 1) == 0 ? assign : (byte) -assign;
+    }
+
+    protected void enqueue(int literal, int reasonClause) {
+        int v = variable(literal);
+        assigns[v] = (literal & 1) == 0 ? TRUE : FALSE;
+        level[v] = decisionLevel();
+        reason[v] = reasonClause;
+        trail[trailSize++] = literal;
+    }
+
+    private void attach(int clauseIndex) {
+        int[] clause = clauses.get(clauseIndex);
+        watches[negate(clause[0])].add(clauseIndex);
+        watches[negate(clause[1])].add(clauseIndex);
+    }
+
+    /**
+     * Unit propagation over the watched literals
+     *
+     * @return The index of a conflicting clause, -1 if there is none
+     */
+    protected int propagate() {
+        while (propagateHead < trailSize) {
+            int assigned = trail[propagateHead++];
+            int falseLiteral = negate(assigned);
+            IntVector watchList = watches[assigned];
+
+            int i = 0;
+            int j = 0;
+            while (i < watchList.size) {
+                int clauseIndex = watchList.data[i++];
+                int[] clause = clauses.get(clauseIndex);
+                if (clause[0] == falseLiteral) {
+                    clause[0] = clause[1];
+                    clause[1] = falseLiteral;
+                }
+                if (value(clause[0]) == TRUE) {
+                    watchList.data[j++] = clauseIndex;
+                    continue;
+                }
+
+                boolean moved = false;
+                for (int k = 2; k < clause.length; k++)
+                    if (value(clause[k]) != FALSE) {
+                        clause[1] = clause[k];
+                        clause[k] = falseLiteral;
+                        watches[negate(clause[1])].add(clauseIndex);
+                        moved = true;
+                        break;
+                    }
+                if (moved) continue;
+
+                watchList.data[j++] = clauseIndex;
+                if (value(clause[0]) == FALSE) {
+                    while (i < watchList.size)
+                        watchList.data[j++] = watchList.data[i++];
+                    watchList.size = j;
+                    propagateHead = trailSize;
+                    return clauseIndex;
+                }
+                enqueue(clause[0], clauseIndex);
+            }
+            watchList.size = j;
+        }
+        return -1;
+    }
+
+    /**
+     * Learns the first unique implication point clause of conflict, backjumps and asserts it
+     */
+    private void learn(int conflict) {
+        learnt.clear();
+        learnt.add(-1);
+
+        int pathCount = 0;
+        int implied = -1;
+        int index = trailSize - 1;
+        int clauseIndex = conflict;
+        do {
+            int[] clause = clauses.get(clauseIndex);
+            for (int k = implied == -1 ? 0 : 1; k < clause.length; k++) {
+                int v = variable(clause[k]);
+                if (seen[v] || level[v] == 0) continue;
+                bump(v);
+                seen[v] = true;
+                if (level[v] >= decisionLevel()) pathCount++;
+                else learnt.add(clause[k]);
+            }
+            while (!seen[variable(trail[index])]) index--;
+            implied = trail[index--];
+            clauseIndex = reason[variable(implied)];
+            seen[variable(implied)] = false;
+            pathCount--;
+        } while (pathCount > 0);
+        learnt.data[0] = negate(implied);
+
+        int backtrackLevel = 0;
+        for (int k = 1; k < learnt.size; k++) {
+            int v = variable(learnt.data[k]);
+            seen[v] = false;
+            if (level[v] > backtrackLevel) {
+                backtrackLevel = level[v];
+                int aux = learnt.data[1];
+                learnt.data[1] = learnt.data[k];
+                learnt.data[k] = aux;
+            }
+        }
+
+        backtrack(backtrackLevel);
+        if (learnt.size == 1) {
+            enqueue(learnt.data[0], -1);
+        } else {
+            clauses.add(Arrays.copyOf(learnt.data, learnt.size));
+            attach(clauses.size() - 1);
+            enqueue(learnt.data[0], clauses.size() - 1);
+            numLearnts++;
+        }
+    }
+
+    protected void backtrack(int toLevel) {
+        if (decisionLevel() <= toLevel) return;
+
+        int limit = trailLimits.data[toLevel];
+        for (int i = trailSize - 1; i >= limit; i--) {
+            int v = variable(trail[i]);
+            polarity[v] = assigns[v] == TRUE;
+            assigns[v] = UNASSIGNED;
+            reason[v] = -1;
+            if (heapIndex[v] == -1) heapInsert(v);
+        }
+        trailSize = limit;
+        propagateHead = limit;
+        trailLimits.size = toLevel;
+    }
+
+    private int pickBranchLiteral() {
+        while (heapSize > 0) {
+            int v = heapRemoveMax();
+            if (assigns[v] == UNASSIGNED) return literal(v, polarity[v]);
+        }
+        return -1;
+    }
+
+    private void bump(int v) {
+        activity[v] += variableIncrement;
+        if (activity[v] > 1e100) {
+            for (int u = 0; u < numVariables; u++)
+                activity[u] *= 1e-100;
+            variableIncrement *= 1e-100;
+        }
+        if (heapIndex[v] != -1) heapUp(heapIndex[v]);
+    }
+
+    /**
+     * @return The i-th element of the Luby sequence 1, 1, 2, 1, 1, 2, 4, ...
+     */
+    static long luby(int i) {
+        int size = 1;
+        int sequence = 0;
+        while (size < i + 1) {
+            sequence++;
+            size = 2 * size + 1;
+        }
+        while (size - 1 != i) {
+            size = (size - 1) >> 1;
+            sequence--;
+            i = i % size;
+        }
+        return 1L << sequence;
+    }
+
+    private void heapInsert(int v) {
+        heap[heapSize] = v;
+        heapIndex[v] = heapSize;
+        heapUp(heapSize++);
+    }
+
+    private int heapRemoveMax() {
+        int top = heap[0];
+        heapIndex[top] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            heapDown(0);
+        }
+        return top;
+    }
+
+    private void heapUp(int i) {
+        int v = heap[i];
+        while (i > 0 && activity[heap[(i - 1) >> 1]] < activity[v]) {
+            heap[i] = heap[(i - 1) >> 1];
+            heapIndex[heap[i]] = i;
+            i = (i - 1) >> 1;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+
+    private void heapDown(int i) {
+        int v = heap[i];
+        while (2 * i + 1 < heapSize) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && activity[heap[child + 1]] > activity[heap[child]]) child++;
+            if (activity[heap[child]] <= activity[v]) break;
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+
+    /**
+     * Growable list of ints
+     */
+    protected static class IntVector {
+        int[] data = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, 2 * size);
+            data[size++] = value;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
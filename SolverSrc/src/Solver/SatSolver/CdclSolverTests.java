@@ -0,0 +1,94 @@
+package Solver.SatSolver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.Assert.*;
+
+public class CdclSolverTests {
+    private static int pos(int variable) {
+        return CdclSolver.literal(variable, true);
+    }
+
+    private static int neg(int variable) {
+        return CdclSolver.literal(variable, false);
+    }
+
+    @Test
+    public void satisfiable() {
+        CdclSolver solver = new CdclSolver();
+        for (int i = 0; i < 3; i++)
+            solver.newVariable();
+        solver.addClause(pos(0), pos(1));
+        solver.addClause(neg(0));
+        solver.addClause(neg(1), pos(2));
+
+        assertTrue(solver.solve());
+        assertFalse(solver.modelValue(0));
+        assertTrue(solver.modelValue(1));
+        assertTrue(solver.modelValue(2));
+    }
+
+    @Test
+    public void assumptions() {
+        CdclSolver solver = new CdclSolver();
+        solver.newVariable();
+        solver.newVariable();
+        solver.addClause(neg(0), neg(1));
+
+        assertTrue(solver.solve(pos(0)));
+        assertFalse(solver.modelValue(1));
+        assertFalse(solver.solve(pos(0), pos(1)));
+        assertTrue(solver.solve(pos(1)));
+        assertTrue(solver.solve());
+    }
+
+    @Test
+    public void pigeonhole() {
+        int pigeons = 6;
+        int holes = 5;
+        CdclSolver solver = new CdclSolver();
+        for (int i = 0; i < pigeons * holes; i++)
+            solver.newVariable();
+
+        for (int p = 0; p < pigeons; p++) {
+            int[] clause = new int[holes];
+            for (int h = 0; h < holes; h++)
+                clause[h] = pos(p * holes + h);
+            solver.addClause(clause);
+        }
+        for (int h = 0; h < holes; h++)
+            for (int p = 0; p < pigeons; p++)
+                for (int q = p + 1; q < pigeons; q++)
+                    solver.addClause(neg(p * holes + h), neg(q * holes + h));
+
+        assertFalse(solver.solve());
+        assertTrue(solver.getConflicts() > 0);
+        assertFalse(solver.solve());
+    }
+
+    @Test
+    public void exactly() {
+        for (int n = 1; n <= 6; n++)
+            for (int k = 0; k <= n; k++) {
+                CdclSolver solver = new CdclSolver();
+                int[] literals = new int[n];
+                for (int i = 0; i < n; i++)
+                    literals[i] = pos(solver.newVariable());
+                Cardinality.exactly(solver, literals, k);
+
+                for (int mask = 0; mask < 1 << n; mask++) {
+                    int[] assumptions = new int[n];
+                    for (int i = 0; i < n; i++)
+                        assumptions[i] = CdclSolver.literal(i, (mask >> i & 1) == 1);
+                    assertEquals(solver.solve(assumptions), Integer.bitCount(mask) == k);
+                }
+            }
+    }
+
+    @Test
+    public void luby() {
+        long[] sequence = {1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8};
+        for (int i = 0; i < sequence.length; i++)
+            assertEquals(CdclSolver.luby(i), sequence[i]);
+    }
+}
@@ -0,0 +1,188 @@
+package Solver.SatSolver;
+
+import Solver.LocalBruteForceSolver.LocalBruteForceSolver;
+import Solver.NeighbourTable;
+
+/**
+ * SAT based solver for minesweeper
+ *
+ * Every cell of the board is a variable of a CdclSolver, true if it is a bomb. Every number that is revealed adds an
+ * exactly-k constraint over its neighbours, every opened or flagged cell a unit clause. These clauses stay true for
+ * the whole game, so the solver and what it learnt are kept from one step to the next.
+ * A closed neighbour of the frontier is safe if the clauses can not be satisfied when it is a bomb, and a bomb if they
+ * can not be satisfied when it is safe. Every assignment found shows one possible value of every cell, so only the
+ * values not seen yet are queried. The search is over the whole frontier at once, when nothing is certain the solver
+ * guesses like the local brute force solver.
+ */
+public class SatSolver extends LocalBruteForceSolver {
+    protected CdclSolver sat;
+    protected NeighbourTable neighbourTable;
+
+    protected int[] candidates;
+    protected int numCandidates;
+    protected boolean[] isCandidate;
+    protected boolean[] canBeBomb;
+    protected boolean[] canBeSafe;
+
+    protected long queries;
+
+    /**
+     * @param longSideLength The size of the long side of the board, must be non-zero positive number
+     * @param shortSideLength The size of the short side of the board, must be non-zero positive number
+     */
+    public SatSolver(int longSideLength, int shortSideLength) {
+        super(0, longSideLength, shortSideLength);
+        this.neighbourTable = NeighbourTable.of(longSideLength, shortSideLength);
+
+        int numCells = longSideLength * shortSideLength;
+        this.sat = new CdclSolver(4 * numCells);
+        for (int id = 0; id < numCells; id++)
+            sat.newVariable();
+
+        this.candidates = new int[numCells];
+        this.isCandidate = new boolean[numCells];
+        this.canBeBomb = new boolean[numCells];
+        this.canBeSafe = new boolean[numCells];
+    }
+
+    /**
+     * Opens the pending certain cells first, then the safe cells found by the SAT queries, and guesses if there are
+     * none
+     *
+     * @return The id of the next cell to open
+     */
+    @Override
+    protected int search() {
+        if (!certainNumberCells.isEmpty())
+            return certainNumberCells.poll();
+
+        deduce();
+        if (!certainNumberCells.isEmpty())
+            return certainNumberCells.poll();
+
+        return guess();
+    }
+
+    /**
+     * The SAT queries already cover the whole frontier, so the brute force search of the parent class is never run
+     */
+    @Override
+    protected void deduceAll() {
+        deduce();
+    }
+
+    /**
+     * Queries every closed neighbour of the frontier, adds the safe ones to certainNumberCells and the bombs to toFlag
+     * Found cells are added to the clauses as units, bombs are also marked as known in the graph right away
+     */
+    protected void deduce() {
+        collectCandidates();
+        if (numCandidates == 0) return;
+
+        if (!solve()) return;
+        readModel();
+
+        for (int i = 0; i < numCandidates; i++) {
+            int cell = candidates[i];
+            if (!canBeBomb[cell]) {
+                if (solve(CdclSolver.literal(cell, true))) {
+                    readModel();
+                } else {
+                    sat.addClause(CdclSolver.literal(cell, false));
+                    addCertainNumberCell(cell);
+                }
+            } else if (!canBeSafe[cell]) {
+                if (solve(CdclSolver.literal(cell, false))) {
+                    readModel();
+                } else {
+                    sat.addClause(CdclSolver.literal(cell, true));
+                    addToFlag(cell);
+                    graph.setKnown(cell, true);
+                    graph.setBomb(cell, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Calls the SAT solver, metrics count the decisions of each call as nodes and its conflicts as pruned branches
+     */
+    protected boolean solve(int... assumptions) {
+        queries++;
+        long decisions = sat.getDecisions();
+        long conflicts = sat.getConflicts();
+        boolean satisfiable = sat.solve(assumptions);
+        if (metrics != null)
+            metrics.recordSearch(sat.getDecisions() - decisions, sat.getConflicts() - conflicts);
+        return satisfiable;
+    }
+
+    /**
+     * Finds the closed neighbours of the numbers of the frontier
+     */
+    protected void collectCandidates() {
+        int[] start = neighbourTable.start();
+        int[] neighbours = neighbourTable.neighbours();
+
+        for (int i = 0; i < numCandidates; i++)
+            isCandidate[candidates[i]] = false;
+        numCandidates = 0;
+
+        for (int i = 0; i < frontier.size(); i++) {
+            int cell = frontier.get(i);
+            if (graph.getBomb(cell) || graph.getValue(cell) < 0) continue;
+
+            for (int k = start[cell]; k < start[cell + 1]; k++) {
+                int neighbour = neighbours[k];
+                if (graph.getKnown(neighbour) || isCandidate[neighbour]) continue;
+                isCandidate[neighbour] = true;
+                canBeBomb[neighbour] = false;
+                canBeSafe[neighbour] = false;
+                candidates[numCandidates++] = neighbour;
+            }
+        }
+    }
+
+    private void readModel() {
+        for (int i = 0; i < numCandidates; i++) {
+            int cell = candidates[i];
+            if (sat.modelValue(cell)) canBeBomb[cell] = true;
+            else canBeSafe[cell] = true;
+        }
+    }
+
+    /**
+     * Also adds the clauses of the new cell, a unit clause and the constraint of its number if it was opened, a unit
+     * clause if it was flagged
+     */
+    @Override
+    protected void updateNode(int id, int value) {
+        super.updateNode(id, value);
+
+        if (value >= 0) {
+            int[] start = neighbourTable.start();
+            int[] neighbours = neighbourTable.neighbours();
+            int numNeighbours = start[id + 1] - start[id];
+            int[] neighbourLiterals = new int[numNeighbours];
+            for (int k = 0; k < numNeighbours; k++)
+                neighbourLiterals[k] = CdclSolver.literal(neighbours[start[id] + k], true);
+
+            sat.addClause(CdclSolver.literal(id, false));
+            Cardinality.exactly(sat, neighbourLiterals, value);
+        } else if (value == -2) {
+            graph.setBomb(id, true);
+            sat.addClause(CdclSolver.literal(id, true));
+        }
+    }
+
+    /**
+     * @return The number of calls made to the SAT solver so far
+     */
+    public long getQueries() {
+        return queries;
+    }
+
+    public CdclSolver getSat() {
+        return sat;
+    }
+}
@@ -0,0 +1,63 @@
+package Solver.SatSolver;
+
+import Solver.Coordinates;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class SatSolverTests {
+    SatSolver solver;
+
+    @Test
+    public void deduce() {
+        solver = new SatSolver(4, 3);
+        int[][] board = {{-1, 1, 0}, {-1, 1, 0}, {-1, 2, 0}, {-1, 1, 0}};
+        solver.updateBoard(board);
+
+        ArrayList<Coordinates> toOpen = new ArrayList<>();
+        toOpen.add(solver.step());
+        toOpen.addAll(solver.getNextSteps());
+        assertEquals(toOpen.size(), 2);
+        assertTrue(toOpen.contains(new Coordinates(0, 0)));
+        assertTrue(toOpen.contains(new Coordinates(2, 0)));
+
+        ArrayList<Coordinates> flags = solver.getFlags();
+        assertEquals(flags.size(), 2);
+        assertTrue(flags.contains(new Coordinates(1, 0)));
+        assertTrue(flags.contains(new Coordinates(3, 0)));
+    }
+
+    @Test
+    public void noQueriesWhenSolved() {
+        solver = new SatSolver(4, 3);
+        int[][] board = {{-1, 1, 0}, {-1, 1, 0}, {-1, 2, 0}, {-1, 1, 0}};
+        solver.updateBoard(board);
+        solver.step();
+        solver.getNextSteps();
+        solver.getFlags();
+
+        int[][] nextBoard = {{1, 1, 0}, {-2, 1, 0}, {2, 2, 0}, {-2, 1, 0}};
+        solver.updateBoard(nextBoard);
+        long queries = solver.getQueries();
+        solver.step();
+        assertEquals(solver.getQueries(), queries);
+        assertTrue(solver.getFlags().isEmpty());
+    }
+
+    @Test
+    public void deduceChain() {
+        solver = new SatSolver(5, 2);
+        int[][] board = {{0, 0}, {1, 1}, {-1, 1}, {-1, -1}, {-1, -1}};
+        solver.updateBoard(board);
+
+        ArrayList<Coordinates> toOpen = new ArrayList<>();
+        toOpen.add(solver.step());
+        toOpen.addAll(solver.getNextSteps());
+        assertEquals(toOpen.size(), 2);
+        assertTrue(toOpen.contains(new Coordinates(3, 0)));
+        assertTrue(toOpen.contains(new Coordinates(3, 1)));
+        assertTrue(solver.getFlags().contains(new Coordinates(2, 0)));
+    }
+}
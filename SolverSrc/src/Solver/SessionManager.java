@@ -0,0 +1,347 @@
+package Solver;
+
+import ModelMinesweeper.BitboardGrid;
+import ModelMinesweeper.BoardConfig;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hosts many independent game and solver sessions driven by a line based protocol
+ *
+ * Every session owns its own headless game and SolverMain. The commands of a session run one after the other in the
+ * order they were received, the commands of different sessions run in parallel on a fixed pool of worker threads, so
+ * thousands of sessions only cost their boards and solvers and never a thread each. Sessions are isolated, a solver
+ * that fails only fails the command of its own session.
+ * <pre>
+ * new [board] [mode] [seed]  starts a session, answers ok &lt;session&gt;
+ * step &lt;session&gt; [steps]     plays steps steps, 1 by default, answers ok &lt;session&gt; &lt;state&gt; &lt;steps of the game&gt;
+ * play &lt;session&gt;             plays until the game is over or it took as many steps as the board has cells
+ * reset &lt;session&gt; [seed]      starts a new game in the session
+ * close &lt;session&gt;            ends the session
+ * stats                      answers the totals of every session and the step latency since the last stats
+ * </pre>
+ * State is playing, won or lost. Failed commands answer error and a message. Answers of a connection are written in
+ * the order of its commands, even though the commands run in parallel. A session only queues a bounded number of
+ * commands, the ones past it answer an error right away, so the queue of the workers stays bounded by the number of
+ * sessions.
+ */
+public class SessionManager {
+    public static final int DEFAULT_MAX_PENDING_COMMANDS = 64;
+
+    protected final ExecutorService executor;
+    protected final int maxSessions;
+    protected final int maxPendingCommands;
+    /**
+     * Free session slots, taken before a session is added and given back when it is removed
+     */
+    protected final Semaphore sessionSlots;
+    protected final ConcurrentHashMap<Integer, Session> sessions;
+    protected final AtomicInteger nextSession;
+
+    protected final AtomicLong sessionsCreated;
+    protected final AtomicLong gamesWon;
+    protected final AtomicLong gamesLost;
+    protected final AtomicLong steps;
+    protected final LatencyRecorder latencies;
+    protected long latenciesSince;
+
+    /**
+     * @param threads The number of worker threads, must be non-zero positive number
+     * @param maxSessions The number of sessions that can be open at once, must be non-zero positive number
+     */
+    public SessionManager(int threads, int maxSessions) {
+        this(threads, maxSessions, DEFAULT_MAX_PENDING_COMMANDS);
+    }
+
+    /**
+     * @param threads The number of worker threads, must be non-zero positive number
+     * @param maxSessions The number of sessions that can be open at once, must be non-zero positive number
+     * @param maxPendingCommands The number of commands a session can have queued or running, must be non-zero
+     *                           positive number
+     */
+    public SessionManager(int threads, int maxSessions, int maxPendingCommands) {
+        if (threads < 1) throw new RuntimeException("Must use at least one thread");
+        if (maxSessions < 1) throw new RuntimeException("Must allow at least one session");
+        if (maxPendingCommands < 1) throw new RuntimeException("Must allow at least one pending command");
+
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "solver-session-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxSessions = maxSessions;
+        this.maxPendingCommands = maxPendingCommands;
+        this.sessionSlots = new Semaphore(maxSessions);
+        this.sessions = new ConcurrentHashMap<>();
+        this.nextSession = new AtomicInteger();
+        this.sessionsCreated = new AtomicLong();
+        this.gamesWon = new AtomicLong();
+        this.gamesLost = new AtomicLong();
+        this.steps = new AtomicLong();
+        this.latencies = new LatencyRecorder();
+        this.latenciesSince = System.nanoTime();
+    }
+
+    /**
+     * Runs a command of the protocol
+     *
+     * @param line The command
+     * @return The answer, completed once the command has run
+     */
+    public CompletableFuture<String> submit(String line) {
+        String[] args = line.trim().split("\\s+");
+        try {
+            switch (args[0]) {
+                case "new":
+                    return newSession(args);
+                case "step":
+                    int count = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+                    if (count < 1) throw new RuntimeException("Must play at least one step");
+                    return schedule(session(args), session -> session.play(count));
+                case "play":
+                    return schedule(session(args), session -> session.play(Integer.MAX_VALUE));
+                case "reset":
+                    Long seed = args.length > 2 ? Long.parseLong(args[2]) : null;
+                    return schedule(session(args), session -> session.reset(seed));
+                case "close":
+                    Session closed = session(args);
+                    CompletableFuture<String> answer = schedule(closed, session -> "ok " + session.id);
+                    if (sessions.remove(closed.id, closed)) sessionSlots.release();
+                    return answer;
+                case "stats":
+                    return CompletableFuture.completedFuture(stats());
+                default:
+                    throw new RuntimeException("Unknown command " + args[0]);
+            }
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(error(e));
+        }
+    }
+
+    protected CompletableFuture<String> newSession(String[] args) {
+        BoardConfig board = args.length > 1 ? BoardConfig.parse(args[1]) : BoardConfig.EXPERT;
+        int mode = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        Long seed = args.length > 3 ? Long.parseLong(args[3]) : null;
+        if (!sessionSlots.tryAcquire()) throw new RuntimeException("Too many sessions");
+
+        Session session;
+        try {
+            session = new Session(nextSession.getAndIncrement(), board, mode);
+        } catch (RuntimeException e) {
+            sessionSlots.release();
+            throw e;
+        }
+        sessions.put(session.id, session);
+        sessionsCreated.incrementAndGet();
+        return schedule(session, s -> {
+            s.start(seed);
+            return "ok " + s.id;
+        });
+    }
+
+    protected Session session(String[] args) {
+        if (args.length < 2) throw new RuntimeException("Missing session");
+        Session session = sessions.get(Integer.parseInt(args[1]));
+        if (session == null) throw new RuntimeException("No session " + args[1]);
+        return session;
+    }
+
+    /**
+     * Runs command on a worker after the commands already scheduled for session
+     * Throws if session already has maxPendingCommands commands that did not finish
+     */
+    protected CompletableFuture<String> schedule(Session session, SessionCommand command) {
+        synchronized (session) {
+            if (session.pending >= maxPendingCommands) throw new RuntimeException("Too many pending commands");
+            session.pending++;
+
+            CompletableFuture<String> answer = session.tail.thenApplyAsync(previous -> {
+                try {
+                    return command.run(session);
+                } catch (RuntimeException e) {
+                    return error(e);
+                }
+            }, executor).exceptionally(SessionManager::error).whenComplete((text, e) -> {
+                synchronized (session) {
+                    session.pending--;
+                }
+            });
+            session.tail = answer;
+            return answer;
+        }
+    }
+
+    protected void recordStep(long nanos) {
+        steps.incrementAndGet();
+        synchronized (latencies) {
+            latencies.record(nanos);
+        }
+    }
+
+    /**
+     * @return The totals of every session, and the step throughput and latency since the last call, whose samples are
+     * dropped so they do not grow without bound
+     */
+    public String stats() {
+        long count;
+        long p50;
+        long p99;
+        long elapsed;
+        synchronized (latencies) {
+            count = latencies.count();
+            p50 = latencies.percentile(0.50);
+            p99 = latencies.percentile(0.99);
+            latencies.clear();
+            long now = System.nanoTime();
+            elapsed = now - latenciesSince;
+            latenciesSince = now;
+        }
+        return String.format("ok sessions=%d created=%d won=%d lost=%d steps=%d steps/s=%.1f p50=%.1fus p99=%.1fus",
+                sessions.size(), sessionsCreated.get(), gamesWon.get(), gamesLost.get(), steps.get(),
+                elapsed == 0 ? 0 : count / (elapsed / 1e9), p50 / 1e3, p99 / 1e3);
+    }
+
+    /**
+     * Runs the commands read from in until it ends or quit is read, writing the answers to out in the same order
+     * Stats waits for the earlier commands of the connection, so it counts them
+     */
+    public void serve(Reader in, Writer out) throws IOException {
+        BufferedReader reader = new BufferedReader(in);
+        PrintWriter writer = new PrintWriter(out, true);
+        CompletableFuture<Void> written = CompletableFuture.completedFuture(null);
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+            if (line.trim().equals("quit")) break;
+            CompletableFuture<String> answer = line.trim().equals("stats") ?
+                    written.thenApply(previous -> stats()) : submit(line);
+            written = written.thenCombine(answer, (previous, text) -> {
+                writer.println(text);
+                return null;
+            });
+        }
+        written.join();
+        writer.flush();
+    }
+
+    /**
+     * Serves every connection made to port on the loopback address, each from its own thread, until the server
+     * socket fails
+     */
+    public void listen(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            while (true) {
+                Socket socket = server.accept();
+                Thread connection = new Thread(() -> {
+                    try (socket) {
+                        serve(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8),
+                                new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                    } catch (IOException ignored) {
+                    }
+                }, "solver-session-connection");
+                connection.setDaemon(true);
+                connection.start();
+            }
+        }
+    }
+
+    /**
+     * Stops the workers, commands that did not start yet answer an error
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int getNumSessions() {
+        return sessions.size();
+    }
+
+    private static String error(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return "error " + (cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage());
+    }
+
+    protected interface SessionCommand {
+        String run(Session session);
+    }
+
+    /**
+     * A game and its solver, only used by one worker at a time
+     */
+    protected class Session {
+        protected final int id;
+        protected final int mode;
+        protected final int maxSteps;
+        protected SimpleMinesweeper game;
+        protected SolverMain main;
+        protected int gameSteps;
+        /**
+         * The last command scheduled and the number of commands not finished, guarded by the session
+         */
+        protected CompletableFuture<String> tail;
+        protected int pending;
+
+        protected Session(int id, BoardConfig board, int mode) {
+            this.id = id;
+            this.mode = mode;
+            this.maxSteps = board.totalNumCells();
+            this.game = new SimpleMinesweeper(new BitboardGrid(board.longSide(), board.shortSide(),
+                    board.numMines()), false);
+            this.tail = CompletableFuture.completedFuture(null);
+        }
+
+        protected void start(Long seed) {
+            if (seed != null) game.reset(seed);
+            main = new SolverMain(game);
+            main.chooseMode(mode);
+            gameSteps = 0;
+        }
+
+        protected String reset(Long seed) {
+            if (seed == null) game.reset();
+            start(seed);
+            return answer();
+        }
+
+        protected String play(int count) {
+            for (int i = 0; i < count && !isOver() && gameSteps < maxSteps; i++) {
+                long start = System.nanoTime();
+                main.step();
+                recordStep(System.nanoTime() - start);
+                gameSteps++;
+
+                if (game.isGameWon()) gamesWon.incrementAndGet();
+                else if (game.isGameLost()) gamesLost.incrementAndGet();
+            }
+            return answer();
+        }
+
+        protected boolean isOver() {
+            return game.isGameWon() || game.isGameLost();
+        }
+
+        protected String answer() {
+            String state = game.isGameWon() ? "won" : game.isGameLost() ? "lost" : "playing";
+            return "ok " + id + " " + state + " " + gameSteps;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package Solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class SessionManagerTests {
+    @Test
+    public void sessions() {
+        SessionManager manager = new SessionManager(4, 100);
+        try {
+            ArrayList<CompletableFuture<String>> created = new ArrayList<>();
+            for (int i = 0; i < 50; i++)
+                created.add(manager.submit("new expert 1 " + i));
+            ArrayList<CompletableFuture<String>> played = new ArrayList<>();
+            for (int i = 0; i < 50; i++)
+                played.add(manager.submit("play " + i));
+
+            for (int i = 0; i < 50; i++) {
+                assertEquals(created.get(i).join(), "ok " + i);
+                String[] answer = played.get(i).join().split(" ");
+                assertEquals(answer[0], "ok");
+                assertEquals(answer[1], String.valueOf(i));
+                assertTrue(answer[2].equals("won") || answer[2].equals("lost") || answer[2].equals("playing"));
+            }
+            assertEquals(manager.getNumSessions(), 50);
+
+            String stats = manager.stats();
+            assertTrue(stats.startsWith("ok sessions=50 created=50"));
+            assertEquals(manager.submit("close 3").join(), "ok 3");
+            assertEquals(manager.getNumSessions(), 49);
+            assertTrue(manager.submit("step 3").join().startsWith("error"));
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void sameSeedSameGame() {
+        SessionManager manager = new SessionManager(2, 10);
+        try {
+            manager.submit("new beginner 1 5");
+            manager.submit("new beginner 1 5");
+            assertEquals(manager.submit("play 0").join().substring(5), manager.submit("play 1").join().substring(5));
+            assertEquals(manager.submit("reset 0 5").join(), "ok 0 playing 0");
+            assertEquals(manager.submit("reset 1 5").join(), "ok 1 playing 0");
+            assertEquals(manager.submit("step 0 2").join().substring(5), manager.submit("step 1 2").join().substring(5));
+            assertEquals(manager.submit("step 0 0").join(), "error Must play at least one step");
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void errors() {
+        SessionManager manager = new SessionManager(1, 1);
+        try {
+            assertEquals(manager.submit("new beginner").join(), "ok 0");
+            assertEquals(manager.submit("new beginner").join(), "error Too many sessions");
+            assertEquals(manager.submit("step 7").join(), "error No session 7");
+            assertEquals(manager.submit("jump 0").join(), "error Unknown command jump");
+            assertTrue(manager.submit("new 1x1x5").join().startsWith("error"));
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void sessionLimitUnderContention() throws InterruptedException {
+        SessionManager manager = new SessionManager(2, 5);
+        try {
+            ArrayList<CompletableFuture<String>> answers = new ArrayList<>();
+            CountDownLatch go = new CountDownLatch(1);
+            ArrayList<Thread> clients = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Thread client = new Thread(() -> {
+                    try {
+                        go.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int k = 0; k < 10; k++) {
+                        CompletableFuture<String> answer = manager.submit("new beginner");
+                        synchronized (answers) {
+                            answers.add(answer);
+                        }
+                    }
+                });
+                client.start();
+                clients.add(client);
+            }
+            go.countDown();
+            for (Thread client: clients)
+                client.join();
+
+            int created = 0;
+            for (CompletableFuture<String> answer: answers)
+                if (answer.join().startsWith("ok")) created++;
+                else assertEquals(answer.join(), "error Too many sessions");
+            assertEquals(created, 5);
+            assertEquals(manager.getNumSessions(), 5);
+
+            // closing gives the slot back, once
+            String id = String.valueOf(manager.sessions.keys().nextElement());
+            assertTrue(manager.submit("close " + id).join().startsWith("ok"));
+            assertTrue(manager.submit("close " + id).join().startsWith("error"));
+            assertTrue(manager.submit("new beginner").join().startsWith("ok"));
+            assertEquals(manager.submit("new beginner").join(), "error Too many sessions");
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void pendingCommandsBounded() throws InterruptedException {
+        SessionManager manager = new SessionManager(1, 10, 2);
+        try {
+            assertEquals(manager.submit("new beginner 1 1").join(), "ok 0");
+
+            // the only worker is held, so the commands of the session wait in its queue
+            CountDownLatch release = new CountDownLatch(1);
+            manager.executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+            });
+            CompletableFuture<String> first = manager.submit("step 0");
+            CompletableFuture<String> second = manager.submit("step 0");
+            assertEquals(manager.submit("step 0").join(), "error Too many pending commands");
+            assertEquals(manager.submit("close 0").join(), "error Too many pending commands");
+            assertEquals(manager.getNumSessions(), 1);
+
+            release.countDown();
+            assertTrue(first.join().startsWith("ok 0"));
+            assertTrue(second.join().startsWith("ok 0"));
+            assertTrue(manager.submit("step 0").join().startsWith("ok 0"));
+            assertEquals(manager.submit("close 0").join(), "ok 0");
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void serveAnswersInOrder() throws IOException {
+        SessionManager manager = new SessionManager(4, 10);
+        try {
+            StringWriter out = new StringWriter();
+            manager.serve(new StringReader("new expert 1 1\nnew expert 1 2\nstep 0 3\nstep 1\nclose 0\nquit\n" +
+                    "stats\n"), out);
+            String[] lines = out.toString().split("\\R");
+            assertEquals(lines.length, 5);
+            assertEquals(lines[0], "ok 0");
+            assertEquals(lines[1], "ok 1");
+            assertTrue(lines[2].startsWith("ok 0 "));
+            assertTrue(lines[3].startsWith("ok 1 "));
+            assertEquals(lines[4], "ok 0");
+        } finally {
+            manager.shutdown();
+        }
+    }
+}
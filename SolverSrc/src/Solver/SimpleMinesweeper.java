@@ -1,46 +1,188 @@
 package Solver;
 
 import ModelMinesweeper.Grid;
+import ModelMinesweeper.GridEngine;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class SimpleMinesweeper implements MinesweeperInterface {
-    Grid grid;
+    GridEngine grid;
+    boolean render;
+
+    ArrayList<Coordinates> changedCoordinates;
+    int[] changedValues;
 
     public SimpleMinesweeper() {
-        grid = new Grid();
+        this(new Grid());
+    }
+
+    /**
+     * @param longSide The size of the long side of the board, must be non-zero positive number
+     * @param shortSide The size of the short side of the board, must be non-zero positive number
+     * @param numMines The number of mines in the board, must be at most longSide * shortSide
+     */
+    public SimpleMinesweeper(int longSide, int shortSide, int numMines) {
+        this(new Grid(longSide, shortSide, numMines));
+    }
+
+    /**
+     * @param grid The game engine used to play, e.g. a Grid or a BitboardGrid
+     */
+    public SimpleMinesweeper(GridEngine grid) {
+        this(grid, true);
+    }
+
+    /**
+     * @param grid The game engine used to play, e.g. a Grid or a BitboardGrid
+     * @param render If false the board is never printed, used when playing headless
+     */
+    public SimpleMinesweeper(GridEngine grid, boolean render) {
+        this.grid = grid;
+        this.render = render;
+        this.changedCoordinates = new ArrayList<>();
+        this.changedValues = new int[64];
     }
 
     @Override
     public void openCells(ArrayList<Coordinates> toOpen) {
         for (Coordinates coordinates: toOpen)
-            grid.openCell(coordinates.y(), coordinates.x());
+            for (Coordinates opened: grid.openRegion(coordinates.y(), coordinates.x()))
+                addChange(opened, grid.getNumber(opened.x(), opened.y()));
     }
 
     @Override
     public void flagCells(ArrayList<Coordinates> toFlag) {
-        for (Coordinates coordinate: toFlag)
+        for (Coordinates coordinate: toFlag) {
             grid.flagCell(coordinate.x(), coordinate.y());
+            addChange(coordinate, grid.isFlagged(coordinate.x(), coordinate.y()) ? -2 : -1);
+        }
+    }
+
+    @Override
+    public void applyMoves(MoveBatch batch) {
+        for (int i = 0; i < batch.getNumOpens(); i++) {
+            int id = batch.getOpen(i);
+            for (Coordinates opened: grid.openRegion(batch.getY(id), batch.getX(id)))
+                addChange(opened, grid.getNumber(opened.x(), opened.y()));
+        }
+        for (int i = 0; i < batch.getNumFlags(); i++) {
+            int id = batch.getFlag(i);
+            int x = batch.getX(id);
+            int y = batch.getY(id);
+            grid.flagCell(x, y);
+            addChange(new Coordinates(x, y), grid.isFlagged(x, y) ? -2 : -1);
+        }
+    }
+
+    /**
+     * Records a cell that changed since the last call to getChanges
+     */
+    protected void addChange(Coordinates coordinates, int value) {
+        int index = changedCoordinates.size();
+        if (index == changedValues.length)
+            changedValues = Arrays.copyOf(changedValues, index * 2);
+        changedCoordinates.add(coordinates);
+        changedValues[index] = value;
     }
 
     @Override
     public int[][] getBoard() {
-        grid.drawGrid();
+        if (render) grid.drawGrid();
+        changedCoordinates.clear();
         return grid.parseGridIntoSolverMatrix();
     }
 
+    /**
+     * Same as getBoard, but the board is written into the given matrix, which the caller keeps between calls
+     * Only the cells opened or flagged since the previous call are written when the same matrix is passed again
+     *
+     * @param board The matrix written to, longSide by shortSide
+     */
+    @Override
+    public void exportBoard(int[][] board) {
+        if (render) grid.drawGrid();
+        changedCoordinates.clear();
+        grid.exportSolverMatrix(board);
+    }
+
+    /**
+     * Gives the cells that were opened or had their flag changed since the last call to getChanges or getBoard
+     * The cells are sorted by id x * shortSide + y, the order a solver reads them in when scanning a whole board, so a
+     * solver makes the same moves whether it is given the changes or the board
+     *
+     * @return The changed cells by id, a cell that changed more than once in the order it changed
+     */
+    @Override
+    public BoardChanges getChanges() {
+        if (render) grid.drawGrid();
+        int size = changedCoordinates.size();
+        long[] order = new long[size];
+        for (int i = 0; i < size; i++) {
+            Coordinates coordinates = changedCoordinates.get(i);
+            order[i] = (long) (coordinates.x() * grid.getShortSide() + coordinates.y()) << 32 | i;
+        }
+        Arrays.sort(order);
+
+        Coordinates[] coordinates = new Coordinates[size];
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            coordinates[i] = changedCoordinates.get((int) order[i]);
+            values[i] = changedValues[(int) order[i]];
+        }
+        changedCoordinates.clear();
+        return new BoardChanges(coordinates, values);
+    }
+
     @Override
     public int getLongSideLength() {
-        return Grid.LONG_SIDE;
+        return grid.getLongSide();
     }
 
     @Override
     public int getShortSideLength() {
-        return Grid.SHORT_SIDE;
+        return grid.getShortSide();
+    }
+
+    @Override
+    public int getNumMines() {
+        return grid.getNumMines();
     }
 
     @Override
     public void reset() {
         grid.genGrid();
+        changedCoordinates.clear();
+    }
+
+    /**
+     * Starts a new game with the mines placed from the given seed, the same seed always gives the same board
+     */
+    public void reset(long seed) {
+        grid.genGrid(seed);
+        changedCoordinates.clear();
+    }
+
+    /**
+     * Starts a new game with the mines on the given cells, see GridEngine.genGrid(long[])
+     */
+    public void reset(long[] mines) {
+        grid.genGrid(mines);
+        changedCoordinates.clear();
+    }
+
+    @Override
+    public boolean isMine(int x, int y) {
+        return grid.isMine(x, y);
+    }
+
+    @Override
+    public boolean isGameLost() {
+        return grid.isGameLost();
+    }
+
+    @Override
+    public boolean isGameWon() {
+        return grid.isGameWon();
     }
 }
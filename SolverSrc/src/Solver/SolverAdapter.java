@@ -7,5 +7,38 @@ public interface SolverAdapter {
     public Coordinates step();
     public ArrayList<Coordinates> getNextSteps();
     public void updateBoard(int[][] newBoard);
+    public void applyChanges(BoardChanges changes);
     public ArrayList<Coordinates> getFlags();
+
+    /**
+     * Adds every move of the next step to batch in one call: the cell step() would open, every certain cell to open
+     * and every certain flag, the same moves as step(), getNextSteps() and getFlags() together
+     * Solvers that can find all their certain cells in one pass should override it, so a game needs fewer steps
+     */
+    public default void nextMoves(MoveBatch batch) {
+        Coordinates step = step();
+        batch.addOpen(step.x(), step.y());
+        for (Coordinates coordinates: getNextSteps())
+            batch.addOpen(coordinates.x(), coordinates.y());
+        for (Coordinates coordinates: getFlags())
+            batch.addFlag(coordinates.x(), coordinates.y());
+    }
+
+    /**
+     * Sets the cell opened by the first step, when no cell of the board is open yet
+     * A grid with a safe first click never has a mine there, see GridEngine.useSafeFirstClick
+     *
+     * @param openingCell The cell, must be inside the board
+     */
+    public void setOpeningCell(Coordinates openingCell);
+
+    /**
+     * Makes the solver pick its guesses with guessSelector, null to guess its own way
+     */
+    public void useGuessSelector(GuessSelector guessSelector);
+
+    /**
+     * Makes the solver record the frontier, searches and guesses of each step into metrics, null to stop recording
+     */
+    public void useMetrics(SolverMetrics metrics);
 }
@@ -1,17 +1,56 @@
 package Solver;
 
+import Solver.LinearAlgebraSolver.LinearAlgebraSolver;
+import Solver.LocalBruteForceSolver.DeductionCache;
 import Solver.LocalBruteForceSolver.LocalBruteForceSolver;
 import Solver.NaiveSolver.NaiveSolver;
+import Solver.ProbabilitySolver.ProbabilitySolver;
+import Solver.SatSolver.SatSolver;
 
-import java.util.ArrayList;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
 public class SolverMain {
+    public static final int NAIVE_MODE = 0;
+    public static final int PROBABILITY_MODE = -1;
+    public static final int LINEAR_ALGEBRA_MODE = -2;
+    public static final int SAT_MODE = -3;
+    /**
+     * Search width of the brute force search the linear algebra solver falls back to
+     */
+    public static final int LINEAR_ALGEBRA_SEARCH_WIDTH = 2;
+
     SolverAdapter solver;
     MinesweeperInterface game;
+    /**
+     * Moves of the current step, reused every step
+     */
+    MoveBatch moves;
+    /**
+     * Board given to the solver when fullBoardUpdates is set, refreshed in place every step
+     */
+    int[][] board;
+    boolean fullBoardUpdates;
+    DeductionCache deductionCache;
+    ForkJoinPool searchPool;
+    int splitDepth;
+    SolverMetrics metrics;
+    String solverName;
+    TraceRecorder traceRecorder;
+    TraceRecorder.Recording recording;
+    Coordinates openingCell;
+    GuessSelector guessSelector;
 
     public SolverMain() {
-        game = new SimpleMinesweeper();
+        this(new SimpleMinesweeper());
+    }
+
+    public SolverMain(int longSide, int shortSide, int numMines) {
+        this(new SimpleMinesweeper(longSide, shortSide, numMines));
+    }
+
+    public SolverMain(MinesweeperInterface game) {
+        this.game = game;
     }
 
     public void run() {
@@ -30,22 +69,218 @@ public class SolverMain {
         }
     }
 
+    /**
+     * Creates the solver for the given mode
+     *
+     * @param mode NAIVE_MODE, PROBABILITY_MODE, LINEAR_ALGEBRA_MODE, SAT_MODE, or the search width of the local brute
+     *             force solver
+     */
     protected void chooseMode(int mode) {
-        if (mode == 0)
+        if (mode == NAIVE_MODE)
             useNaiveSolver();
+        else if (mode == PROBABILITY_MODE)
+            useProbabilitySolver();
+        else if (mode == LINEAR_ALGEBRA_MODE)
+            useLinearAlgebraSolver();
+        else if (mode == SAT_MODE)
+            useSatSolver();
         else
             useLocalBruteForceSolver(mode);
+
+        solverName = modeName(mode);
+        solver.useMetrics(metrics);
+        if (openingCell != null) solver.setOpeningCell(openingCell);
+        solver.useGuessSelector(guessSelector);
+        if (moves == null) moves = new MoveBatch(game.getLongSideLength(), game.getShortSideLength());
+
+        finishRecording();
+        if (traceRecorder != null) recording = traceRecorder.startGame(game);
+    }
+
+    /**
+     * Makes a solver of the given mode for game, with no cell of game open
+     */
+    public static SolverAdapter createSolver(int mode, MinesweeperInterface game) {
+        SolverMain main = new SolverMain(game);
+        main.chooseMode(mode);
+        return main.solver;
     }
 
+    /**
+     * Picks the first cell to open on a grid with a safe first click: the corner when only the cell itself is kept
+     * free, it is the most likely to be a zero, otherwise the cell two cells in from the corner, which opens a zero
+     * region anyway and leaves fewer guesses along the edges
+     *
+     * @param protectNeighbours As in GridEngine.useSafeFirstClick
+     */
+    public static Coordinates openingCell(int longSide, int shortSide, boolean protectNeighbours) {
+        if (!protectNeighbours) return new Coordinates(longSide - 1, shortSide - 1);
+        return new Coordinates(Math.min(2, longSide - 1), Math.min(2, shortSide - 1));
+    }
+
+    /**
+     * @return A readable name for the solver of the given mode
+     */
+    public static String modeName(int mode) {
+        if (mode == NAIVE_MODE) return "naive";
+        if (mode == PROBABILITY_MODE) return "probability";
+        if (mode == LINEAR_ALGEBRA_MODE) return "linear";
+        if (mode == SAT_MODE) return "sat";
+        return "bruteforce(" + mode + ")";
+    }
+
+    /**
+     * Opens the cells chosen by the solver, flags its bombs and updates it with the new board
+     * Every certain move of the solver is applied in the same step, so the board is sent back once for all of them
+     * The step is recorded as a SolverStepEvent and, with metrics, added to them
+     */
     protected void step() {
-        ArrayList<Coordinates> nextSteps = new ArrayList<>();
-        nextSteps.add(solver.step());
-        nextSteps.addAll(solver.getNextSteps());
+        SolverStepEvent event = new SolverStepEvent();
+        event.begin();
+        long start = 0;
+        if (metrics != null) metrics.beginStep();
+        if (metrics != null || recording != null) start = System.nanoTime();
+
+        moves.clear();
+        solver.nextMoves(moves);
+        game.applyMoves(moves);
+
+        if (fullBoardUpdates) {
+            if (board == null) board = new int[game.getLongSideLength()][game.getShortSideLength()];
+            game.exportBoard(board);
+            solver.updateBoard(board);
+        } else
+            solver.applyChanges(game.getChanges());
 
-        game.openCells(nextSteps);
-        game.flagCells(solver.getFlags());
+        long nanos = metrics != null || recording != null ? System.nanoTime() - start : 0;
+        if (metrics != null) metrics.endStep(nanos, moves.getNumOpens(), moves.getNumFlags());
+        if (recording != null) {
+            recording.step(nanos, moves);
+            if (game.isGameWon() || game.isGameLost()) finishRecording();
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.solver = solverName;
+            event.openedCells = moves.getNumOpens();
+            event.flaggedCells = moves.getNumFlags();
+            if (metrics != null) {
+                event.frontierSize = metrics.getFrontierSize();
+                event.searches = metrics.getSearches();
+                event.nodesVisited = metrics.getNodesVisited();
+                event.prunedBranches = metrics.getPrunedBranches();
+                event.guess = metrics.isGuess();
+            }
+            event.commit();
+        }
+    }
+
+    /**
+     * Opens the given cell without asking the solver and updates it with the new board, for boards made to be solved
+     * from a fixed first click. Recorded as a step like the moves of the solver
+     */
+    public void openFirstCell(Coordinates firstClick) {
+        long start = recording != null ? System.nanoTime() : 0;
+        moves.clear();
+        moves.addOpen(firstClick.x(), firstClick.y());
+        game.applyMoves(moves);
+
+        if (fullBoardUpdates) {
+            if (board == null) board = new int[game.getLongSideLength()][game.getShortSideLength()];
+            game.exportBoard(board);
+            solver.updateBoard(board);
+        } else
+            solver.applyChanges(game.getChanges());
+
+        if (recording != null) recording.step(System.nanoTime() - start, moves);
+    }
 
-        solver.updateBoard(game.getBoard());
+    /**
+     * Chooses how the solver learns about the board after each step
+     *
+     * @param fullBoardUpdates If true the solver receives the whole board matrix every step, otherwise only the cells
+     *                         that changed
+     */
+    public void useFullBoardUpdates(boolean fullBoardUpdates) {
+        this.fullBoardUpdates = fullBoardUpdates;
+    }
+
+    /**
+     * Makes the solvers of the next games record their steps into metrics, the totals can be read with
+     * metrics.snapshot() while the games run
+     *
+     * @param metrics The metrics, null to not record
+     */
+    public void useMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+        if (solver != null) solver.useMetrics(metrics);
+    }
+
+    /**
+     * Makes the next games be recorded to the trace file of traceRecorder, a game is appended when it is won or lost,
+     * or when the next game starts or finishRecording is called
+     *
+     * @param traceRecorder The recorder, can be shared with other SolverMains, null to stop recording
+     */
+    public void useTraceRecorder(TraceRecorder traceRecorder) {
+        finishRecording();
+        this.traceRecorder = traceRecorder;
+    }
+
+    /**
+     * Appends the game being recorded, if any, to the trace file even if it is not over
+     */
+    public void finishRecording() {
+        finishRecording(game.isGameWon() ? GameTrace.WON : game.isGameLost() ? GameTrace.LOST : GameTrace.UNFINISHED);
+    }
+
+    /**
+     * Appends the game being recorded, if any, to the trace file with the given outcome
+     *
+     * @param outcome As in TraceRecorder.Recording.finish, GameTrace.ERROR when the solver threw
+     */
+    public void finishRecording(int outcome) {
+        if (recording == null) return;
+        recording.finish(outcome);
+        recording = null;
+    }
+
+    /**
+     * Makes the solvers of the next games open the given cell first, see SolverAdapter.setOpeningCell
+     *
+     * @param openingCell The cell, null to keep the opening cell of each solver
+     */
+    public void useOpeningCell(Coordinates openingCell) {
+        this.openingCell = openingCell;
+    }
+
+    /**
+     * Makes the solvers of the next games pick their guesses with guessSelector, see SolverAdapter.useGuessSelector
+     *
+     * @param guessSelector The selector, for the board of game, null to let each solver guess its own way
+     */
+    public void useGuessSelector(GuessSelector guessSelector) {
+        this.guessSelector = guessSelector;
+    }
+
+    /**
+     * Makes the local brute force solvers of the next games share the given cache
+     *
+     * @param deductionCache The cache, null to always search
+     */
+    public void useDeductionCache(DeductionCache deductionCache) {
+        this.deductionCache = deductionCache;
+    }
+
+    /**
+     * Makes the local brute force and linear algebra solvers of the next games search large components in parallel,
+     * see LocalBruteForceSolver.useParallelSearch
+     *
+     * @param pool The pool running the searches, can be shared with other SolverMains, null to search sequentially
+     * @param splitDepth The number of variables assigned before splitting a search into tasks
+     */
+    public void useParallelSearch(ForkJoinPool pool, int splitDepth) {
+        this.searchPool = pool;
+        this.splitDepth = splitDepth;
     }
 
     protected void useNaiveSolver() {
@@ -53,7 +288,27 @@ public class SolverMain {
     }
 
     protected void useLocalBruteForceSolver(int searchWidth) {
-        solver = new LocalBruteForceSolver(searchWidth, game.getLongSideLength(), game.getShortSideLength());
+        LocalBruteForceSolver localBruteForceSolver = new LocalBruteForceSolver(searchWidth, game.getLongSideLength(),
+                game.getShortSideLength());
+        localBruteForceSolver.useDeductionCache(deductionCache);
+        localBruteForceSolver.useParallelSearch(searchPool, splitDepth);
+        solver = localBruteForceSolver;
+    }
+
+    protected void useLinearAlgebraSolver() {
+        LinearAlgebraSolver linearAlgebraSolver = new LinearAlgebraSolver(LINEAR_ALGEBRA_SEARCH_WIDTH,
+                game.getLongSideLength(), game.getShortSideLength());
+        linearAlgebraSolver.useDeductionCache(deductionCache);
+        linearAlgebraSolver.useParallelSearch(searchPool, splitDepth);
+        solver = linearAlgebraSolver;
+    }
+
+    protected void useSatSolver() {
+        solver = new SatSolver(game.getLongSideLength(), game.getShortSideLength());
+    }
+
+    protected void useProbabilitySolver() {
+        solver = new ProbabilitySolver(game.getLongSideLength(), game.getShortSideLength(), game.getNumMines());
     }
 
     protected void resetGame() {
@@ -0,0 +1,45 @@
+package Solver;
+
+import ModelMinesweeper.BitboardGrid;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.Assert.*;
+
+public class SolverMainTests {
+
+    @Test
+    public void fullBoardUpdatesMakeSameMoves() {
+        // the board exported into the reused matrix must tell every solver the same as the changed cells
+        int[] modes = {SolverMain.NAIVE_MODE, SolverMain.PROBABILITY_MODE, SolverMain.LINEAR_ALGEBRA_MODE,
+                SolverMain.SAT_MODE, 1, 2};
+        for (int mode: modes) {
+            for (long seed = 0; seed < 5; seed++) {
+                SolverMain changes = newGame(seed);
+                SolverMain full = newGame(seed);
+                full.useFullBoardUpdates(true);
+                changes.chooseMode(mode);
+                full.chooseMode(mode);
+
+                while (!changes.game.isGameLost() && !changes.game.isGameWon()) {
+                    changes.step();
+                    full.step();
+                    assertEquals(changes.moves.getOpenCoordinates(), full.moves.getOpenCoordinates());
+                    assertEquals(changes.moves.getFlagCoordinates(), full.moves.getFlagCoordinates());
+                }
+                assertEquals(changes.game.isGameWon(), full.game.isGameWon());
+                assertEquals(changes.game.isGameLost(), full.game.isGameLost());
+            }
+        }
+    }
+
+    //EFFECTS: returns a SolverMain on the expert board of seed, the first click opens a zero region
+    private static SolverMain newGame(long seed) {
+        BitboardGrid grid = new BitboardGrid(30, 16, 99);
+        grid.useSafeFirstClick(true, true);
+        SimpleMinesweeper game = new SimpleMinesweeper(grid, false);
+        game.reset(seed);
+        SolverMain main = new SolverMain(game);
+        main.useOpeningCell(SolverMain.openingCell(30, 16, true));
+        return main;
+    }
+}
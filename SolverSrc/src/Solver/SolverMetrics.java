@@ -0,0 +1,140 @@
+package Solver;
+
+/**
+ * Counters and timings of the steps of a solver
+ *
+ * The solver records what it does during a step (frontier size, searches, nodes of the search trees, pruned branches,
+ * guesses) and SolverMain closes the step with its time and the number of cells opened and flagged. The counters of
+ * the last step are added to the totals, which can be read at any time from any thread with snapshot().
+ * Solvers only touch the metrics when they were given one, so a solver without metrics pays a null check.
+ */
+public class SolverMetrics {
+    protected int frontierSize;
+    protected long searches;
+    protected long nodesVisited;
+    protected long prunedBranches;
+    protected boolean guess;
+
+    protected long steps;
+    protected long guesses;
+    protected long totalNanos;
+    protected long maxNanos;
+    protected long totalSearches;
+    protected long totalNodesVisited;
+    protected long totalPrunedBranches;
+    protected long totalOpenedCells;
+    protected long totalFlaggedCells;
+    protected int maxFrontierSize;
+
+    /**
+     * Clears the counters of the current step
+     */
+    public void beginStep() {
+        frontierSize = 0;
+        searches = 0;
+        nodesVisited = 0;
+        prunedBranches = 0;
+        guess = false;
+    }
+
+    /**
+     * Records the number of cells of the frontier the solver works on during this step
+     */
+    public void recordFrontier(int size) {
+        frontierSize = size;
+    }
+
+    /**
+     * Records one search of the step
+     *
+     * @param nodes The number of nodes visited by the search
+     * @param pruned The number of branches the search cut
+     */
+    public void recordSearch(long nodes, long pruned) {
+        searches++;
+        nodesVisited += nodes;
+        prunedBranches += pruned;
+    }
+
+    /**
+     * Records that the cell opened by this step is not certain to be safe
+     */
+    public void recordGuess() {
+        guess = true;
+    }
+
+    /**
+     * Adds the current step to the totals
+     *
+     * @param nanos The time the step took
+     * @param openedCells The number of cells the step opened
+     * @param flaggedCells The number of cells the step flagged
+     */
+    public synchronized void endStep(long nanos, int openedCells, int flaggedCells) {
+        steps++;
+        if (guess) guesses++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        totalSearches += searches;
+        totalNodesVisited += nodesVisited;
+        totalPrunedBranches += prunedBranches;
+        totalOpenedCells += openedCells;
+        totalFlaggedCells += flaggedCells;
+        maxFrontierSize = Math.max(maxFrontierSize, frontierSize);
+    }
+
+    public int getFrontierSize() {
+        return frontierSize;
+    }
+
+    public long getSearches() {
+        return searches;
+    }
+
+    public long getNodesVisited() {
+        return nodesVisited;
+    }
+
+    public long getPrunedBranches() {
+        return prunedBranches;
+    }
+
+    public boolean isGuess() {
+        return guess;
+    }
+
+    /**
+     * @return The totals of every step ended so far
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(steps, guesses, totalNanos, maxNanos, totalSearches, totalNodesVisited,
+                totalPrunedBranches, totalOpenedCells, totalFlaggedCells, maxFrontierSize);
+    }
+
+    /**
+     * The totals of the steps ended when the snapshot was taken
+     */
+    public record Snapshot(long steps, long guesses, long totalNanos, long maxNanos, long searches, long nodesVisited,
+                           long prunedBranches, long openedCells, long flaggedCells, int maxFrontierSize) {
+        public double meanMicros() {
+            return steps == 0 ? 0 : totalNanos / 1e3 / steps;
+        }
+
+        /**
+         * @return The totals of the steps of both snapshots, for metrics recorded by several threads
+         */
+        public Snapshot plus(Snapshot other) {
+            return new Snapshot(steps + other.steps, guesses + other.guesses, totalNanos + other.totalNanos,
+                    Math.max(maxNanos, other.maxNanos), searches + other.searches, nodesVisited + other.nodesVisited,
+                    prunedBranches + other.prunedBranches, openedCells + other.openedCells,
+                    flaggedCells + other.flaggedCells, Math.max(maxFrontierSize, other.maxFrontierSize));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("steps=%d guesses=%d mean=%.1fus max=%.1fus searches=%d nodes=%d pruned=%d " +
+                            "opened=%d flagged=%d maxFrontier=%d", steps, guesses, meanMicros(), maxNanos / 1e3,
+                    searches, nodesVisited, prunedBranches, openedCells, flaggedCells, maxFrontierSize);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package Solver;
+
+import ModelMinesweeper.BitboardGrid;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.Assert.*;
+
+public class SolverMetricsTests {
+    @Test
+    public void steps() {
+        SolverMetrics metrics = new SolverMetrics();
+        metrics.beginStep();
+        metrics.recordFrontier(4);
+        metrics.recordSearch(10, 3);
+        metrics.recordSearch(5, 1);
+        metrics.endStep(2000, 2, 1);
+
+        metrics.beginStep();
+        assertEquals(metrics.getSearches(), 0);
+        metrics.recordFrontier(2);
+        metrics.recordGuess();
+        metrics.endStep(1000, 1, 0);
+
+        SolverMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(snapshot.steps(), 2);
+        assertEquals(snapshot.guesses(), 1);
+        assertEquals(snapshot.searches(), 2);
+        assertEquals(snapshot.nodesVisited(), 15);
+        assertEquals(snapshot.prunedBranches(), 4);
+        assertEquals(snapshot.openedCells(), 3);
+        assertEquals(snapshot.flaggedCells(), 1);
+        assertEquals(snapshot.maxFrontierSize(), 4);
+        assertEquals(snapshot.maxNanos(), 2000);
+        assertEquals(snapshot.meanMicros(), 1.5, 1e-9);
+    }
+
+    @Test
+    public void snapshotsAdd() {
+        SolverMetrics.Snapshot first = new SolverMetrics.Snapshot(2, 1, 3000, 2000, 4, 15, 4, 3, 1, 4);
+        SolverMetrics.Snapshot second = new SolverMetrics.Snapshot(1, 0, 5000, 5000, 1, 2, 0, 6, 2, 3);
+        assertEquals(first.plus(second), new SolverMetrics.Snapshot(3, 1, 8000, 5000, 5, 17, 4, 9, 3, 4));
+    }
+
+    @Test
+    public void solverMainRecordsSteps() {
+        for (int mode: new int[]{SolverMain.NAIVE_MODE, SolverMain.PROBABILITY_MODE, 1, SolverMain.SAT_MODE}) {
+            SimpleMinesweeper game = new SimpleMinesweeper(new BitboardGrid(30, 16, 99), false);
+            game.reset(7);
+            SolverMain main = new SolverMain(game);
+            SolverMetrics metrics = new SolverMetrics();
+            main.useMetrics(metrics);
+            main.chooseMode(mode);
+
+            for (int i = 0; i < 5 && !game.isGameLost() && !game.isGameWon(); i++)
+                main.step();
+
+            SolverMetrics.Snapshot snapshot = metrics.snapshot();
+            assertTrue(snapshot.steps() > 0);
+            assertTrue(snapshot.guesses() >= 1);
+            assertTrue(snapshot.openedCells() >= snapshot.steps());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package Solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of one SolverMain step, the search counters are only filled when the SolverMain has metrics
+ * Enabled with a recording such as -XX:StartFlightRecording, the event costs next to nothing otherwise
+ */
+@Name("Solver.Step")
+@Label("Solver Step")
+@Category("Minesweeper")
+@Description("One step of a solver, from choosing the cells to open to updating the solver with the new board")
+@StackTrace(false)
+public class SolverStepEvent extends Event {
+    @Label("Solver")
+    public String solver;
+
+    @Label("Frontier Size")
+    public int frontierSize;
+
+    @Label("Searches")
+    public long searches;
+
+    @Label("Nodes Visited")
+    public long nodesVisited;
+
+    @Label("Pruned Branches")
+    public long prunedBranches;
+
+    @Label("Guess")
+    public boolean guess;
+
+    @Label("Opened Cells")
+    public int openedCells;
+
+    @Label("Flagged Cells")
+    public int flaggedCells;
+}
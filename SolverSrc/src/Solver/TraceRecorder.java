@@ -0,0 +1,185 @@
+package Solver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends played games to a trace file in the format of GameTrace
+ *
+ * Each game is built in memory by its own Recording and appended as one record when it finishes, so recorders can be
+ * shared by games on different threads and a file only ever holds whole games. Records are only appended, traces of
+ * several runs can go to the same file.
+ */
+public class TraceRecorder implements AutoCloseable {
+    protected final FileChannel channel;
+    protected long games;
+
+    /**
+     * @param file The trace file, created if it does not exist
+     */
+    public TraceRecorder(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Starts recording a game from the current board of game, before any cell is opened
+     * The mines are read again at the first step that opens a cell, for grids that place them on the first click
+     */
+    public Recording startGame(MinesweeperInterface game) {
+        return new Recording(game);
+    }
+
+    protected synchronized void append(ByteBuffer record) {
+        try {
+            while (record.hasRemaining())
+                channel.write(record);
+            games++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The number of games appended by this recorder
+     */
+    public synchronized long getGames() {
+        return games;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * The record of one game being played, not thread safe
+     */
+    public class Recording {
+        protected final MinesweeperInterface game;
+        protected final int shortSideLength;
+        protected final int minesPosition;
+        protected final int numStepsPosition;
+        protected ByteBuffer buffer;
+        protected int numSteps;
+        protected boolean finished;
+        /**
+         * True once a step opened a cell, the mines can not change after that even if the grid places them on the
+         * first click
+         */
+        protected boolean minesFinal;
+
+        protected Recording(MinesweeperInterface game) {
+            int longSide = game.getLongSideLength();
+            int numCells = longSide * game.getShortSideLength();
+            if (numCells > GameTrace.MAX_CELLS)
+                throw new RuntimeException("Boards larger than " + GameTrace.MAX_CELLS + " cells can not be traced");
+
+            this.game = game;
+            this.shortSideLength = game.getShortSideLength();
+            this.buffer = ByteBuffer.allocate(64 + GameTrace.bitmapBytes(numCells) + 16 * numCells);
+            buffer.putInt(GameTrace.MAGIC);
+            buffer.putInt(0);
+            buffer.putShort((short) longSide);
+            buffer.putShort((short) shortSideLength);
+            buffer.putShort((short) game.getNumMines());
+            buffer.put((byte) GameTrace.UNFINISHED);
+
+            minesPosition = buffer.position();
+            writeMines();
+            numStepsPosition = minesPosition + GameTrace.bitmapBytes(numCells);
+            buffer.position(numStepsPosition);
+            buffer.putInt(0);
+        }
+
+        /**
+         * Writes the mines of game to the bitmap after the header, without moving the position of the buffer
+         */
+        protected void writeMines() {
+            int numCells = game.getLongSideLength() * shortSideLength;
+            for (int b = 0; b < GameTrace.bitmapBytes(numCells); b++) {
+                int bits = 0;
+                for (int id = 8 * b; id < Math.min(8 * b + 8, numCells); id++)
+                    if (game.isMine(id / shortSideLength, id % shortSideLength)) bits |= 1 << (id & 7);
+                buffer.put(minesPosition + b, (byte) bits);
+            }
+        }
+
+        /**
+         * Adds a step
+         *
+         * @param nanos The time the step took
+         * @param opened The cells the solver chose to open
+         * @param flagged The cells the solver flagged
+         */
+        public void step(long nanos, List<Coordinates> opened, List<Coordinates> flagged) {
+            beginStep(nanos, opened.size(), flagged.size());
+            for (Coordinates coordinates: opened)
+                buffer.putShort((short) (coordinates.x() * shortSideLength + coordinates.y()));
+            for (Coordinates coordinates: flagged)
+                buffer.putShort((short) (coordinates.x() * shortSideLength + coordinates.y()));
+            numSteps++;
+        }
+
+        /**
+         * Adds a step, the cell ids of moves are written as they are
+         *
+         * @param nanos The time the step took
+         * @param moves The cells the solver opened and flagged
+         */
+        public void step(long nanos, MoveBatch moves) {
+            beginStep(nanos, moves.getNumOpens(), moves.getNumFlags());
+            for (int i = 0; i < moves.getNumOpens(); i++)
+                buffer.putShort((short) moves.getOpen(i));
+            for (int i = 0; i < moves.getNumFlags(); i++)
+                buffer.putShort((short) moves.getFlag(i));
+            numSteps++;
+        }
+
+        /**
+         * Grows the buffer if needed and writes the header of a step
+         */
+        protected void beginStep(long nanos, int numOpened, int numFlagged) {
+            if (!minesFinal && numOpened > 0) {
+                writeMines();
+                minesFinal = true;
+            }
+            int size = 8 + 2 * (numOpened + numFlagged);
+            if (buffer.remaining() < size) {
+                ByteBuffer larger = ByteBuffer.allocate(2 * buffer.capacity() + size);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+
+            buffer.putInt((int) Math.min(nanos, Integer.MAX_VALUE));
+            buffer.putShort((short) numOpened);
+            buffer.putShort((short) numFlagged);
+        }
+
+        /**
+         * Appends the game to the trace file, later calls do nothing
+         *
+         * @param outcome GameTrace.UNFINISHED, WON, LOST or ERROR
+         */
+        public void finish(int outcome) {
+            if (finished) return;
+            finished = true;
+
+            buffer.putInt(4, buffer.position() - 8);
+            buffer.put(14, (byte) outcome);
+            buffer.putInt(numStepsPosition, numSteps);
+            buffer.flip();
+            append(buffer);
+        }
+
+        public int getNumSteps() {
+            return numSteps;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package Solver;
+
+import ModelMinesweeper.BitboardGrid;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Reads the games of a trace file and plays solvers again on their boards
+ *
+ * The file is memory mapped and the records are decoded one at a time, so traces larger than the heap can be walked.
+ * Replays run on a headless BitboardGrid with the recorded mines and feed the solver with the cells that changed,
+ * the same way SolverMain does, so only the solver and the board model are measured.
+ */
+public class TraceReplayer implements Iterable<GameTrace> {
+    protected final MappedByteBuffer buffer;
+
+    /**
+     * Maps the trace file, must be smaller than 2GB
+     */
+    public TraceReplayer(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * @return The games of the file in the order they were recorded, every iterator starts from the first game
+     */
+    @Override
+    public Iterator<GameTrace> iterator() {
+        return new Iterator<>() {
+            private int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                return position < buffer.limit();
+            }
+
+            @Override
+            public GameTrace next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                GameTrace trace = GameTrace.read(buffer.duplicate().position(position));
+                position += 8 + buffer.getInt(position + 4);
+                return trace;
+            }
+        };
+    }
+
+    /**
+     * Plays a new solver on the board of trace
+     *
+     * @param trace The recorded game
+     * @param solverFactory Makes the solver from the game, which has the dimensions of the board and no cell open
+     * @param maxSteps The number of steps after which the game is given up
+     * @return The result of the replay
+     */
+    public static Replay replay(GameTrace trace, Function<MinesweeperInterface, SolverAdapter> solverFactory,
+                                int maxSteps) {
+        SimpleMinesweeper game = new SimpleMinesweeper(new BitboardGrid(trace.longSideLength(),
+                trace.shortSideLength(), trace.numMines()), false);
+        game.reset(trace.mines());
+        SolverAdapter solver = solverFactory.apply(game);
+
+        MoveBatch moves = new MoveBatch(trace.longSideLength(), trace.shortSideLength());
+        int steps = 0;
+        int firstDivergence = -1;
+        long start = System.nanoTime();
+        while (!game.isGameLost() && !game.isGameWon() && steps < maxSteps) {
+            moves.clear();
+            solver.nextMoves(moves);
+
+            if (firstDivergence == -1 && !sameMoves(trace, steps, moves)) firstDivergence = steps;
+
+            game.applyMoves(moves);
+            solver.applyChanges(game.getChanges());
+            steps++;
+        }
+        long nanos = System.nanoTime() - start;
+
+        if (firstDivergence == -1 && steps != trace.numSteps()) firstDivergence = steps;
+        int outcome = game.isGameWon() ? GameTrace.WON : game.isGameLost() ? GameTrace.LOST : GameTrace.UNFINISHED;
+        return new Replay(steps, outcome, firstDivergence, nanos);
+    }
+
+    private static boolean sameMoves(GameTrace trace, int step, MoveBatch moves) {
+        if (step >= trace.numSteps()) return false;
+        int[] opened = trace.opened()[step];
+        int[] flagged = trace.flagged()[step];
+        if (opened.length != moves.getNumOpens() || flagged.length != moves.getNumFlags()) return false;
+        for (int i = 0; i < opened.length; i++)
+            if (opened[i] != moves.getOpen(i)) return false;
+        for (int i = 0; i < flagged.length; i++)
+            if (flagged[i] != moves.getFlag(i)) return false;
+        return true;
+    }
+
+    /**
+     * The result of playing a solver on a recorded board
+     *
+     * @param steps The number of steps played
+     * @param outcome GameTrace.UNFINISHED, WON or LOST
+     * @param firstDivergence The first step whose moves differ from the recorded ones, -1 if every move is the same
+     * @param nanos The time taken by the whole game
+     */
+    public record Replay(int steps, int outcome, int firstDivergence, long nanos) {
+    }
+}
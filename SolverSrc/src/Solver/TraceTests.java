@@ -0,0 +1,169 @@
+package Solver;
+
+import ModelMinesweeper.BitboardGrid;
+import ModelMinesweeper.Grid;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class TraceTests {
+    @Test
+    public void recordAndReplay() throws IOException {
+        Path file = Files.createTempFile("trace", ".bin");
+        ArrayList<Integer> steps = new ArrayList<>();
+        ArrayList<Boolean> won = new ArrayList<>();
+        try {
+            try (TraceRecorder recorder = new TraceRecorder(file)) {
+                SimpleMinesweeper game = new SimpleMinesweeper(new BitboardGrid(30, 16, 99), false);
+                SolverMain main = new SolverMain(game);
+                main.useTraceRecorder(recorder);
+                for (int seed = 0; seed < 5; seed++) {
+                    game.reset(seed);
+                    main.chooseMode(1);
+                    int s = 0;
+                    while (!game.isGameLost() && !game.isGameWon() && s < 480) {
+                        main.step();
+                        s++;
+                    }
+                    steps.add(s);
+                    won.add(game.isGameWon());
+                }
+                main.finishRecording();
+                assertEquals(recorder.getGames(), 5);
+            }
+
+            int g = 0;
+            for (GameTrace trace: new TraceReplayer(file)) {
+                SimpleMinesweeper game = new SimpleMinesweeper(new BitboardGrid(30, 16, 99), false);
+                game.reset(g);
+                int mines = 0;
+                for (int x = 0; x < 30; x++) {
+                    for (int y = 0; y < 16; y++) {
+                        boolean mine = (trace.mines()[(x * 16 + y) >>> 6] >>> ((x * 16 + y) & 63) & 1) != 0;
+                        assertEquals(mine, game.isMine(x, y));
+                        if (mine) mines++;
+                    }
+                }
+                assertEquals(mines, 99);
+                assertEquals(trace.numSteps(), (int) steps.get(g));
+                assertEquals(trace.outcome() == GameTrace.WON, won.get(g));
+
+                TraceReplayer.Replay replay = TraceReplayer.replay(trace,
+                        replayed -> SolverMain.createSolver(1, replayed), 480);
+                assertEquals(replay.firstDivergence(), -1);
+                assertEquals(replay.steps(), trace.numSteps());
+                assertEquals(replay.outcome(), trace.outcome());
+                g++;
+            }
+            assertEquals(g, 5);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void unfinishedGame() throws IOException {
+        Path file = Files.createTempFile("trace", ".bin");
+        try {
+            try (TraceRecorder recorder = new TraceRecorder(file)) {
+                SimpleMinesweeper game = new SimpleMinesweeper(new BitboardGrid(9, 9, 10), false);
+                game.reset(3);
+                TraceRecorder.Recording recording = recorder.startGame(game);
+                ArrayList<Coordinates> opened = new ArrayList<>();
+                opened.add(new Coordinates(8, 2));
+                opened.add(new Coordinates(0, 1));
+                ArrayList<Coordinates> flagged = new ArrayList<>();
+                flagged.add(new Coordinates(4, 4));
+                recording.step(1234, opened, flagged);
+                recording.finish(GameTrace.UNFINISHED);
+                recording.finish(GameTrace.WON);
+            }
+
+            int games = 0;
+            for (GameTrace trace: new TraceReplayer(file)) {
+                assertEquals(trace.longSideLength(), 9);
+                assertEquals(trace.shortSideLength(), 9);
+                assertEquals(trace.numMines(), 10);
+                assertEquals(trace.outcome(), GameTrace.UNFINISHED);
+                assertEquals(trace.numSteps(), 1);
+                assertEquals(trace.stepNanos()[0], 1234);
+                assertArrayEquals(trace.opened()[0], new int[]{8 * 9 + 2, 1});
+                assertArrayEquals(trace.flagged()[0], new int[]{4 * 9 + 4});
+                games++;
+            }
+            assertEquals(games, 1);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void safeFirstClick() throws IOException {
+        Grid grid = new Grid(30, 16, 99);
+        BitboardGrid bitboardGrid = new BitboardGrid(30, 16, 99);
+        grid.useSafeFirstClick(true, true);
+        bitboardGrid.useSafeFirstClick(true, true);
+        grid.genGrid(5);
+        bitboardGrid.genGrid(5);
+        assertFalse(bitboardGrid.isMine(4, 2));
+
+        grid.openRegion(2, 4);
+        bitboardGrid.openRegion(2, 4);
+        int mines = 0;
+        for (int x = 0; x < 30; x++)
+            for (int y = 0; y < 16; y++) {
+                assertEquals(grid.isMine(x, y), bitboardGrid.isMine(x, y));
+                if (!grid.isMine(x, y)) assertEquals(grid.getNumber(x, y), bitboardGrid.getNumber(x, y));
+                if (Math.abs(x - 4) <= 1 && Math.abs(y - 2) <= 1) assertFalse(grid.isMine(x, y));
+                if (grid.isMine(x, y)) mines++;
+            }
+        assertEquals(mines, 99);
+        assertEquals(bitboardGrid.getNumber(4, 2), 0);
+        assertFalse(bitboardGrid.isGameLost());
+
+        Path file = Files.createTempFile("trace", ".bin");
+        try {
+            SimpleMinesweeper game = new SimpleMinesweeper(bitboardGrid, false);
+            try (TraceRecorder recorder = new TraceRecorder(file)) {
+                SolverMain main = new SolverMain(game);
+                main.useTraceRecorder(recorder);
+                main.useOpeningCell(new Coordinates(4, 2));
+                game.reset(6);
+                main.chooseMode(1);
+                main.step();
+                main.finishRecording();
+            }
+
+            GameTrace trace = new TraceReplayer(file).iterator().next();
+            assertArrayEquals(trace.opened()[0], new int[]{4 * 16 + 2});
+            for (int id = 0; id < 30 * 16; id++)
+                assertEquals((trace.mines()[id >>> 6] >>> (id & 63) & 1) != 0, game.isMine(id / 16, id % 16));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void rejectsLargeBoards() throws IOException {
+        Path file = Files.createTempFile("trace", ".bin");
+        try (TraceRecorder recorder = new TraceRecorder(file)) {
+            SimpleMinesweeper wide = new SimpleMinesweeper(new BitboardGrid(1 << 16, 1, 1), false);
+            assertThrows(RuntimeException.class, () -> recorder.startGame(wide));
+
+            SimpleMinesweeper largest = new SimpleMinesweeper(new BitboardGrid(0xFFFF, 1, 1), false);
+            recorder.startGame(largest).finish(GameTrace.UNFINISHED);
+        }
+        try {
+            GameTrace trace = new TraceReplayer(file).iterator().next();
+            assertEquals(trace.longSideLength(), 0xFFFF);
+            assertEquals(trace.shortSideLength(), 1);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
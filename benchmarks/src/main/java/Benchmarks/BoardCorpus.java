@@ -0,0 +1,106 @@
+package Benchmarks;
+
+import ModelMinesweeper.BoardConfig;
+import ModelMinesweeper.Cell;
+import ModelMinesweeper.Grid;
+import Solver.Coordinates;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Fixed seed boards shared by the benchmarks, so every run and every change is measured on the same games
+ *
+ * No mine is placed around the first click, so opening it always opens a region, like the first move of a real game.
+ */
+public final class BoardCorpus {
+    public static final long SEED = 20240117L;
+    public static final int BOARDS_PER_SIZE = 16;
+
+    private BoardCorpus() {
+    }
+
+    /**
+     * @param config The size of the boards
+     * @return BOARDS_PER_SIZE mine layouts indexed by [board][long side][short side], the same for every call
+     */
+    public static boolean[][][] layouts(BoardConfig config) {
+        Random random = new Random(SEED ^ ((long) config.longSide() << 32 | (long) config.shortSide() << 16 |
+                config.numMines()));
+        Coordinates firstClick = firstClick(config);
+
+        int[] candidates = new int[config.totalNumCells()];
+        int numCandidates = 0;
+        for (int x = 0; x < config.longSide(); x++)
+            for (int y = 0; y < config.shortSide(); y++)
+                if (Math.abs(x - firstClick.x()) > 1 || Math.abs(y - firstClick.y()) > 1)
+                    candidates[numCandidates++] = x * config.shortSide() + y;
+        if (numCandidates < config.numMines())
+            throw new RuntimeException("Board has too many mines to keep the first click safe");
+
+        boolean[][][] layouts = new boolean[BOARDS_PER_SIZE][config.longSide()][config.shortSide()];
+        for (boolean[][] layout: layouts)
+            for (int i = 0; i < config.numMines(); i++) {
+                int swap = i + random.nextInt(numCandidates - i);
+                int cell = candidates[swap];
+                candidates[swap] = candidates[i];
+                candidates[i] = cell;
+                layout[cell / config.shortSide()][cell % config.shortSide()] = true;
+            }
+        return layouts;
+    }
+
+    /**
+     * @return The cell opened first on every board of the corpus, (long side, short side)
+     */
+    public static Coordinates firstClick(BoardConfig config) {
+        return new Coordinates(config.longSide() / 2, config.shortSide() / 2);
+    }
+
+    /**
+     * @param layout A mine layout from layouts(config)
+     * @return A grid with the mines of layout and every cell closed
+     */
+    public static Grid makeGrid(BoardConfig config, boolean[][] layout) {
+        Grid grid = new Grid(config.longSide(), config.shortSide(), config.numMines());
+        for (int x = 0; x < config.longSide(); x++)
+            for (int y = 0; y < config.shortSide(); y++) {
+                grid.grid[x][y] = new Cell();
+                if (layout[x][y]) grid.grid[x][y].makeMine();
+            }
+        grid.setAllNonMineCells();
+        return grid;
+    }
+
+    /**
+     * @param layout A mine layout from layouts(config)
+     * @return A grid with the mines of layout and the region of the first click open
+     */
+    public static Grid makeOpenedGrid(BoardConfig config, boolean[][] layout) {
+        Grid grid = makeGrid(config, layout);
+        Coordinates firstClick = firstClick(config);
+        grid.openCell(firstClick.y(), firstClick.x());
+        return grid;
+    }
+
+    /**
+     * @return The solver matrices of every board of the corpus after the first click
+     */
+    public static int[][][] openedMatrices(BoardConfig config) {
+        boolean[][][] layouts = layouts(config);
+        int[][][] matrices = new int[layouts.length][][];
+        for (int i = 0; i < layouts.length; i++)
+            matrices[i] = makeOpenedGrid(config, layouts[i]).parseGridIntoSolverMatrix();
+        return matrices;
+    }
+
+    /**
+     * @return A board of the given size with every cell closed, as seen by a solver before the first move
+     */
+    public static int[][] closedMatrix(BoardConfig config) {
+        int[][] matrix = new int[config.longSide()][config.shortSide()];
+        for (int[] column: matrix)
+            Arrays.fill(column, -1);
+        return matrix;
+    }
+}
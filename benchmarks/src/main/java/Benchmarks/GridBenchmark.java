@@ -0,0 +1,105 @@
+package Benchmarks;
+
+import ModelMinesweeper.BoardConfig;
+import ModelMinesweeper.Grid;
+import Solver.Coordinates;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the game engine: mine placement, flood fill of the first click and export to the solvers
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridBenchmark {
+    @State(Scope.Thread)
+    public static class Boards {
+        @Param({"beginner", "intermediate", "expert"})
+        public String board;
+
+        BoardConfig config;
+        boolean[][][] layouts;
+        Grid generated;
+        Grid[] opened;
+        int[][][] exported;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            config = BoardConfig.parse(board);
+            layouts = BoardCorpus.layouts(config);
+            generated = new Grid(config.longSide(), config.shortSide(), config.numMines());
+            opened = new Grid[layouts.length];
+            exported = new int[layouts.length][config.longSide()][config.shortSide()];
+            for (int i = 0; i < layouts.length; i++) {
+                opened[i] = BoardCorpus.makeOpenedGrid(config, layouts[i]);
+                opened[i].exportSolverMatrix(exported[i]);
+            }
+        }
+
+        Grid nextOpened() {
+            next = (next + 1) % opened.length;
+            return opened[next];
+        }
+    }
+
+    /**
+     * Closed grids of the corpus, opening a cell cannot be undone so the grids are rebuilt before every iteration, grid
+     * i has the i % layouts.length-th layout
+     */
+    @State(Scope.Thread)
+    public static class ClosedBoards {
+        static final int GRIDS = 500;
+
+        Grid[] grids = new Grid[GRIDS];
+        Coordinates firstClick;
+
+        @Setup(Level.Iteration)
+        public void setUp(Boards boards) {
+            for (int i = 0; i < GRIDS; i++)
+                grids[i] = BoardCorpus.makeGrid(boards.config, boards.layouts[i % boards.layouts.length]);
+            firstClick = BoardCorpus.firstClick(boards.config);
+        }
+    }
+
+    @Benchmark
+    public Grid genGrid(Boards boards) {
+        boards.generated.genGrid();
+        return boards.generated;
+    }
+
+    /**
+     * Opens the first click of every closed grid in one timed invocation, so neither building the grids nor reading
+     * the clock is part of the time of a flood fill
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OperationsPerInvocation(ClosedBoards.GRIDS)
+    @Warmup(iterations = 30)
+    @Measurement(iterations = 20)
+    public void openCell(ClosedBoards boards, Blackhole blackhole) {
+        for (Grid grid: boards.grids)
+            blackhole.consume(grid.openCell(boards.firstClick.y(), boards.firstClick.x()));
+    }
+
+    @Benchmark
+    public int[][] parseGridIntoSolverMatrix(Boards boards) {
+        return boards.nextOpened().parseGridIntoSolverMatrix();
+    }
+
+    /**
+     * Flags or unflags a corner and exports the grid into the matrix it was last exported to, so only that cell is
+     * written, compare with parseGridIntoSolverMatrix
+     */
+    @Benchmark
+    public int exportSolverMatrix(Boards boards) {
+        Grid grid = boards.nextOpened();
+        grid.flagCell(0, 0);
+        return grid.exportSolverMatrix(boards.exported[boards.next]);
+    }
+}
@@ -0,0 +1,76 @@
+package Benchmarks;
+
+import ModelMinesweeper.BoardConfig;
+import Solver.LocalBruteForceSolver.LocalBruteForceSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of one brute force search of LocalBruteForceSolver around a frontier cell, for several search widths
+ *
+ * Every invocation searches around the next frontier cell of the next board of the corpus, the search does not change
+ * the board so the solvers are only built once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LocalBruteForceSolverBenchmark {
+    @Param({"beginner", "intermediate", "expert"})
+    public String board;
+
+    @Param({"1", "2", "3"})
+    public int searchWidth;
+
+    BenchmarkedSolver[] solvers;
+    int nextSolver;
+    int nextNode;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BoardConfig config = BoardConfig.parse(board);
+        int[][][] matrices = BoardCorpus.openedMatrices(config);
+        solvers = new BenchmarkedSolver[matrices.length];
+        for (int i = 0; i < matrices.length; i++) {
+            solvers[i] = new BenchmarkedSolver(searchWidth, config.longSide(), config.shortSide());
+            solvers[i].updateBoard(matrices[i]);
+        }
+    }
+
+    @Benchmark
+    public int bruteForceWrapper() {
+        BenchmarkedSolver solver = solvers[nextSolver];
+        int found = solver.bruteForceAround(nextNode);
+        if (++nextNode >= solver.frontierSize()) {
+            nextNode = 0;
+            nextSolver = (nextSolver + 1) % solvers.length;
+        }
+        return found;
+    }
+
+    /**
+     * Exposes the search of LocalBruteForceSolver around a frontier node
+     */
+    static class BenchmarkedSolver extends LocalBruteForceSolver {
+        BenchmarkedSolver(int searchWidth, int longSideLength, int shortSideLength) {
+            super(searchWidth, longSideLength, shortSideLength);
+        }
+
+        int frontierSize() {
+            return frontier.size();
+        }
+
+        /**
+         * @return The number of certain cells found around the index-th frontier node
+         */
+        int bruteForceAround(int index) {
+            certainNumberCells.clear();
+            toFlag.clear();
+            bruteForceWrapper(frontier.get(index));
+            return certainNumberCells.size() + toFlag.size();
+        }
+    }
+}
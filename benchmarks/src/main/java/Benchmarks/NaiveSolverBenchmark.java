@@ -0,0 +1,87 @@
+package Benchmarks;
+
+import ModelMinesweeper.BoardConfig;
+import Solver.NaiveSolver.NaiveSolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of NaiveSolver on the boards of the corpus right after the first click
+ *
+ * Both calls change the solver, so every call needs a solver of its own. The solvers of an iteration are built before
+ * it starts and a single timed invocation makes one call on each of them, so neither building them nor reading the
+ * clock is part of the few microseconds a call takes.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(NaiveSolverBenchmark.SOLVERS)
+@Warmup(iterations = 30)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Thread)
+public class NaiveSolverBenchmark {
+    /**
+     * Solvers built for every iteration, one per call
+     */
+    static final int SOLVERS = 2000;
+
+    @Param({"beginner", "intermediate", "expert"})
+    public String board;
+
+    BoardConfig config;
+    int[][][] matrices;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        config = BoardConfig.parse(board);
+        matrices = BoardCorpus.openedMatrices(config);
+    }
+
+    /**
+     * Solvers that did not see any board yet
+     */
+    @State(Scope.Thread)
+    public static class FreshSolvers {
+        NaiveSolver[] solvers = new NaiveSolver[SOLVERS];
+
+        @Setup(Level.Iteration)
+        public void setUp(NaiveSolverBenchmark benchmark) {
+            BoardConfig config = benchmark.config;
+            for (int i = 0; i < SOLVERS; i++)
+                solvers[i] = new NaiveSolver(BoardCorpus.closedMatrix(config), config.longSide(), config.shortSide());
+        }
+    }
+
+    /**
+     * Solvers updated with the i % matrices.length-th board of the corpus
+     */
+    @State(Scope.Thread)
+    public static class UpdatedSolvers {
+        NaiveSolver[] solvers = new NaiveSolver[SOLVERS];
+
+        @Setup(Level.Iteration)
+        public void setUp(NaiveSolverBenchmark benchmark) {
+            BoardConfig config = benchmark.config;
+            for (int i = 0; i < SOLVERS; i++) {
+                solvers[i] = new NaiveSolver(BoardCorpus.closedMatrix(config), config.longSide(), config.shortSide());
+                solvers[i].updateBoard(benchmark.matrices[i % benchmark.matrices.length]);
+            }
+        }
+    }
+
+    @Benchmark
+    public void updateBoard(FreshSolvers fresh, Blackhole blackhole) {
+        for (int i = 0; i < SOLVERS; i++) {
+            fresh.solvers[i].updateBoard(matrices[i % matrices.length]);
+            blackhole.consume(fresh.solvers[i]);
+        }
+    }
+
+    @Benchmark
+    public void step(UpdatedSolvers updated, Blackhole blackhole) {
+        for (int i = 0; i < SOLVERS; i++)
+            blackhole.consume(updated.solvers[i].step());
+    }
+}